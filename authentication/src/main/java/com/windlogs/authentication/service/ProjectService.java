@@ -21,6 +21,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -39,6 +40,7 @@ public class ProjectService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ProjectUserRepository projectUserRepository;
+    private final TicketsCacheClient ticketsCacheClient;
 
 
     public Optional<User> getUserById(Long id) {
@@ -90,6 +92,8 @@ public class ProjectService {
         
         // Save the project
         Project savedProject = projectRepository.save(project);
+        // The tag may be cached as unknown by the tickets service
+        ticketsCacheClient.evictProjectTag(savedProject.getPrimaryTag());
         
         // If this is a microservice, update the parent's subProjects collection separately
         if (project.getProjectType() == ProjectType.MICROSERVICES && project.getParentProject() != null) {
@@ -189,6 +193,7 @@ public class ProjectService {
         logger.info("Updating project with ID: {}", id);
 
         return projectRepository.findById(id).map(existingProject -> {
+            String previousPrimaryTag = existingProject.getPrimaryTag();
             if (updatedProject.getName() != null) {
                 existingProject.setName(updatedProject.getName());
             }
@@ -256,13 +261,24 @@ public class ProjectService {
                 }
             }
 
-            return projectRepository.save(existingProject);
+            Project savedProject = projectRepository.save(existingProject);
+
+            // Tag lookups are cached by the tickets service
+            // Both tags: the new one may be cached as "no project"
+            if (!Objects.equals(previousPrimaryTag, savedProject.getPrimaryTag())) {
+                ticketsCacheClient.evictProjectTag(previousPrimaryTag);
+                ticketsCacheClient.evictProjectTag(savedProject.getPrimaryTag());
+            }
+            return savedProject;
         });
     }
 
     public void deleteProject(Long id) {
         logger.info("Deleting project with ID: {}", id);
+        Optional<String> primaryTag = projectRepository.findById(id).map(Project::getPrimaryTag);
         projectRepository.deleteById(id);
+        primaryTag.ifPresent(ticketsCacheClient::evictProjectTag);
+        ticketsCacheClient.evictProjectMembers(id);
     }
 
     public List<Project> findProjectsByTagAndTenant(String tag, String tenant) {
@@ -302,6 +318,7 @@ public class ProjectService {
             project.setMembersCount(project.getProjectUsers().size() + 1);
 
             Project savedProject = projectRepository.save(project);
+            ticketsCacheClient.evictProjectMembers(projectId);
             logger.info("Successfully added user {} to project {}", userId, projectId);
             return savedProject;
 
@@ -321,7 +338,9 @@ public class ProjectService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         project.removeMember(user);
-        return projectRepository.save(project);
+        Project savedProject = projectRepository.save(project);
+        ticketsCacheClient.evictProjectMembers(projectId);
+        return savedProject;
     }
 
     public Set<User> getProjectUsers(Long projectId) {
@@ -0,0 +1,129 @@
+package com.windlogs.authentication.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tells the tickets service to drop cached project data after a change here.
+ * Every tickets instance registered in Eureka holds its own cache, so each one is called;
+ * tickets.service.url is only used when discovery knows no instance.
+ * Best effort: a failed call is logged and that instance's cache falls back on its TTL.
+ * The calls run on the application task executor with short timeouts, so a slow or
+ * unreachable tickets instance never holds up the request that made the change.
+ */
+@Service
+public class TicketsCacheClient {
+    private static final Logger logger = LoggerFactory.getLogger(TicketsCacheClient.class);
+    private final RestTemplate restTemplate;
+    private final DiscoveryClient discoveryClient;
+    private final TaskExecutor taskExecutor;
+
+    @Value("${tickets.service.id:tickets}")
+    private String ticketsServiceId;
+
+    @Value("${tickets.service.url:http://localhost:8083}")
+    private String ticketsServiceUrl;
+
+    public TicketsCacheClient(
+            DiscoveryClient discoveryClient,
+            RestTemplateBuilder restTemplateBuilder,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${tickets.service.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${tickets.service.read-timeout-ms:2000}") long readTimeoutMs) {
+        this.discoveryClient = discoveryClient;
+        this.taskExecutor = taskExecutor;
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+    }
+
+    /**
+     * Evict a primary tag from the tickets service tag-to-project cache
+     * @param primaryTag The primary tag that was created, changed or removed
+     */
+    public void evictProjectTag(String primaryTag) {
+        if (primaryTag == null || primaryTag.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> broadcast("/api/v1/internal/cache/project-tags/{tag}", primaryTag,
+                "project tag '" + primaryTag + "'"));
+    }
+
+    /**
+     * Evict a project's member list (and default assignee) from the tickets service cache
+     * @param projectId The project whose membership changed
+     */
+    public void evictProjectMembers(Long projectId) {
+        if (projectId == null) {
+            return;
+        }
+        afterCommit(() -> broadcast("/api/v1/internal/cache/project-members/{projectId}", projectId,
+                "members of project " + projectId));
+    }
+
+    private void broadcast(String path, Object key, String description) {
+        for (String baseUrl : ticketsInstanceUrls()) {
+            try {
+                restTemplate.delete(baseUrl + path, key);
+                logger.info("Evicted {} from tickets service cache at {}", description, baseUrl);
+            } catch (Exception e) {
+                logger.warn("Could not evict {} from tickets service cache at {}: {}", description, baseUrl, e.getMessage());
+            }
+        }
+    }
+
+    private List<String> ticketsInstanceUrls() {
+        try {
+            List<String> urls = discoveryClient.getInstances(ticketsServiceId).stream()
+                    .map(ServiceInstance::getUri)
+                    .map(uri -> uri.toString().replaceAll("/$", ""))
+                    .distinct()
+                    .toList();
+            if (!urls.isEmpty()) {
+                return urls;
+            }
+        } catch (Exception e) {
+            logger.warn("Could not list tickets service instances: {}", e.getMessage());
+        }
+        return List.of(ticketsServiceUrl);
+    }
+
+    /**
+     * Send the eviction once the current transaction commits, so the tickets service
+     * cannot reload the old data in between. Sent right away outside a transaction.
+     */
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(eviction);
+                }
+            });
+        } else {
+            send(eviction);
+        }
+    }
+
+    private void send(Runnable eviction) {
+        try {
+            taskExecutor.execute(eviction);
+        } catch (Exception e) {
+            logger.warn("Could not schedule tickets service cache eviction: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.windlogs.tickets.config;
+
+import com.windlogs.tickets.exception.AnalyzerBatchUnsupportedException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * HTTP client and isolation for the exception analyzer.
+ * Calls go through a pooled, non-blocking client, a bulkhead capping concurrent calls,
+ * and a circuit breaker that fails fast while the analyzer is down, so a slow or hung
+ * analyzer cannot hold threads of the ingest pipeline or the servlet container.
+ */
+@Configuration
+public class AnalyzerClientConfig {
+    public static final String ANALYZER = "analyzer";
+
+    @Bean
+    public WebClient analyzerWebClient(
+            @Value("${exception.analyzer.api.url:http://localhost:8000}") String apiUrl,
+            @Value("${exception.analyzer.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${exception.analyzer.pool.max-connections:50}") int maxConnections,
+            @Value("${exception.analyzer.pool.pending-acquire-timeout-ms:1000}") long pendingAcquireTimeoutMs) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("analyzer-pool")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
+        return WebClient.builder()
+                .baseUrl(apiUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // Analyzer responses embed stack traces and analyses
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build();
+    }
+
+    @Bean
+    public CircuitBreaker analyzerCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${exception.analyzer.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${exception.analyzer.circuit-breaker.slow-call-threshold-ms:5000}") long slowCallThresholdMs,
+            @Value("${exception.analyzer.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${exception.analyzer.circuit-breaker.wait-in-open-seconds:30}") long waitInOpenSeconds) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallThresholdMs))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(slidingWindowSize, 10))
+                .waitDurationInOpenState(Duration.ofSeconds(waitInOpenSeconds))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                // Our own rejections and a missing batch endpoint say nothing about the analyzer's health
+                .ignoreExceptions(BulkheadFullException.class, AnalyzerBatchUnsupportedException.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(ANALYZER);
+    }
+
+    @Bean
+    public Bulkhead analyzerBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${exception.analyzer.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        // Reactive calls never wait for a permit: a full bulkhead rejects the call right away
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(ANALYZER);
+    }
+}
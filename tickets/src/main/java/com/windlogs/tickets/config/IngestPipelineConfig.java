@@ -0,0 +1,73 @@
+package com.windlogs.tickets.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Worker pools for the staged log ingest pipeline (persist -> enrich -> ticket -> notify).
+ * Each stage has its own bounded queue; when a queue is full the submitting thread
+ * runs the task itself, so a slow stage pushes back on the one before it instead of
+ * buffering without limit. A Netty event loop completing an analyzer call never runs
+ * a task itself: it hands it to the bounded elastic scheduler instead.
+ */
+@Configuration
+public class IngestPipelineConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor ingestEnrichExecutor(
+            @Value("${ingest.pipeline.enrich.threads:4}") int threads,
+            @Value("${ingest.pipeline.enrich.queue-capacity:1000}") int queueCapacity) {
+        return stageExecutor("ingest-enrich-", threads, queueCapacity);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor ingestTicketExecutor(
+            @Value("${ingest.pipeline.ticket.threads:2}") int threads,
+            @Value("${ingest.pipeline.ticket.queue-capacity:1000}") int queueCapacity) {
+        return stageExecutor("ingest-ticket-", threads, queueCapacity);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor ingestNotifyExecutor(
+            @Value("${ingest.pipeline.notify.threads:2}") int threads,
+            @Value("${ingest.pipeline.notify.queue-capacity:1000}") int queueCapacity) {
+        return stageExecutor("ingest-notify-", threads, queueCapacity);
+    }
+
+    private ThreadPoolTaskExecutor stageExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new CallerRunsUnlessNonBlockingPolicy());
+        // Drain accepted work on shutdown: those logs are already committed
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * {@link ThreadPoolExecutor.CallerRunsPolicy}, except on a non-blocking thread (a Netty event loop),
+     * where running the task would stall every connection of the loop
+     */
+    static final class CallerRunsUnlessNonBlockingPolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            if (Schedulers.isInNonBlockingThread()) {
+                Schedulers.boundedElastic().schedule(task);
+                return;
+            }
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.windlogs.tickets.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * How long logs are kept, in whole months before the current one.
+ * @param defaultMonths Retention of tenants without an override
+ * @param tenantMonths Per-tenant overrides, shorter or longer than the default
+ */
+@ConfigurationProperties(prefix = "logs.retention")
+public record LogRetentionProperties(@DefaultValue("12") int defaultMonths, Map<String, Integer> tenantMonths) {
+
+    public LogRetentionProperties {
+        tenantMonths = tenantMonths != null ? Map.copyOf(tenantMonths) : Map.of();
+    }
+
+    public int monthsFor(String tenant) {
+        return tenant != null ? tenantMonths.getOrDefault(tenant, defaultMonths) : defaultMonths;
+    }
+
+    /**
+     * @return The longest retention of any tenant; older partitions hold nothing worth keeping
+     */
+    public int longestMonths() {
+        return tenantMonths.values().stream().mapToInt(Integer::intValue).reduce(defaultMonths, Math::max);
+    }
+}
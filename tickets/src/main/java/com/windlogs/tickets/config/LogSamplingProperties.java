@@ -0,0 +1,32 @@
+package com.windlogs.tickets.config;
+
+import com.windlogs.tickets.enums.LogType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Fraction of the Fluentd records of each level that is stored, between 0 and 1.
+ * ERROR and FATAL records are always stored, whatever the rates say.
+ * @param defaultRates Rates of projects without an override; a missing level is fully stored
+ * @param tagRates Per-project overrides, by project tag, e.g. payments: {DEBUG: 0.0}
+ */
+@ConfigurationProperties(prefix = "ingest.sampling")
+public record LogSamplingProperties(Map<LogType, Double> defaultRates, Map<String, Map<LogType, Double>> tagRates) {
+
+    public LogSamplingProperties {
+        defaultRates = defaultRates != null ? Map.copyOf(defaultRates) : Map.of();
+        tagRates = tagRates != null ? Map.copyOf(tagRates) : Map.of();
+    }
+
+    public double rateFor(String tag, LogType type) {
+        if (type == LogType.ERROR || type == LogType.FATAL) {
+            return 1.0;
+        }
+        Map<LogType, Double> overrides = tag != null ? tagRates.get(tag) : null;
+        if (overrides != null && overrides.containsKey(type)) {
+            return overrides.get(type);
+        }
+        return defaultRates.getOrDefault(type, 1.0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.windlogs.tickets.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Versioned schema migrations (src/main/resources/db/migration).
+ * Tables are still created and extended by Hibernate ({@code ddl-auto}); the migrations
+ * add what Hibernate does not manage, such as column type changes and concurrently built
+ * indexes. They therefore run once the entity manager factory is up instead of before it,
+ * so that they also apply to a fresh database.
+ */
+@Configuration
+public class SchemaMigrationConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationConfig.class);
+
+    /**
+     * Skip the migration Spring Boot runs before JPA starts
+     */
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigrationStrategy() {
+        return flyway -> logger.debug("Deferring schema migrations until the entity manager factory is ready");
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public DeferredSchemaMigration deferredSchemaMigration(ObjectProvider<Flyway> flyway) {
+        return new DeferredSchemaMigration(flyway);
+    }
+
+    /**
+     * Applies the pending migrations when created, right after the entity manager factory
+     */
+    public static class DeferredSchemaMigration {
+        DeferredSchemaMigration(ObjectProvider<Flyway> flyway) {
+            flyway.ifAvailable(migrations -> {
+                MigrateResult result = migrations.migrate();
+                logger.info("Schema at version {} ({} migrations applied)",
+                        result.targetSchemaVersion, result.migrationsExecuted);
+            });
+        }
+    }
+}
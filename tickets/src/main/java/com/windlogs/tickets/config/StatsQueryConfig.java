@@ -0,0 +1,30 @@
+package com.windlogs.tickets.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool running the independent queries of a dashboard in parallel (see StatsQueryRunner).
+ * It is sized below the JDBC connection pool so dashboards cannot starve the ingest path;
+ * when its queue is full the request thread runs the query itself.
+ */
+@Configuration
+public class StatsQueryConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor statsQueryExecutor(
+            @Value("${stats.query.threads:6}") int threads,
+            @Value("${stats.query.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("stats-query-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,64 @@
+package com.windlogs.tickets.controller;
+
+import com.windlogs.tickets.service.ProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Invalidation hooks for the in-process caches.
+ * Called service-to-service by the authentication service; not routed through the gateway.
+ */
+@RestController
+@RequestMapping("/api/v1/internal/cache")
+public class CacheController {
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+    private final ProjectService projectService;
+
+    public CacheController(ProjectService projectService) {
+        this.projectService = projectService;
+    }
+
+    /**
+     * Evict a primary tag, e.g. after a project's primaryTag was created, changed or deleted
+     * @param tag The primary tag
+     */
+    @DeleteMapping("/project-tags/{tag}")
+    public ResponseEntity<Void> evictProjectTag(@PathVariable String tag) {
+        logger.info("Received cache invalidation for project tag: {}", tag);
+        projectService.evictProjectTag(tag);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Evict every cached primary tag
+     */
+    @DeleteMapping("/project-tags")
+    public ResponseEntity<Void> evictAllProjectTags() {
+        logger.info("Received cache invalidation for all project tags");
+        projectService.evictAllProjectTags();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Evict a project's members, e.g. after a user was added to or removed from it
+     * @param projectId The project ID
+     */
+    @DeleteMapping("/project-members/{projectId}")
+    public ResponseEntity<Void> evictProjectMembers(@PathVariable Long projectId) {
+        logger.info("Received cache invalidation for members of project: {}", projectId);
+        projectService.evictProjectMembers(projectId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Evict every cached member list
+     */
+    @DeleteMapping("/project-members")
+    public ResponseEntity<Void> evictAllProjectMembers() {
+        logger.info("Received cache invalidation for all project members");
+        projectService.evictAllProjectMembers();
+        return ResponseEntity.noContent().build();
+    }
+}
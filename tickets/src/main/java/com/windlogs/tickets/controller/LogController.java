@@ -1,55 +1,62 @@
 package com.windlogs.tickets.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.windlogs.tickets.dto.*;
 import com.windlogs.tickets.entity.Log;
-import com.windlogs.tickets.repository.LogRepository;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+import com.windlogs.tickets.mapper.FluentdRecordDecoder;
+import com.windlogs.tickets.mapper.LogMapper;
 import com.windlogs.tickets.service.AuthService;
+import com.windlogs.tickets.service.LogIngestService;
+import com.windlogs.tickets.service.LogPayloadStore;
+import com.windlogs.tickets.service.LogSearchService;
+import com.windlogs.tickets.service.LogTailService;
 import com.windlogs.tickets.service.LogService;
-import com.windlogs.tickets.service.ProjectService;
-import com.windlogs.tickets.service.TicketService;
-import com.windlogs.tickets.service.ExceptionAnalyzerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.time.Instant;
+import reactor.core.publisher.Flux;
+import java.io.InputStream;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import com.windlogs.tickets.enums.LogSeverity;
-import com.windlogs.tickets.enums.LogType;
-import com.windlogs.tickets.service.ExceptionAnalyzerService.StackTraceAnalysisResponse;
 
 @RestController
 @RequestMapping("/api/v1/logs")
 public class LogController {
     private static final Logger logger = LoggerFactory.getLogger(LogController.class);
+    private static final int MAX_PAGE_SIZE = 500;
     private final LogService logService;
     private final AuthService authService;
-    private final LogRepository logRepository;
-    private final ObjectMapper objectMapper;
-    private final TicketService ticketService;
-    private final ProjectService projectService;
-    private final ExceptionAnalyzerService exceptionAnalyzerService;
+    private final LogMapper logMapper;
+    private final LogIngestService logIngestService;
+    private final FluentdRecordDecoder fluentdRecordDecoder;
+    private final LogPayloadStore logPayloadStore;
+    private final LogSearchService logSearchService;
+    private final LogTailService logTailService;
 
     public LogController(
             LogService logService, 
-            TicketService ticketService, 
             AuthService authService, 
-            LogRepository logRepository, 
-            ObjectMapper objectMapper, 
-            ProjectService projectService,
-            ExceptionAnalyzerService exceptionAnalyzerService) {
+            LogMapper logMapper,
+            LogIngestService logIngestService,
+            FluentdRecordDecoder fluentdRecordDecoder,
+            LogPayloadStore logPayloadStore,
+            LogSearchService logSearchService,
+            LogTailService logTailService) {
         this.logService = logService;
         this.authService = authService;
-        this.logRepository = logRepository;
-        this.objectMapper = objectMapper;
-        this.ticketService = ticketService;
-        this.projectService = projectService;
-        this.exceptionAnalyzerService = exceptionAnalyzerService;
+        this.logMapper = logMapper;
+        this.logIngestService = logIngestService;
+        this.fluentdRecordDecoder = fluentdRecordDecoder;
+        this.logPayloadStore = logPayloadStore;
+        this.logSearchService = logSearchService;
+        this.logTailService = logTailService;
     }
 
     /**
@@ -69,10 +76,11 @@ public class LogController {
 
         // Get logs for the project
         List<Log> logs = logService.getLogsByProjectId(projectId);
+        logPayloadStore.hydrate(logs);
 
         // Convert to DTOs
         List<LogDTO> logDTOs = logs.stream()
-                .map(this::convertToDTO)
+                .map(logMapper::toDTO)
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(logDTOs);
@@ -95,8 +103,9 @@ public class LogController {
 
         // Get the log
         Log log = logService.getLogById(logId);
+        logPayloadStore.hydrate(log);
 
-        return ResponseEntity.ok(convertToDTO(log));
+        return ResponseEntity.ok(logMapper.toDTO(log));
     }
 
    
@@ -111,165 +120,151 @@ public class LogController {
 
         // Get the logs
         List<Log> logs = logService.getLogByTenant(logTenant);
+        logPayloadStore.hydrate(logs);
 
         // Convert logs to DTOs
         List<LogDTO> logDTOs = logs.stream()
-                .map(this::convertToDTO)
+                .map(logMapper::toDTO)
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(logDTOs);
     }
 
+    /**
+     * Get one page of a project's logs, without the large TEXT columns
+     * @param projectId The project ID
+     * @param cursor The cursor returned with the previous page, omitted for the first page
+     * @param limit The page size (1 to 500)
+     * @param authorizationHeader The authorization header
+     * @return Log summaries, newest first, and the cursor of the next page
+     */
+    @GetMapping("/project/{projectId}/page")
+    public ResponseEntity<CursorPageDTO<LogSummaryDTO>> getLogPageByProjectId(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) LogType type,
+            @RequestParam(required = false) LogSeverity severity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String exceptionType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader("Authorization") String authorizationHeader) {
+
+        UserResponseDTO user = authService.getAuthenticatedUser(authorizationHeader);
+        logger.info("Getting log page for project ID: {}, requested by: {}", projectId, user.getEmail());
+
+        LogFilterDTO filter = LogFilterDTO.of(type, severity, from, to, exceptionType);
+        filter.setProjectId(projectId);
+        return ResponseEntity.ok(logService.getLogPage(filter, cursor, clampLimit(limit)));
+    }
+
+    /**
+     * Get one page of a tenant's logs, without the large TEXT columns
+     * @param logTenant The tenant
+     * @param cursor The cursor returned with the previous page, omitted for the first page
+     * @param limit The page size (1 to 500)
+     * @param authorizationHeader The authorization header
+     * @return Log summaries, newest first, and the cursor of the next page
+     */
+    @GetMapping("/logs-by-tenant/{logTenant}/page")
+    public ResponseEntity<CursorPageDTO<LogSummaryDTO>> getLogPageByTenant(
+            @PathVariable String logTenant,
+            @RequestParam(required = false) LogType type,
+            @RequestParam(required = false) LogSeverity severity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String exceptionType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader("Authorization") String authorizationHeader) {
+
+        UserResponseDTO user = authService.getAuthenticatedUser(authorizationHeader);
+        logger.info("Getting log page for tenant: {}, requested by: {}", logTenant, user.getEmail());
+
+        LogFilterDTO filter = LogFilterDTO.of(type, severity, from, to, exceptionType);
+        filter.setTenant(logTenant);
+        return ResponseEntity.ok(logService.getLogPage(filter, cursor, clampLimit(limit)));
+    }
+
+    /**
+     * Full-text search of the user's tenant's logs: description, custom message, exception type,
+     * class name and stack trace
+     * @param q The words to find, all of them
+     * @param projectId Only search this project's logs, omitted for every project of the tenant
+     * @param cursor The cursor returned with the previous page, omitted for the first page
+     * @param limit The page size (1 to 500)
+     * @param authorizationHeader The authorization header
+     * @return Hits, best first, with highlighted excerpts, and the cursor of the next page
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<LogSearchHitDTO>> searchLogs(
+            @RequestParam String q,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader("Authorization") String authorizationHeader) {
+
+        UserResponseDTO user = authService.getAuthenticatedUser(authorizationHeader);
+        logger.info("Searching logs for tenant: {}, requested by: {}", user.getTenant(), user.getEmail());
+
+        return ResponseEntity.ok(logSearchService.search(user.getTenant(), projectId, q, cursor, clampLimit(limit)));
+    }
+
+    /**
+     * Live tail of the user's tenant's logs as Server-Sent Events: one "log" event per new log
+     * matching the filters, with an opaque cursor as event ID, and a "gap" event when logs were
+     * skipped on resume
+     * @param projectId Only tail this project's logs, omitted for every project of the tenant
+     * @param after Resume after this event ID; EventSource clients send it as Last-Event-ID when reconnecting
+     * @param authorizationHeader The authorization header
+     * @return The event stream, kept open until the client disconnects or the async timeout
+     */
+    @GetMapping(value = "/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> tailLogs(
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) LogType type,
+            @RequestParam(required = false) LogSeverity severity,
+            @RequestParam(required = false) String exceptionType,
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestHeader("Authorization") String authorizationHeader) {
+
+        UserResponseDTO user = authService.getAuthenticatedUser(authorizationHeader);
+        logger.info("Opening live tail for tenant: {}, project: {}, requested by: {}",
+                user.getTenant(), projectId, user.getEmail());
+
+        LogFilterDTO filter = LogFilterDTO.of(type, severity, null, null, exceptionType);
+        filter.setTenant(user.getTenant());
+        filter.setProjectId(projectId);
+        return logTailService.tail(filter, lastEventId != null ? lastEventId : after);
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
     @PostMapping(
             value = "/fluentd",
             consumes = {"application/json", "application/x-ndjson", "application/x-ndjson;charset=UTF-8", "text/plain", "*/*"}
     )
-    public ResponseEntity<?> receiveFluentdLog(@RequestBody String rawJsonBody) {
+    public ResponseEntity<?> receiveFluentdLog(InputStream body) {
         try {
-            logger.debug("Received log from Fluentd: {}", rawJsonBody);
-
-            FluentdLogRequest fluentdLog = objectMapper.readValue(rawJsonBody, FluentdLogRequest.class);
-            Log log = new Log();
-
-            // Set timestamp
-            if (fluentdLog.getTimestamp() != 0) {
-                try {
-                    log.setTimestamp(LocalDateTime.ofInstant(
-                            Instant.ofEpochSecond(fluentdLog.getTimestamp()),
-                            ZoneId.systemDefault()
-                    ));
-                    log.setOriginalTimestamp((double) fluentdLog.getTimestamp());
-                } catch (Exception e) {
-                    logger.warn("Failed to parse timestamp: {}, using current time", fluentdLog.getTimestamp());
-                    log.setTimestamp(LocalDateTime.now());
-                    log.setOriginalTimestamp((double) System.currentTimeMillis() / 1000);
-                }
-            } else {
-                log.setTimestamp(LocalDateTime.now());
-                log.setOriginalTimestamp((double) System.currentTimeMillis() / 1000);
-            }
-
-            log.setType(determineLogType(fluentdLog.getLevel()));
-            log.setDescription(fluentdLog.getMessage() != null ? fluentdLog.getMessage() : "No message");
-            log.setCustomMessage(fluentdLog.getMessage() != null ? fluentdLog.getMessage() : "No message");
-            log.setSource(fluentdLog.getSource() != null ? fluentdLog.getSource() : "fluentd");
-            log.setSeverity(determineLogSeverity(fluentdLog.getLevel()));
-
-            String containerTenant = extractTenant(fluentdLog.getContainer_name());
-            log.setTenant(containerTenant);
-
-            String logTag = fluentdLog.getTag() != null ? fluentdLog.getTag() : "";
-            log.setTag(logTag);
-
-            // Extract and analyze exception if the log contains one
-            if (fluentdLog.getMessage() != null && fluentdLog.getThrown() != null) {
-                // Extract stack trace from thrown.extendedStackTrace
-                String extendedStackTrace = fluentdLog.getThrown().getExtendedStackTrace();
-                if (extendedStackTrace != null) {
-                    StackTraceAnalysisResponse analysisResponse = exceptionAnalyzerService.analyzeStackTrace(extendedStackTrace);
-
-                    if (analysisResponse != null) {
-                        // Set the stack trace
-                        if (analysisResponse.getStackTrace() != null) {
-                            log.setStackTrace(analysisResponse.getStackTrace());
-                        }
-                        if (analysisResponse.getAnalysis() != null) {
-                            // Set individual analysis fields
-                            try {
-                                String analysisJson = objectMapper.writeValueAsString(analysisResponse.getAnalysis());
-                                log.setAnalysis(analysisJson);
-                            } catch (Exception e) {
-                                logger.warn("Failed to convert analysis to JSON: {}", e.getMessage());  }
-                        }
-                    }
-                }
-
-                // Set exception type from thrown object if available
-                String exceptionType = fluentdLog.getThrown().getName();
-                if (exceptionType == null || exceptionType.isEmpty()) {
-                    exceptionType = exceptionAnalyzerService.analyzeException(fluentdLog.getMessage());
-                }
-                log.setExceptionType(exceptionType);
-                logger.info("Analyzed exception type: {}", exceptionType);
-            }
-
-            if (logTag != null && !logTag.isEmpty()) {
-                try {
-                    logService.findProjectByTagPublic(logTag)
-                            .ifPresentOrElse(
-                                    project -> {
-                                        log.setProjectId(project.getId());
-                                        if (project.getTenant() != null && !project.getTenant().isEmpty()) {
-                                            log.setTenant(project.getTenant());
-                                            logger.info("Using project tenant: {} for log", project.getTenant());
-                                        }
-                                        logger.info("Matched log with tag {} to project {} (tenant: {})",
-                                                logTag, project.getId(), project.getTenant());
-                                    },
-                                    () -> {
-                                        log.setProjectId(1L);
-                                        logger.info("No project found with tag {}, using default project ID and container tenant: {}",
-                                                logTag, containerTenant);
-                                    }
-                            );
-                } catch (Exception e) {
-                    logger.error("Error finding project by tag: {}", e.getMessage());
-                    log.setProjectId(1L);
-                }
-            } else {
-                log.setProjectId(1L);
-            }
-
-            log.setErrorCode("FL_" + System.currentTimeMillis());
-            log.setPid(fluentdLog.getPid());
-            log.setThread(fluentdLog.getThread());
-            log.setClassName(fluentdLog.getClass_name());
-            log.setContainerId(fluentdLog.getContainer_id());
-            log.setContainerName(fluentdLog.getContainer_name());
-
-            Log savedLog = logRepository.save(log);
-            logger.info("Successfully saved log with ID: {}", savedLog.getId());
-            
-            TicketDTO ticketDTO = new TicketDTO();
-
-            List<UserResponseDTO> projectMembers = projectService.getProjectUsers(log.getProjectId());
-            logger.info("Found {} project members for project ID: {}", projectMembers.size(), log.getProjectId());
-
-            UserResponseDTO assignee = projectMembers.stream()
-                    .filter(user -> "MANAGER".equalsIgnoreCase(user.getRole()))
-                    .findFirst()
-                    .orElse(projectMembers.isEmpty() ? null : projectMembers.get(0));
-
-            if (assignee != null) {
-                ticketDTO.setCreatorUserId(assignee.getId());
-                ticketDTO.setUserEmail(assignee.getEmail());
-                logger.info("Assigned ticket to user: {} ({})", assignee.getEmail(), assignee.getRole());
-            } else {
-                ticketDTO.setCreatorUserId(1L);
-                ticketDTO.setUserEmail("admin@windlogs.com");
-                logger.warn("No suitable assignee found, using default admin account");
+            // Decoded from the stream, without reading the body into a string first
+            FluentdLogRequest fluentdLog = fluentdRecordDecoder.decode(body);
+            logger.debug("Received {} log from Fluentd, tag: {}", fluentdLog.getLevel(), fluentdLog.getTag());
+            IngestResultDTO result = logIngestService.ingest(fluentdLog);
+            if (result.getId() == null) {
+                return ResponseEntity.accepted().body(Map.of(
+                        "status", result.getStatus(),
+                        "message", result.getMessage()
+                ));
             }
 
-            // Automatically create a ticket
-            ticketDTO.setLogId(savedLog.getId());
-            ticketDTO.setTitle("Auto-generated ticket for log " + savedLog.getId());
-            ticketDTO.setDescription(savedLog.getDescription());
-            ticketDTO.setTenant(savedLog.getTenant());
-
-            // Create a ticket with appropriate data
-            TicketDTO createdTicket = ticketService.createTicket(ticketDTO);
-            logger.info("Ticket created with ID: {}, tenant: {}", createdTicket.getId(), createdTicket.getTenant());
-            
-            // Send log notification with ticket data including userEmail
-            logService.sendLogNotification(savedLog, createdTicket.getTenant(), ticketDTO.getUserEmail());
-            logger.info("Notification sent for log ID: {}, tenant: {}, userEmail: {}", 
-                    savedLog.getId(), createdTicket.getTenant(), ticketDTO.getUserEmail());
-            
-            return ResponseEntity.ok().body(Map.of(
-                    "status", "success",
-                    "id", savedLog.getId(),
-                    "ticketId", createdTicket.getId(),
-                    "message", "Log and ticket saved successfully"
+            // The log is committed; ticket creation and notification continue asynchronously
+            return ResponseEntity.accepted().body(Map.of(
+                    "status", "accepted",
+                    "id", result.getId(),
+                    "message", result.getMessage() != null ? result.getMessage() : "Log saved, ticket creation queued"
             ));
 
         } catch (Exception e) {
@@ -281,75 +276,32 @@ public class LogController {
         }
     }
 
-    private LogType determineLogType(String level) {
-        if (level == null) return LogType.INFO;
-
+    /**
+     * Receive a batch of Fluentd records as NDJSON (one JSON record per line)
+     * @param body The raw request body
+     * @return One result per record, in input order, with the ID of each persisted log
+     */
+    @PostMapping(
+            value = "/fluentd/batch",
+            consumes = {"application/x-ndjson", "application/x-ndjson;charset=UTF-8", "text/plain"}
+    )
+    public ResponseEntity<?> receiveFluentdBatch(InputStream body) {
         try {
-            return LogType.valueOf(level.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            logger.warn("Unknown log level: {}, defaulting to INFO", level);
-            return LogType.INFO;
-        }
-    }
-
-    private LogSeverity determineLogSeverity(String level) {
-        if (level == null) return LogSeverity.LOW;
-
-        switch (level.toUpperCase()) {
-            case "ERROR":
-            case "FATAL":
-                return LogSeverity.HIGH;
-            case "WARN":
-            case "WARNING":
-                return LogSeverity.MEDIUM;
-            default:
-                return LogSeverity.LOW;
-        }
-    }
-
-    private String extractTenant(String containerName) {
-        if (containerName == null || !containerName.startsWith("/")) {
-            return "default";
-        }
-
-        String[] parts = containerName.substring(1).split("_");
-        return parts.length > 0 ? parts[0] : "default";
-    }
-
-    private LogDTO convertToDTO(Log log) {
-        LogDTO logDTO = new LogDTO();
-        logDTO.setId(log.getId());
-        logDTO.setType(log.getType());
-        logDTO.setTimestamp(log.getTimestamp());
-        logDTO.setDescription(log.getDescription());
-        logDTO.setSource(log.getSource());
-        logDTO.setErrorCode(log.getErrorCode());
-        logDTO.setCustomMessage(log.getCustomMessage());
-        logDTO.setSeverity(log.getSeverity());
-        logDTO.setTenant(log.getTenant());
-        logDTO.setProjectId(log.getProjectId());
-        logDTO.setPid(log.getPid());
-        logDTO.setThread(log.getThread());
-        logDTO.setClassName(log.getClassName());
-        logDTO.setContainerId(log.getContainerId());
-        logDTO.setContainerName(log.getContainerName());
-        logDTO.setOriginalTimestamp(log.getOriginalTimestamp());
-        logDTO.setTag(log.getTag());
-        logDTO.setStackTrace(log.getStackTrace());
-        logDTO.setExceptionType(log.getExceptionType());
-        if (log.getAnalysis() != null && !log.getAnalysis().isEmpty()) {
-            try {
-                logger.info("Converting analysis for log ID: {}. Raw analysis: {}", log.getId(), log.getAnalysis());
-                AnalysisInfo analysisInfo = objectMapper.readValue(log.getAnalysis(), AnalysisInfo.class);
-                logDTO.setAnalysis(analysisInfo);
-                logger.info("Successfully converted analysis for log ID: {}. Converted object: {}", log.getId(), analysisInfo);
-            } catch (Exception e) {
-                logger.error("Failed to parse analysis JSON for log ID: {}. Error: {}. Raw analysis: {}", 
-                    log.getId(), e.getMessage(), log.getAnalysis(), e);
-            }
-        } else {
-            logger.debug("No analysis found for log ID: {}", log.getId());
+            List<IngestResultDTO> results = logIngestService.ingestNdjson(body);
+            long failed = results.stream().filter(r -> "error".equals(r.getStatus())).count();
+
+            return ResponseEntity.accepted().body(Map.of(
+                    "status", failed == 0 ? "accepted" : "partial",
+                    "received", results.size(),
+                    "failed", failed,
+                    "results", results
+            ));
+        } catch (Exception e) {
+            logger.error("Error processing log batch: {}", e.getMessage(), e);
+            return ResponseEntity.ok().body(Map.of(
+                    "status", "error",
+                    "message", "Error processing log batch: " + e.getMessage()
+            ));
         }
-        return logDTO;
     }
-}
\ No newline at end of file
+}
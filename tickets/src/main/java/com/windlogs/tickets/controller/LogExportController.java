@@ -0,0 +1,125 @@
+package com.windlogs.tickets.controller;
+
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.dto.UserResponseDTO;
+import com.windlogs.tickets.enums.LogExportFormat;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+import com.windlogs.tickets.service.AuthService;
+import com.windlogs.tickets.service.LogExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of logs for offline analysis.
+ * The response is written while rows are read from the database, gzip-compressed
+ * when the client sends {@code Accept-Encoding: gzip}.
+ */
+@RestController
+@RequestMapping("/api/v1/logs/export")
+public class LogExportController {
+    private static final Logger logger = LoggerFactory.getLogger(LogExportController.class);
+    private final LogExportService logExportService;
+    private final AuthService authService;
+
+    public LogExportController(LogExportService logExportService, AuthService authService) {
+        this.logExportService = logExportService;
+        this.authService = authService;
+    }
+
+    /**
+     * Export a project's logs
+     * @param projectId The project ID
+     * @param format ndjson (default) or csv
+     * @param authorizationHeader The authorization header
+     * @return The logs, oldest first
+     */
+    @GetMapping("/project/{projectId}")
+    public ResponseEntity<StreamingResponseBody> exportByProjectId(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) LogType type,
+            @RequestParam(required = false) LogSeverity severity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String exceptionType,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader("Authorization") String authorizationHeader) {
+
+        UserResponseDTO user = authService.getAuthenticatedUser(authorizationHeader);
+        logger.info("Exporting logs for project ID: {}, requested by: {}", projectId, user.getEmail());
+
+        LogFilterDTO filter = LogFilterDTO.of(type, severity, from, to, exceptionType);
+        filter.setProjectId(projectId);
+        return export(filter, format, acceptEncoding, "logs-project-" + projectId);
+    }
+
+    /**
+     * Export a tenant's logs
+     * @param logTenant The tenant
+     * @param format ndjson (default) or csv
+     * @param authorizationHeader The authorization header
+     * @return The logs, oldest first
+     */
+    @GetMapping("/tenant/{logTenant}")
+    public ResponseEntity<StreamingResponseBody> exportByTenant(
+            @PathVariable String logTenant,
+            @RequestParam(required = false) LogType type,
+            @RequestParam(required = false) LogSeverity severity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String exceptionType,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader("Authorization") String authorizationHeader) {
+
+        UserResponseDTO user = authService.getAuthenticatedUser(authorizationHeader);
+        logger.info("Exporting logs for tenant: {}, requested by: {}", logTenant, user.getEmail());
+
+        LogFilterDTO filter = LogFilterDTO.of(type, severity, from, to, exceptionType);
+        filter.setTenant(logTenant);
+        return export(filter, format, acceptEncoding, "logs-tenant-" + logTenant);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(LogFilterDTO filter, String format, String acceptEncoding,
+                                                         String fileName) {
+        LogExportFormat exportFormat;
+        try {
+            exportFormat = LogExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true);
+                logExportService.export(filter, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                logExportService.export(filter, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getMediaType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName.replaceAll("[^A-Za-z0-9._-]", "_") + "." + exportFormat.getExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -1,13 +1,19 @@
 package com.windlogs.tickets.controller;
 
 import com.windlogs.tickets.dto.ActivityStatsDTO;
+import com.windlogs.tickets.dto.LogRollupSummary;
 import com.windlogs.tickets.dto.LogStatsDTO;
+import com.windlogs.tickets.dto.TicketStatusHistogram;
 import com.windlogs.tickets.dto.UserResponseDTO;
+import com.windlogs.tickets.entity.Solution;
 import com.windlogs.tickets.enums.Status;
+import com.windlogs.tickets.repository.LogDailyRollupRepository;
 import com.windlogs.tickets.repository.LogRepository;
 import com.windlogs.tickets.repository.SolutionRepository;
 import com.windlogs.tickets.repository.TicketRepository;
 import com.windlogs.tickets.service.AuthService;
+import com.windlogs.tickets.service.DashboardStatsCache;
+import com.windlogs.tickets.service.StatsQueryRunner;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,11 +21,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,9 +36,14 @@ import java.util.stream.Collectors;
 public class StatsController {
     private static final Logger logger = LoggerFactory.getLogger(StatsController.class);
     private final LogRepository logRepository;
+    /** Daily log counts, refreshed by StatsRollupService; used instead of aggregating logs */
+    private final LogDailyRollupRepository logDailyRollupRepository;
     private final TicketRepository ticketRepository;
     private final SolutionRepository solutionRepository;
     private final AuthService authService;
+    /** Runs the independent queries of a dashboard in parallel, with partial results on failure */
+    private final StatsQueryRunner statsQueryRunner;
+    private final DashboardStatsCache dashboardStatsCache;
 
     @GetMapping("/dashboard/developer")
     public ResponseEntity<Map<String, Object>> getDashboardDeveloperStats(
@@ -43,7 +56,8 @@ public class StatsController {
             // Log for debugging
             logger.info("Loading developer stats for user: {} with tenant: {}", user.getId(), tenant);
 
-            stats.putAll(getDeveloperStats(user.getId(), tenant));
+            stats.putAll(cachedDashboard(tenant, "DEVELOPER", user.getId(),
+                    () -> getDeveloperStats(user.getId(), tenant)));
 
             // Log the stats being returned
             logger.info("Developer stats loaded successfully: {}", stats);
@@ -73,17 +87,19 @@ public class StatsController {
 
             switch (user.getRole().toUpperCase()) {
                 case "MANAGER":
-                    stats.putAll(getManagerStats(tenant));
+                    stats.putAll(cachedDashboard(tenant, "MANAGER", null, () -> getManagerStats(tenant)));
                     break;
                 case "DEVELOPER":
                     // Add the missing DEVELOPER case
-                    stats.putAll(getDeveloperStats(user.getId(), tenant));
+                    stats.putAll(cachedDashboard(tenant, "DEVELOPER", user.getId(),
+                            () -> getDeveloperStats(user.getId(), tenant)));
                     break;
                 case "TESTER":
-                    stats.putAll(getTesterStats(user.getId(), tenant));
+                    stats.putAll(cachedDashboard(tenant, "TESTER", user.getId(),
+                            () -> getTesterStats(user.getId(), tenant)));
                     break;
                 case "PARTNER":
-                    stats.putAll(getPartnerStats(tenant));
+                    stats.putAll(cachedDashboard(tenant, "PARTNER", null, () -> getPartnerStats(tenant)));
                     break;
                 default:
                     logger.warn("Unknown role: {}", user.getRole());
@@ -104,201 +120,174 @@ public class StatsController {
         }
     }
 
+    /**
+     * Serve a dashboard from the short-lived cache.
+     * Manager and partner dashboards are tenant-wide and shared by every user of the tenant.
+     */
+    private Map<String, Object> cachedDashboard(String tenant, String role, Long userId,
+                                                Supplier<Map<String, Object>> loader) {
+        return dashboardStatsCache.get(new DashboardStatsCache.DashboardKey(tenant, role, userId), loader);
+    }
+
     private Map<String, Object> getManagerStats(String tenant) {
         Map<String, Object> stats = new HashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekAgo = now.minus(7, ChronoUnit.DAYS);
+        CompletableFuture<TicketStatusHistogram> ticketStats = statsQueryRunner.submit(
+                () -> ticketRepository.getStatusHistogram(tenant, LocalDateTime.now()));
+        CompletableFuture<LogRollupSummary> logStats = statsQueryRunner.submit(
+                () -> logDailyRollupRepository.summarizeTenant(tenant));
 
-        try {
+        statsQueryRunner.collect(stats, "tickets", ticketStats, tickets -> {
             // Team Performance
-            stats.put("totalTickets", ticketRepository.countByTenant(tenant));
-            stats.put("openTickets", ticketRepository.countByTenantAndStatus(tenant, Status.TO_DO));
-            stats.put("inProgressTickets", ticketRepository.countByTenantAndStatus(tenant, Status.IN_PROGRESS));
-            stats.put("resolvedTickets", ticketRepository.countByTenantAndStatus(tenant, Status.RESOLVED));
-            stats.put("doneTickets", ticketRepository.countByTenantAndStatus(tenant, Status.DONE));
+            stats.put("totalTickets", tickets.total());
+            stats.put("openTickets", tickets.count(Status.TO_DO));
+            stats.put("inProgressTickets", tickets.count(Status.IN_PROGRESS));
+            stats.put("resolvedTickets", tickets.count(Status.RESOLVED));
+            stats.put("doneTickets", tickets.count(Status.DONE));
 
             // Weekly Statistics
-            stats.put("newTicketsThisWeek", ticketRepository.countByTenantAndCreatedAtBetween(tenant, weekAgo, now));
-            stats.put("resolvedTicketsThisWeek", ticketRepository.countByTenantAndStatusAndUpdatedAtBetween(
-                    tenant, Status.RESOLVED, weekAgo, now));
-
+            stats.put("newTicketsThisWeek", tickets.createdThisWeek());
+            stats.put("resolvedTicketsThisWeek", tickets.updatedThisWeek(Status.RESOLVED));
+        });
+        statsQueryRunner.collect(stats, "logs", logStats, logs -> {
             // Error Tracking
-            stats.put("criticalErrors", logRepository.countCriticalErrorsByTenant(tenant));
-            stats.put("errorsByDay", logRepository.getErrorStatsByTenant(tenant));
+            stats.put("criticalErrors", logs.criticalErrors());
+            stats.put("errorsByDay", logs.errorsByDay());
 
             // Team Activity
-            stats.put("teamActivity", logRepository.getActivityStatsByTenant(tenant));
-
-            logger.info("Manager stats loaded successfully for tenant: {}", tenant);
-        } catch (Exception e) {
-            logger.error("Error loading manager stats for tenant: {}", tenant, e);
-            throw e;
-        }
+            stats.put("teamActivity", logs.activityByDay());
+        });
 
+        logger.info("Manager stats loaded for tenant: {}", tenant);
         return stats;
     }
 
     private Map<String, Object> getDeveloperStats(Long userId, String tenant) {
         Map<String, Object> stats = new HashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekAgo = now.minus(7, ChronoUnit.DAYS);
-
-        try {
-            logger.info("Loading developer stats for userId: {} and tenant: {}", userId, tenant);
-
+        logger.info("Loading developer stats for userId: {} and tenant: {}", userId, tenant);
+        CompletableFuture<TicketStatusHistogram> ticketStats = statsQueryRunner.submit(
+                () -> ticketRepository.getStatusHistogramForAssignee(tenant, userId, LocalDateTime.now()));
+        CompletableFuture<Long> solutionCount = statsQueryRunner.submit(
+                () -> solutionRepository.countByAuthorUserIdAndTenant(userId, tenant));
+        CompletableFuture<List<Solution>> recentSolutions = statsQueryRunner.submit(
+                () -> solutionRepository.findRecentByAuthorUserIdAndTenant(userId, tenant));
+
+        statsQueryRunner.collect(stats, "tickets", ticketStats, tickets -> {
             // Personal Performance
-            Long assignedTickets = ticketRepository.countByAssignedToUserIdAndTenant(userId, tenant);
-            Long resolvedTickets = ticketRepository.countByAssignedToUserIdAndTenantAndStatus(
-                    userId, tenant, Status.RESOLVED);
-            Long inProgressTickets = ticketRepository.countByAssignedToUserIdAndTenantAndStatus(
-                    userId, tenant, Status.IN_PROGRESS);
-
-            stats.put("assignedTickets", assignedTickets != null ? assignedTickets : 0L);
-            stats.put("resolvedTickets", resolvedTickets != null ? resolvedTickets : 0L);
-            stats.put("inProgressTickets", inProgressTickets != null ? inProgressTickets : 0L);
+            stats.put("assignedTickets", tickets.total());
+            stats.put("resolvedTickets", tickets.count(Status.RESOLVED));
+            stats.put("inProgressTickets", tickets.count(Status.IN_PROGRESS));
 
             // Weekly Progress
-            Long ticketsResolvedThisWeek = ticketRepository.countByAssignedToUserIdAndTenantAndStatusAndUpdatedAtBetween(
-                    userId, tenant, Status.RESOLVED, weekAgo, now);
-            stats.put("ticketsResolvedThisWeek", ticketsResolvedThisWeek != null ? ticketsResolvedThisWeek : 0L);
-
-            // Solutions
-            Long totalSolutions = solutionRepository.countByAuthorUserIdAndTenant(userId, tenant);
-            stats.put("totalSolutions", totalSolutions != null ? totalSolutions : 0L);
-
-            // Recent Solutions - handle potential null
-            try {
-                Object recentSolutions = solutionRepository.findRecentByAuthorUserIdAndTenant(userId, tenant);
-                stats.put("recentSolutions", recentSolutions != null ? recentSolutions : List.of());
-            } catch (Exception e) {
-                logger.warn("Could not load recent solutions for user {} and tenant {}: {}", userId, tenant, e.getMessage());
-                stats.put("recentSolutions", List.of());
-            }
+            stats.put("ticketsResolvedThisWeek", tickets.updatedThisWeek(Status.RESOLVED));
 
-            // Error Resolution
-            try {
-                Long errorsResolved = logRepository.countResolvedErrorsByDeveloper(userId, tenant);
-                stats.put("errorsResolved", errorsResolved != null ? errorsResolved : 0L);
-            } catch (Exception e) {
-                logger.warn("Could not load errors resolved for user {} and tenant {}: {}", userId, tenant, e.getMessage());
-                stats.put("errorsResolved", 0L);
-            }
+            // Error Resolution: resolved tickets assigned to the developer
+            stats.put("errorsResolved", tickets.count(Status.RESOLVED));
+        });
 
-            logger.info("Developer stats loaded successfully: {}", stats);
-        } catch (Exception e) {
-            logger.error("Error loading developer stats for userId: {} and tenant: {}", userId, tenant, e);
-            throw e;
-        }
+        // Solutions
+        statsQueryRunner.collect(stats, "totalSolutions", solutionCount,
+                totalSolutions -> stats.put("totalSolutions", totalSolutions != null ? totalSolutions : 0L));
+        statsQueryRunner.collect(stats, "recentSolutions", recentSolutions,
+                recent -> stats.put("recentSolutions", recent != null ? recent : List.of()));
 
+        logger.info("Developer stats loaded: {}", stats);
         return stats;
     }
 
     private Map<String, Object> getTesterStats(Long userId, String tenant) {
         Map<String, Object> stats = new HashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekAgo = now.minus(7, ChronoUnit.DAYS);
-
-        try {
+        CompletableFuture<TicketStatusHistogram> ticketStats = statsQueryRunner.submit(
+                () -> ticketRepository.getStatusHistogram(tenant, LocalDateTime.now()));
+        CompletableFuture<LogRollupSummary> logStats = statsQueryRunner.submit(
+                () -> logDailyRollupRepository.summarizeTenant(tenant));
+        CompletableFuture<Long> errorsFound = statsQueryRunner.submit(
+                () -> logRepository.countErrorsFoundByTester(userId, tenant));
+
+        statsQueryRunner.collect(stats, "tickets", ticketStats, tickets -> {
             // Testing Performance
-            stats.put("ticketsToTest", ticketRepository.countByTenantAndStatus(tenant, Status.MERGED_TO_TEST));
-            stats.put("ticketsTested", ticketRepository.countByTenantAndStatus(tenant, Status.DONE));
-            stats.put("ticketsTestedThisWeek", ticketRepository.countByTenantAndStatusAndUpdatedAtBetween(
-                    tenant, Status.DONE, weekAgo, now));
-
-            // Error Discovery
-            stats.put("errorsFound", logRepository.countErrorsFoundByTester(userId, tenant));
-            stats.put("errorsByType", logRepository.getErrorTypeDistribution(tenant));
+            stats.put("ticketsToTest", tickets.count(Status.MERGED_TO_TEST));
+            stats.put("ticketsTested", tickets.count(Status.DONE));
+            stats.put("ticketsTestedThisWeek", tickets.updatedThisWeek(Status.DONE));
 
             // Testing Progress
-            stats.put("testingProgress", ticketRepository.getTestingProgressStats(tenant));
+            stats.put("testingProgress", tickets.testingProgress());
+        });
 
-            logger.info("Tester stats loaded successfully for userId: {} and tenant: {}", userId, tenant);
-        } catch (Exception e) {
-            logger.error("Error loading tester stats for userId: {} and tenant: {}", userId, tenant, e);
-            throw e;
-        }
+        // Error Discovery
+        statsQueryRunner.collect(stats, "errorsFound", errorsFound, count -> stats.put("errorsFound", count));
+        statsQueryRunner.collect(stats, "logs", logStats, logs -> stats.put("errorsByType", logs.typeDistribution()));
 
+        logger.info("Tester stats loaded for userId: {} and tenant: {}", userId, tenant);
         return stats;
     }
 
     private Map<String, Object> getPartnerStats(String tenant) {
         Map<String, Object> stats = new HashMap<>();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekAgo = now.minus(7, ChronoUnit.DAYS);
-        LocalDateTime monthAgo = now.minus(30, ChronoUnit.DAYS);
+        CompletableFuture<TicketStatusHistogram> ticketStats = statsQueryRunner.submit(
+                () -> ticketRepository.getStatusHistogram(tenant, LocalDateTime.now()));
+        CompletableFuture<LogRollupSummary> logStats = statsQueryRunner.submit(
+                () -> logDailyRollupRepository.summarizeTenant(tenant));
 
-        try {
+        statsQueryRunner.collect(stats, "tickets", ticketStats, tickets -> {
             // Overall Project Health
-            stats.put("totalProjects", logRepository.countProjectsByTenant(tenant));
-            stats.put("activeProjects", logRepository.countActiveProjectsByTenant(tenant));
-            stats.put("totalTickets", ticketRepository.countByTenant(tenant));
-            stats.put("resolvedTickets", ticketRepository.countByTenantAndStatus(tenant, Status.DONE));
+            stats.put("totalTickets", tickets.total());
+            stats.put("resolvedTickets", tickets.count(Status.DONE));
 
             // Project Performance Metrics
             Map<String, Object> projectPerformance = new HashMap<>();
-            projectPerformance.put("completionRate",
-                    ticketRepository.countByTenant(tenant) > 0 ?
-                            (double) ticketRepository.countByTenantAndStatus(tenant, Status.DONE) /
-                                    ticketRepository.countByTenant(tenant) * 100 : 0);
-            projectPerformance.put("inProgressRate",
-                    ticketRepository.countByTenant(tenant) > 0 ?
-                            (double) ticketRepository.countByTenantAndStatus(tenant, Status.IN_PROGRESS) /
-                                    ticketRepository.countByTenant(tenant) * 100 : 0);
+            projectPerformance.put("completionRate", tickets.rate(Status.DONE));
+            projectPerformance.put("inProgressRate", tickets.rate(Status.IN_PROGRESS));
             stats.put("projectPerformance", projectPerformance);
 
-            // Quality Metrics
-            Map<String, Object> qualityMetrics = new HashMap<>();
-            qualityMetrics.put("criticalErrors", logRepository.countCriticalErrorsByTenant(tenant));
-            qualityMetrics.put("errorTrends", logRepository.getErrorTrendsByTenant(tenant));
-            qualityMetrics.put("errorsByType", logRepository.getErrorTypeDistribution(tenant));
-            stats.put("qualityMetrics", qualityMetrics);
-
             // Team Performance
             Map<String, Object> teamPerformance = new HashMap<>();
-            teamPerformance.put("overallStats", ticketRepository.getTeamPerformanceStats(tenant));
-            teamPerformance.put("testingProgress", ticketRepository.getTestingProgressStats(tenant));
+            teamPerformance.put("overallStats", tickets.teamPerformance());
+            teamPerformance.put("testingProgress", tickets.testingProgress());
             stats.put("teamPerformance", teamPerformance);
 
-            // Project Health Indicators
-            Map<String, Object> projectHealth = new HashMap<>();
-            projectHealth.put("projectHealthStats", logRepository.getProjectHealthStats(tenant));
-            projectHealth.put("activityTrends", logRepository.getActivityStatsByTenant(tenant));
-            stats.put("projectHealth", projectHealth);
-
             // Time-based Analysis
             Map<String, Object> timeAnalysis = new HashMap<>();
-            timeAnalysis.put("newIssuesThisWeek",
-                    ticketRepository.countByTenantAndCreatedAtBetween(tenant, weekAgo, now));
-            timeAnalysis.put("resolvedIssuesThisWeek",
-                    ticketRepository.countByTenantAndStatusAndUpdatedAtBetween(tenant, Status.DONE, weekAgo, now));
-            timeAnalysis.put("newIssuesThisMonth",
-                    ticketRepository.countByTenantAndCreatedAtBetween(tenant, monthAgo, now));
-            timeAnalysis.put("resolvedIssuesThisMonth",
-                    ticketRepository.countByTenantAndStatusAndUpdatedAtBetween(tenant, Status.DONE, monthAgo, now));
+            timeAnalysis.put("newIssuesThisWeek", tickets.createdThisWeek());
+            timeAnalysis.put("resolvedIssuesThisWeek", tickets.updatedThisWeek(Status.DONE));
+            timeAnalysis.put("newIssuesThisMonth", tickets.createdThisMonth());
+            timeAnalysis.put("resolvedIssuesThisMonth", tickets.updatedThisMonth(Status.DONE));
             stats.put("timeAnalysis", timeAnalysis);
+        });
+        statsQueryRunner.collect(stats, "logs", logStats, logs -> {
+            stats.put("totalProjects", logs.totalProjects());
+            stats.put("activeProjects", logs.activeProjectsSince(LocalDate.now().minusDays(7)));
 
-            logger.info("Partner stats loaded successfully for tenant: {}", tenant);
-        } catch (Exception e) {
-            logger.error("Error loading partner stats for tenant: {}", tenant, e);
-            throw e;
-        }
+            // Quality Metrics
+            Map<String, Object> qualityMetrics = new HashMap<>();
+            qualityMetrics.put("criticalErrors", logs.criticalErrors());
+            qualityMetrics.put("errorTrends", logs.trendsByDayAndType());
+            qualityMetrics.put("errorsByType", logs.typeDistribution());
+            stats.put("qualityMetrics", qualityMetrics);
+
+            // Project Health Indicators
+            Map<String, Object> projectHealth = new HashMap<>();
+            projectHealth.put("projectHealthStats", logs.projectHealth());
+            projectHealth.put("activityTrends", logs.activityByDay());
+            stats.put("projectHealth", projectHealth);
+        });
 
+        logger.info("Partner stats loaded for tenant: {}", tenant);
         return stats;
     }
 
     @GetMapping("/errors-by-day/project/{projectId}")
     public List<LogStatsDTO> getErrorsByDayForProject(@PathVariable Long projectId) {
-        return logRepository.getLogStatsByDayForProject(projectId);
+        return logDailyRollupRepository.getLogStatsByDayForProject(projectId);
     }
 
     @GetMapping("/activity-by-day/project/{projectId}")
     public List<ActivityStatsDTO> getActivitiesByDayForProject(@PathVariable Long projectId) {
-        return logRepository.getActivityByDayForProject(projectId);
+        return logDailyRollupRepository.getActivityByDayForProject(projectId);
     }
 
     @GetMapping("/total-errors/project/{projectId}")
     public ResponseEntity<Map<String, Object>> getTotalErrorsForProject(@PathVariable Long projectId) {
-        long errorCount = logRepository.countAllErrorsByProject(projectId);
+        long errorCount = logDailyRollupRepository.countAllErrorsByProject(projectId);
         return ResponseEntity.ok(Map.of(
                 "projectId", projectId,
                 "totalErrors", errorCount
@@ -347,18 +336,18 @@ public class StatsController {
         Map<String, Object> statistics = new HashMap<>();
 
         // Error statistics
-        statistics.put("totalErrors", logRepository.countAllErrorsByProject(projectId));
-        statistics.put("criticalErrors", logRepository.countCriticalErrorsByProject(projectId));
-        statistics.put("errorsByDay", logRepository.getLogStatsByDayForProject(projectId));
-        statistics.put("errorsByType", logRepository.getErrorTypeDistributionByProject(projectId));
+        statistics.put("totalErrors", logDailyRollupRepository.countAllErrorsByProject(projectId));
+        statistics.put("criticalErrors", logDailyRollupRepository.countCriticalErrorsByProject(projectId));
+        statistics.put("errorsByDay", logDailyRollupRepository.getLogStatsByDayForProject(projectId));
+        statistics.put("errorsByType", logDailyRollupRepository.getErrorTypeDistributionByProject(projectId));
 
         // Time-based statistics
         Map<String, Object> timeBasedStats = new HashMap<>();
-        timeBasedStats.put("totalErrors", logRepository.countAllErrorsByProject(projectId));
+        timeBasedStats.put("totalErrors", logDailyRollupRepository.countAllErrorsByProject(projectId));
         statistics.put("timeBasedStatistics", timeBasedStats);
 
         // Activity statistics
-        statistics.put("activityByDay", logRepository.getActivityByDayForProject(projectId));
+        statistics.put("activityByDay", logDailyRollupRepository.getActivityByDayForProject(projectId));
 
         return ResponseEntity.ok(statistics);
     }
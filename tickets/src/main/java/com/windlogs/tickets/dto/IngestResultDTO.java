@@ -0,0 +1,40 @@
+package com.windlogs.tickets.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of ingesting a single Fluentd record.
+ * The batch endpoint returns one of these per NDJSON line, in input order.
+ * A record is "accepted" once its log row is committed; the ticket is created asynchronously.
+ * A record over its ingest rate limit is accepted with a message saying it gets no ticket.
+ * A "sampled" record was only counted, not stored, and has no ID.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestResultDTO {
+    private Integer index;
+    private String status;
+    private Long id;
+    private String message;
+
+    public static IngestResultDTO accepted(Integer index, Long id) {
+        return new IngestResultDTO(index, "accepted", id, null);
+    }
+
+    public static IngestResultDTO degraded(Integer index, Long id) {
+        return new IngestResultDTO(index, "accepted", id, "Rate limited: stored without analysis or ticket");
+    }
+
+    public static IngestResultDTO sampled(Integer index) {
+        return new IngestResultDTO(index, "sampled", null, "Counted, not stored: sampled out by level");
+    }
+
+    public static IngestResultDTO error(Integer index, String message) {
+        return new IngestResultDTO(index, "error", null, message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.windlogs.tickets.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a log listing ordered by (timestamp, id) descending: the last row of the previous page.
+ * The live tail uses the same cursor over (created_at, id), see {@link #ofCreatedAt(LogSummaryDTO)}.
+ * Encoded as an opaque URL-safe string.
+ */
+public record LogCursor(LocalDateTime timestamp, Long id) {
+
+    public static LogCursor of(LogSummaryDTO log) {
+        return new LogCursor(log.getTimestamp(), log.getId());
+    }
+
+    /**
+     * @return The position of a log in insert order: {@link #timestamp()} holds its created_at
+     */
+    public static LogCursor ofCreatedAt(LogSummaryDTO log) {
+        return new LogCursor(log.getCreatedAt(), log.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static LogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new LogCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.windlogs.tickets.dto;
+
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters of a log listing; null fields are not applied.
+ * {@code from} is inclusive, {@code to} exclusive.
+ */
+@Data
+public class LogFilterDTO {
+    private Long projectId;
+    private String tenant;
+    private LogType type;
+    private LogSeverity severity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String exceptionType;
+
+    public static LogFilterDTO of(LogType type, LogSeverity severity, LocalDateTime from, LocalDateTime to,
+                                  String exceptionType) {
+        LogFilterDTO filter = new LogFilterDTO();
+        filter.setType(type);
+        filter.setSeverity(severity);
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setExceptionType(exceptionType != null && !exceptionType.isEmpty() ? exceptionType : null);
+        return filter;
+    }
+}
@@ -0,0 +1,141 @@
+package com.windlogs.tickets.dto;
+
+import com.windlogs.tickets.entity.LogDailyRollup;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Every log statistic of a tenant's dashboard, computed in memory from the tenant's
+ * daily rollup rows read in a single query. Result shapes match the former per-statistic queries.
+ */
+public class LogRollupSummary {
+    private static final Comparator<LocalDate> NEWEST_FIRST = Comparator.nullsFirst(Comparator.reverseOrder());
+
+    private final List<LogDailyRollup> rollups;
+
+    public LogRollupSummary(List<LogDailyRollup> rollups) {
+        this.rollups = rollups;
+    }
+
+    public long criticalErrors() {
+        return rollups.stream().filter(LogRollupSummary::isCritical).mapToLong(LogRollupSummary::count).sum();
+    }
+
+    public long totalProjects() {
+        return rollups.stream().map(LogDailyRollup::getProjectId).filter(Objects::nonNull).distinct().count();
+    }
+
+    /**
+     * @return Projects with logs created on or after the given day
+     */
+    public long activeProjectsSince(LocalDate since) {
+        return rollups.stream()
+                .filter(rollup -> rollup.getDay() != null && !rollup.getDay().isBefore(since))
+                .map(LogDailyRollup::getProjectId).filter(Objects::nonNull).distinct().count();
+    }
+
+    /**
+     * @return Critical logs per day, newest first
+     */
+    public List<Map<String, Object>> errorsByDay() {
+        return countsByDay(LogRollupSummary::isCritical);
+    }
+
+    /**
+     * @return All logs per day, newest first
+     */
+    public List<Map<String, Object>> activityByDay() {
+        return countsByDay(rollup -> true);
+    }
+
+    public List<Map<String, Object>> typeDistribution() {
+        Map<LogType, Long> counts = new HashMap<>();
+        rollups.forEach(rollup -> counts.merge(rollup.getType(), count(rollup), Long::sum));
+        List<Map<String, Object>> stats = new ArrayList<>();
+        counts.forEach((type, count) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("type", type);
+            row.put("count", count);
+            stats.add(row);
+        });
+        return stats;
+    }
+
+    /**
+     * @return Logs per day and type, newest day first
+     */
+    public List<Map<String, Object>> trendsByDayAndType() {
+        Map<LocalDate, Map<LogType, Long>> counts = new TreeMap<>(NEWEST_FIRST);
+        rollups.forEach(rollup -> counts.computeIfAbsent(rollup.getDay(), day -> new HashMap<>())
+                .merge(rollup.getType(), count(rollup), Long::sum));
+        List<Map<String, Object>> stats = new ArrayList<>();
+        counts.forEach((day, byType) -> byType.forEach((type, count) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("date", day);
+            row.put("type", type);
+            row.put("count", count);
+            stats.add(row);
+        }));
+        return stats;
+    }
+
+    /**
+     * @return Log count and latest log per project
+     */
+    public List<Map<String, Object>> projectHealth() {
+        Map<Long, Long> counts = new HashMap<>();
+        Map<Long, LocalDateTime> lastLogs = new HashMap<>();
+        Set<Long> projects = new HashSet<>();
+        for (LogDailyRollup rollup : rollups) {
+            projects.add(rollup.getProjectId());
+            counts.merge(rollup.getProjectId(), count(rollup), Long::sum);
+            if (rollup.getLastCreatedAt() != null) {
+                lastLogs.merge(rollup.getProjectId(), rollup.getLastCreatedAt(),
+                        (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (Long projectId : projects) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("projectId", projectId);
+            row.put("errorCount", counts.get(projectId));
+            row.put("lastError", lastLogs.get(projectId));
+            stats.add(row);
+        }
+        return stats;
+    }
+
+    private List<Map<String, Object>> countsByDay(Predicate<LogDailyRollup> filter) {
+        Map<LocalDate, Long> counts = new TreeMap<>(NEWEST_FIRST);
+        rollups.stream().filter(filter).forEach(rollup -> counts.merge(rollup.getDay(), count(rollup), Long::sum));
+        List<Map<String, Object>> stats = new ArrayList<>();
+        counts.forEach((day, count) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("date", day);
+            row.put("count", count);
+            stats.add(row);
+        });
+        return stats;
+    }
+
+    private static boolean isCritical(LogDailyRollup rollup) {
+        return rollup.getSeverity() == LogSeverity.HIGH;
+    }
+
+    private static long count(LogDailyRollup rollup) {
+        return rollup.getLogCount() != null ? rollup.getLogCount() : 0L;
+    }
+}
@@ -0,0 +1,33 @@
+package com.windlogs.tickets.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in search results ordered by (rank, id) descending: the last hit of the previous page.
+ * Encoded as an opaque URL-safe string. The rank is written with {@link Double#toString(double)},
+ * which reads back to the exact same value, so no hit is skipped or repeated across pages.
+ */
+public record LogSearchCursor(double rank, Long id) {
+
+    public String encode() {
+        String raw = rank + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static LogSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new LogSearchCursor(Double.parseDouble(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
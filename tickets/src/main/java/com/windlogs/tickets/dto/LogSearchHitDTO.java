@@ -0,0 +1,23 @@
+package com.windlogs.tickets.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One log matching a full-text search
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogSearchHitDTO {
+    private LogSummaryDTO log;
+    private double rank;
+    /**
+     * Field name (description, customMessage, exceptionType, className, stackTrace) -> excerpt
+     * around the matches, HTML-escaped, with the matched words wrapped in {@code <mark>}
+     */
+    private Map<String, String> highlights;
+}
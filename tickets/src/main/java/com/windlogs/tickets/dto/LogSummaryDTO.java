@@ -0,0 +1,43 @@
+package com.windlogs.tickets.dto;
+
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Log row for listings: everything but the large TEXT columns
+ * (description, stack trace, analysis), which are served by GET /api/v1/logs/{logId}.
+ * Field order matches the constructor used by the listing query.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogSummaryDTO {
+    private Long id;
+    private LogType type;
+    private LocalDateTime timestamp;
+    private String source;
+    private String errorCode;
+    private String customMessage;
+    private LogSeverity severity;
+    private String tenant;
+    private Long projectId;
+    private String className;
+    private String containerName;
+    private String tag;
+    private String exceptionType;
+    private Long attachedTicketId;
+    private LocalDateTime createdAt;
+
+    public static LogSummaryDTO of(Log log) {
+        return new LogSummaryDTO(log.getId(), log.getType(), log.getTimestamp(), log.getSource(),
+                log.getErrorCode(), log.getCustomMessage(), log.getSeverity(), log.getTenant(),
+                log.getProjectId(), log.getClassName(), log.getContainerName(), log.getTag(),
+                log.getExceptionType(), log.getAttachedTicketId(), log.getCreatedAt());
+    }
+}
@@ -21,6 +21,8 @@ public class TicketDTO {
     private String userEmail;
     private Long logId;
     private Boolean hasSolution;
+    private Integer occurrenceCount;
+    private LocalDateTime lastOccurrenceAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,126 @@
+package com.windlogs.tickets.dto;
+
+import com.windlogs.tickets.enums.Status;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ticket counts per status with their last-week and last-month buckets, read in a single
+ * query (see TicketRepository#getStatusHistogram). Every ticket counter of the dashboards
+ * is derived from it in memory.
+ */
+public class TicketStatusHistogram {
+
+    /**
+     * Counts of one status
+     * @param avgResolutionHours Average whole hours between creation and last update
+     */
+    public record Bucket(long count, Double avgResolutionHours,
+                         long createdThisWeek, long createdThisMonth,
+                         long updatedThisWeek, long updatedThisMonth) {
+    }
+
+    private static final Bucket EMPTY = new Bucket(0, null, 0, 0, 0, 0);
+
+    private final Map<Status, Bucket> buckets = new EnumMap<>(Status.class);
+    private long total;
+    private long createdThisWeek;
+    private long createdThisMonth;
+
+    /**
+     * @param rows Rows of (status, count, avg hours, created week, created month, updated week, updated month)
+     */
+    public static TicketStatusHistogram fromRows(List<Object[]> rows) {
+        TicketStatusHistogram histogram = new TicketStatusHistogram();
+        for (Object[] row : rows) {
+            Bucket bucket = new Bucket(
+                    toLong(row[1]),
+                    row[2] != null ? ((Number) row[2]).doubleValue() : null,
+                    toLong(row[3]), toLong(row[4]), toLong(row[5]), toLong(row[6]));
+            histogram.total += bucket.count();
+            histogram.createdThisWeek += bucket.createdThisWeek();
+            histogram.createdThisMonth += bucket.createdThisMonth();
+            if (row[0] != null) {
+                histogram.buckets.put(Status.valueOf(row[0].toString()), bucket);
+            }
+        }
+        return histogram;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public long count(Status status) {
+        return bucket(status).count();
+    }
+
+    public long createdThisWeek() {
+        return createdThisWeek;
+    }
+
+    public long createdThisMonth() {
+        return createdThisMonth;
+    }
+
+    /**
+     * @return Tickets currently in a status whose last update was within the last week
+     */
+    public long updatedThisWeek(Status status) {
+        return bucket(status).updatedThisWeek();
+    }
+
+    public long updatedThisMonth(Status status) {
+        return bucket(status).updatedThisMonth();
+    }
+
+    /**
+     * @return Share of all tickets in a status, in percent
+     */
+    public double rate(Status status) {
+        return total > 0 ? (double) count(status) / total * 100 : 0;
+    }
+
+    /**
+     * @return Count and average resolution time per status, as in the former team performance query
+     */
+    public List<Map<String, Object>> teamPerformance() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        buckets.forEach((status, bucket) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("status", status);
+            row.put("count", bucket.count());
+            row.put("avgResolutionTime", bucket.avgResolutionHours());
+            stats.add(row);
+        });
+        return stats;
+    }
+
+    /**
+     * @return Count of tickets merged to test and done, as in the former testing progress query
+     */
+    public List<Map<String, Object>> testingProgress() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (Status status : List.of(Status.MERGED_TO_TEST, Status.DONE)) {
+            if (buckets.containsKey(status)) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("status", status);
+                row.put("count", count(status));
+                stats.add(row);
+            }
+        }
+        return stats;
+    }
+
+    private Bucket bucket(Status status) {
+        return buckets.getOrDefault(status, EMPTY);
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
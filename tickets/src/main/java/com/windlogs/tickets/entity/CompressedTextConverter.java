@@ -0,0 +1,163 @@
+package com.windlogs.tickets.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores text as bytea, deflated with a preset dictionary of common stack trace and analysis
+ * fragments, so even a short trace compresses well. Values under the size threshold are kept
+ * as plain UTF-8: compressing them saves little and costs a deflate per write.
+ * The first stored byte tells the format, so existing values stay readable when the threshold
+ * changes. A new dictionary needs a new format byte; never edit {@link #DICTIONARY_V1}.
+ */
+@Converter
+@Component
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+    static final byte PLAIN = 0;
+    static final byte DEFLATE_V1 = 1;
+
+    /**
+     * Fragments that recur across stack traces and analyzer output, most frequent last:
+     * deflate finds matches closer to the end of its window more cheaply
+     */
+    private static final byte[] DICTIONARY_V1 = String.join("",
+            "{\"root_exception\":\"", "\",\"cause\":\"", "\",\"location\":\"", "\",\"exception_chain\":[\"",
+            "\",\"recommendation\":\"",
+            "java.lang.NullPointerException: Cannot invoke \"", "java.lang.IllegalArgumentException: ",
+            "java.lang.IllegalStateException: ", "java.lang.RuntimeException: ",
+            "org.springframework.dao.DataIntegrityViolationException: ",
+            "org.hibernate.exception.ConstraintViolationException: ",
+            "\tat org.apache.tomcat.util.threads.ThreadPoolExecutor$Worker.run(ThreadPoolExecutor.java:",
+            "\tat org.apache.tomcat.util.threads.TaskThread$WrappingRunnable.run(TaskThread.java:",
+            "\tat org.apache.tomcat.util.net.SocketProcessorBase.run(SocketProcessorBase.java:",
+            "\tat org.apache.coyote.AbstractProtocol$ConnectionHandler.process(AbstractProtocol.java:",
+            "\tat org.apache.coyote.http11.Http11Processor.service(Http11Processor.java:",
+            "\tat org.apache.catalina.connector.CoyoteAdapter.service(CoyoteAdapter.java:",
+            "\tat org.apache.catalina.core.StandardEngineValve.invoke(StandardEngineValve.java:",
+            "\tat org.apache.catalina.core.StandardHostValve.invoke(StandardHostValve.java:",
+            "\tat org.apache.catalina.core.StandardContextValve.invoke(StandardContextValve.java:",
+            "\tat org.apache.catalina.core.StandardWrapperValve.invoke(StandardWrapperValve.java:",
+            "\tat org.springframework.web.filter.OncePerRequestFilter.doFilter(OncePerRequestFilter.java:",
+            "\tat org.springframework.web.filter.CharacterEncodingFilter.doFilterInternal(CharacterEncodingFilter.java:",
+            "\tat org.springframework.web.filter.RequestContextFilter.doFilterInternal(RequestContextFilter.java:",
+            "\tat org.springframework.web.servlet.FrameworkServlet.service(FrameworkServlet.java:",
+            "\tat org.springframework.web.servlet.FrameworkServlet.processRequest(FrameworkServlet.java:",
+            "\tat org.springframework.web.servlet.DispatcherServlet.doService(DispatcherServlet.java:",
+            "\tat org.springframework.web.servlet.DispatcherServlet.doDispatch(DispatcherServlet.java:",
+            "\tat org.springframework.web.servlet.mvc.method.AbstractHandlerMethodAdapter.handle(AbstractHandlerMethodAdapter.java:",
+            "\tat org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter.handleInternal(RequestMappingHandlerAdapter.java:",
+            "\tat org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter.invokeHandlerMethod(RequestMappingHandlerAdapter.java:",
+            "\tat org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod.invokeAndHandle(ServletInvocableHandlerMethod.java:",
+            "\tat org.springframework.web.method.support.InvocableHandlerMethod.invokeForRequest(InvocableHandlerMethod.java:",
+            "\tat org.springframework.web.method.support.InvocableHandlerMethod.doInvoke(InvocableHandlerMethod.java:",
+            "\tat org.springframework.aop.framework.CglibAopProxy$DynamicAdvisedInterceptor.intercept(CglibAopProxy.java:",
+            "\tat org.springframework.aop.framework.ReflectiveMethodInvocation.proceed(ReflectiveMethodInvocation.java:",
+            "\tat org.springframework.transaction.interceptor.TransactionInterceptor.invoke(TransactionInterceptor.java:",
+            "\tat org.springframework.transaction.interceptor.TransactionAspectSupport.invokeWithinTransaction(TransactionAspectSupport.java:",
+            "\tat org.springframework.data.repository.core.support.RepositoryMethodInvocationListener",
+            "\tat org.hibernate.engine.jdbc.spi.SqlExceptionHelper.convert(SqlExceptionHelper.java:",
+            "\tat jakarta.servlet.http.HttpServlet.service(HttpServlet.java:",
+            "\tat org.apache.catalina.core.ApplicationFilterChain.internalDoFilter(ApplicationFilterChain.java:",
+            "\tat org.apache.catalina.core.ApplicationFilterChain.doFilter(ApplicationFilterChain.java:",
+            "\tat java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(DirectMethodHandleAccessor.java:",
+            "\tat java.base/java.lang.reflect.Method.invoke(Method.java:",
+            "\tat java.base/java.util.concurrent.ThreadPoolExecutor.runWorker(ThreadPoolExecutor.java:",
+            "\tat java.base/java.util.concurrent.ThreadPoolExecutor$Worker.run(ThreadPoolExecutor.java:",
+            "\tat java.base/java.lang.Thread.run(Thread.java:",
+            " ~[spring-webmvc-6.", " ~[spring-aop-6.", " ~[spring-tx-6.", " ~[tomcat-embed-core-10.",
+            ".RELEASE]", ".jar:", "?:?]", " ~[?:?]\n", "\n\t... ", " common frames omitted\n", " more\n",
+            "Caused by: ", "\tat com.windlogs.", "\tat java.base/").getBytes(StandardCharsets.UTF_8);
+
+    private final int minBytes;
+
+    public CompressedTextConverter(@Value("${logs.compression.min-bytes:512}") int minBytes) {
+        this.minBytes = minBytes;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] plain = text.getBytes(StandardCharsets.UTF_8);
+        if (plain.length >= minBytes) {
+            byte[] compressed = deflate(plain);
+            // Incompressible text stays plain: inflating it back would be wasted work
+            if (compressed.length < plain.length) {
+                return compressed;
+            }
+        }
+        byte[] stored = new byte[plain.length + 1];
+        stored[0] = PLAIN;
+        System.arraycopy(plain, 0, stored, 1, plain.length);
+        return stored;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            return "";
+        }
+        return switch (stored[0]) {
+            case PLAIN -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE_V1 -> new String(inflate(stored), StandardCharsets.UTF_8);
+            default -> throw new IllegalStateException("Unknown stored text format " + stored[0]);
+        };
+    }
+
+    private static byte[] deflate(byte[] plain) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(plain);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4 + 16);
+            out.write(DEFLATE_V1);
+            byte[] buffer = new byte[Math.min(plain.length, 8192)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            byte[] plain = new byte[Math.max(64, stored.length * 12)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == plain.length) {
+                    plain = Arrays.copyOf(plain, plain.length * 2);
+                }
+                int read = inflater.inflate(plain, length, plain.length - length);
+                if (read == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(DICTIONARY_V1);
+                } else if (read == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                length += read;
+            }
+            return Arrays.copyOf(plain, length);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -11,6 +11,16 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Stored in a table partitioned by month of created_at (db/migration/V1_6), with
+ * (id, created_at) as primary key. Queries that bound created_at only read the matching months.
+ * Stack traces and analyses live in log_payloads (db/migration/V1_8): a row only holds
+ * their hashes, and the texts are loaded by LogPayloadStore where they are shown.
+ * The search_vector column and its GIN index (db/migration/V1_10, V1_13) are generated by the
+ * database and not mapped here.
+ * Indexes are only created by the migrations in db/migration, not by Hibernate: its schema
+ * update would build them with a blocking CREATE INDEX at startup.
+ */
 @Entity
 @Table(name = "logs")
 @Data
@@ -19,7 +29,7 @@ import java.util.List;
 public class Log {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "log_seq")
-    @SequenceGenerator(name = "log_seq", sequenceName = "log_seq", allocationSize = 1)
+    @SequenceGenerator(name = "log_seq", sequenceName = "log_seq", allocationSize = 50)
     private Long id;
     @Enumerated(EnumType.STRING)
     private LogType type;
@@ -47,12 +57,52 @@ public class Log {
     private Double originalTimestamp;
     @Column(name="tag")
     private String tag;
-    @Column(name="stack_trace",columnDefinition = "TEXT")
+    /**
+     * Hash of the stack trace in log_payloads
+     */
+    @Column(name = "stack_trace_ref", length = 64)
+    private String stackTraceRef;
+    /**
+     * Stack trace text, not persisted with the log: set before saving, or loaded by LogPayloadStore#hydrate
+     */
+    @Transient
     private String stackTrace;
     @Column(name = "exception_type")
     private String exceptionType;
-    @Column(name="analysis_ia", columnDefinition = "TEXT")
+    /**
+     * Hash of the analyzer output in log_payloads
+     */
+    @Column(name = "analysis_ref", length = 64)
+    private String analysisRef;
+    /**
+     * Analyzer output as JSON, not persisted with the log, like {@link #stackTrace}
+     */
+    @Transient
     private String analysis;
+    /**
+     * Hash of the normalized raw stack trace, key of the analyzer result cache
+     */
+    @Column(name = "stack_trace_hash", length = 64)
+    private String stackTraceHash;
+    /**
+     * Set when the analyzer could not be reached at ingest time; the log is then
+     * re-analyzed in the background (see DeferredAnalysisService)
+     */
+    @Column(name = "analysis_pending")
+    private Boolean analysisPending;
+    @Column(name = "analysis_attempts")
+    private Integer analysisAttempts;
+    /**
+     * Hash of the normalized error (see LogFingerprinter), used to group recurrences
+     */
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+    /**
+     * Set when this log was a recurrence attached to an existing open ticket
+     * instead of getting a ticket of its own
+     */
+    @Column(name = "attached_ticket_id")
+    private Long attachedTicketId;
     @OneToMany(mappedBy = "log", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Ticket> tickets = new ArrayList<>();
 
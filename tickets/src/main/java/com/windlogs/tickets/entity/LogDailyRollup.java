@@ -0,0 +1,43 @@
+package com.windlogs.tickets.entity;
+
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Number of logs per tenant, project, day (of created_at), type and severity.
+ * Rebuilt from the logs table by StatsRollupService; the statistics endpoints read
+ * these rows instead of aggregating logs.
+ */
+@Entity
+@Table(name = "log_daily_rollups", indexes = {
+        @Index(name = "idx_log_daily_rollups_tenant_day", columnList = "tenant, day"),
+        @Index(name = "idx_log_daily_rollups_project_day", columnList = "project_id, day"),
+        @Index(name = "idx_log_daily_rollups_day", columnList = "day")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String tenant;
+    @Column(name = "project_id")
+    private Long projectId;
+    private LocalDate day;
+    @Enumerated(EnumType.STRING)
+    private LogType type;
+    @Enumerated(EnumType.STRING)
+    private LogSeverity severity;
+    @Column(name = "log_count")
+    private Long logCount;
+    @Column(name = "last_created_at")
+    private LocalDateTime lastCreatedAt;
+}
@@ -0,0 +1,38 @@
+package com.windlogs.tickets.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Large log text (stack trace or analyzer output) stored once per distinct content.
+ * Logs reference it by hash (see LogPayloadStore), which keeps the logs rows narrow
+ * and stores the recurring stack traces of an error a single time.
+ */
+@Entity
+@Table(name = "log_payloads")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogPayload {
+    /**
+     * SHA-256 of the UTF-8 content, in hex
+     */
+    @Id
+    @Column(length = 64)
+    private String hash;
+    /**
+     * Stored compressed once over the size threshold (see CompressedTextConverter)
+     */
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false)
+    private String content;
+    /**
+     * Last time the content was stored for a log, not only the first one (see LogPayloadRepository#storeOrTouch)
+     */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.windlogs.tickets.entity;
+
+import com.windlogs.tickets.enums.LogType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of Fluentd records per tenant, tag, minute and level that were counted instead of
+ * stored (see LogSampler). Together with the logs table, gives the real volume of each level.
+ */
+@Entity
+@Table(name = "log_sampled_counts", uniqueConstraints = @UniqueConstraint(
+        name = "uk_log_sampled_counts_key", columnNames = {"tenant", "tag", "minute", "type"}),
+        indexes = @Index(name = "idx_log_sampled_counts_minute", columnList = "minute"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LogSampledCount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private String tenant;
+    @Column(nullable = false)
+    private String tag;
+    /**
+     * Start of the minute the records were received in
+     */
+    @Column(nullable = false)
+    private LocalDateTime minute;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LogType type;
+    @Column(name = "dropped_count", nullable = false)
+    private Long droppedCount;
+}
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Solution {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "solution_seq")
+    @SequenceGenerator(name = "solution_seq", sequenceName = "solution_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -6,11 +6,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Indexes are only created by db/migration/V1_5, concurrently, and not declared here: Hibernate's
+ * schema update would build them with a blocking CREATE INDEX at startup.
+ */
 @Entity
 @Table(name = "tickets")
 @Data
@@ -18,7 +24,8 @@ import java.util.List;
 @NoArgsConstructor
 public class Ticket {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -50,10 +57,28 @@ public class Ticket {
     
     private String userEmail;
 
+    /**
+     * No foreign key: logs is partitioned and expired logs are dropped with their partition
+     * (see LogRetentionService), so the log of an old ticket may be gone
+     */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "log_id")
+    @JoinColumn(name = "log_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @NotFound(action = NotFoundAction.IGNORE)
     private Log log;
 
+    /**
+     * Fingerprint of the log this ticket was created for; later logs with the same
+     * fingerprint are attached to this ticket while it is open
+     */
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    @Column(name = "occurrence_count")
+    private Integer occurrenceCount;
+
+    @Column(name = "last_occurrence_at")
+    private LocalDateTime lastOccurrenceAt;
+
     @OneToOne(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
     private Solution solution;
 
@@ -68,6 +93,10 @@ public class Ticket {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = createdAt;
+        if (occurrenceCount == null) {
+            occurrenceCount = 1;
+            lastOccurrenceAt = createdAt;
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,29 @@
+package com.windlogs.tickets.enums;
+
+public enum LogExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    LogExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown format
+     */
+    public static LogExportFormat from(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,11 @@
+package com.windlogs.tickets.exception;
+
+/**
+ * The exception analyzer has no batch endpoint (404, 405 or 501 on it).
+ * Not an analyzer failure, so the circuit breaker ignores it.
+ */
+public class AnalyzerBatchUnsupportedException extends RuntimeException {
+    public AnalyzerBatchUnsupportedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
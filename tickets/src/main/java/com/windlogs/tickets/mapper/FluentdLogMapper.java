@@ -0,0 +1,122 @@
+package com.windlogs.tickets.mapper;
+
+import com.windlogs.tickets.dto.FluentdLogRequest;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Maps raw Fluentd records to {@link Log} entities.
+ * Only copies what is present on the record: enrichment (analyzer, project lookup)
+ * is done by the ingest service.
+ */
+@Component
+public class FluentdLogMapper {
+    private static final Logger logger = LoggerFactory.getLogger(FluentdLogMapper.class);
+
+    private final StringInterner tenants = new StringInterner(1024, 128);
+    /**
+     * Error code of the current millisecond, shared by the logs mapped within it
+     */
+    private volatile ErrorCode lastErrorCode = new ErrorCode(0, "FL_0");
+
+    /**
+     * Build a log entity from a Fluentd record
+     * @param fluentdLog The Fluentd record
+     * @return The log, not yet persisted
+     */
+    public Log toLog(FluentdLogRequest fluentdLog) {
+        Log log = new Log();
+
+        // Set timestamp
+        if (fluentdLog.getTimestamp() != 0) {
+            try {
+                log.setTimestamp(LocalDateTime.ofInstant(
+                        Instant.ofEpochSecond(fluentdLog.getTimestamp()),
+                        ZoneId.systemDefault()
+                ));
+                log.setOriginalTimestamp((double) fluentdLog.getTimestamp());
+            } catch (Exception e) {
+                logger.warn("Failed to parse timestamp: {}, using current time", fluentdLog.getTimestamp());
+                log.setTimestamp(LocalDateTime.now());
+                log.setOriginalTimestamp((double) System.currentTimeMillis() / 1000);
+            }
+        } else {
+            log.setTimestamp(LocalDateTime.now());
+            log.setOriginalTimestamp((double) System.currentTimeMillis() / 1000);
+        }
+
+        log.setType(determineLogType(fluentdLog.getLevel()));
+        log.setDescription(fluentdLog.getMessage() != null ? fluentdLog.getMessage() : "No message");
+        log.setCustomMessage(fluentdLog.getMessage() != null ? fluentdLog.getMessage() : "No message");
+        log.setSource(fluentdLog.getSource() != null ? fluentdLog.getSource() : "fluentd");
+        log.setSeverity(determineLogSeverity(fluentdLog.getLevel()));
+        log.setTenant(extractTenant(fluentdLog.getContainer_name()));
+        log.setTag(fluentdLog.getTag() != null ? fluentdLog.getTag() : "");
+
+        log.setErrorCode(errorCode(System.currentTimeMillis()));
+        log.setPid(fluentdLog.getPid());
+        log.setThread(fluentdLog.getThread());
+        log.setClassName(fluentdLog.getClass_name());
+        log.setContainerId(fluentdLog.getContainer_id());
+        log.setContainerName(fluentdLog.getContainer_name());
+        return log;
+    }
+
+    public LogType determineLogType(String level) {
+        if (level == null) return LogType.INFO;
+
+        try {
+            return LogType.valueOf(level.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown log level: {}, defaulting to INFO", level);
+            return LogType.INFO;
+        }
+    }
+
+    public LogSeverity determineLogSeverity(String level) {
+        if (level == null) return LogSeverity.LOW;
+
+        switch (level.toUpperCase()) {
+            case "ERROR":
+            case "FATAL":
+                return LogSeverity.HIGH;
+            case "WARN":
+            case "WARNING":
+                return LogSeverity.MEDIUM;
+            default:
+                return LogSeverity.LOW;
+        }
+    }
+
+    /**
+     * @return The container name up to its first underscore, without the leading slash
+     */
+    public String extractTenant(String containerName) {
+        if (containerName == null || !containerName.startsWith("/")) {
+            return "default";
+        }
+
+        int end = containerName.indexOf('_', 1);
+        return tenants.intern(containerName, 1, end >= 0 ? end : containerName.length());
+    }
+
+    private String errorCode(long millis) {
+        ErrorCode last = lastErrorCode;
+        if (last.millis() != millis) {
+            last = new ErrorCode(millis, "FL_" + millis);
+            lastErrorCode = last;
+        }
+        return last.code();
+    }
+
+    private record ErrorCode(long millis, String code) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.windlogs.tickets.mapper;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.dto.FluentdLogRequest;
+import com.windlogs.tickets.dto.ThrownInfo;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a Fluentd record field by field with a streaming parser, straight from the request
+ * body: no body string, no tree and no reflection. Tag, level, source and container name
+ * repeat on almost every record, so they are interned from the parser buffer
+ * (see {@link StringInterner}) instead of allocated per record.
+ * Accepts what the ObjectMapper binding of {@link FluentdLogRequest} accepts: unknown fields
+ * are skipped, numbers are read into string fields, a fractional or quoted timestamp is truncated.
+ */
+@Component
+public class FluentdRecordDecoder {
+    private final ObjectMapper objectMapper;
+    private final StringInterner interner = new StringInterner(4096, 256);
+
+    public FluentdRecordDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param body A single JSON record
+     * @throws IOException If the body is not a JSON object or cannot be read
+     */
+    public FluentdLogRequest decode(InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * @param record A single JSON record, e.g. one NDJSON line
+     * @throws IOException If the record is not a JSON object
+     */
+    public FluentdLogRequest decode(String record) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(record)) {
+            return read(parser);
+        }
+    }
+
+    private FluentdLogRequest read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object for a Fluentd record");
+        }
+        FluentdLogRequest record = new FluentdLogRequest();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "level" -> record.setLevel(internedText(parser, value));
+                case "source" -> record.setSource(internedText(parser, value));
+                case "tag" -> record.setTag(internedText(parser, value));
+                case "container_name" -> record.setContainer_name(internedText(parser, value));
+                case "message" -> record.setMessage(text(parser, value));
+                case "timestamp" -> record.setTimestamp(timestamp(parser, value));
+                case "pid" -> record.setPid(text(parser, value));
+                case "thread" -> record.setThread(text(parser, value));
+                case "class_name" -> record.setClass_name(text(parser, value));
+                case "container_id" -> record.setContainer_id(text(parser, value));
+                case "stackTrace" -> record.setStackTrace(text(parser, value));
+                case "exceptionType" -> record.setExceptionType(text(parser, value));
+                case "analysis" -> record.setAnalysis(text(parser, value));
+                case "thrown" -> record.setThrown(value == JsonToken.START_OBJECT ? parser.readValueAs(ThrownInfo.class) : skip(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return record;
+    }
+
+    private String internedText(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return interner.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        return text(parser, value);
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isStructStart()) {
+            return skip(parser);
+        }
+        return parser.getValueAsString();
+    }
+
+    private static long timestamp(JsonParser parser, JsonToken value) throws IOException {
+        return switch (value) {
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_NUMBER_FLOAT -> (long) parser.getDoubleValue();
+            case VALUE_NULL -> 0;
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                if (text.isEmpty()) {
+                    yield 0;
+                }
+                try {
+                    yield (long) Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(parser, "Invalid timestamp: " + parser.getText());
+                }
+            }
+            default -> throw new JsonParseException(parser, "Invalid timestamp: " + value);
+        };
+    }
+
+    private static <T> T skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
+    }
+}
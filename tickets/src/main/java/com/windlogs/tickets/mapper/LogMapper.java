@@ -0,0 +1,60 @@
+package com.windlogs.tickets.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.dto.AnalysisInfo;
+import com.windlogs.tickets.dto.LogDTO;
+import com.windlogs.tickets.entity.Log;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps logs to the DTOs returned by the log endpoints, with the analyzer output parsed
+ * from its stored JSON. Stack trace and analysis must have been loaded (LogPayloadStore#hydrate).
+ */
+@Component
+public class LogMapper {
+    private static final Logger logger = LoggerFactory.getLogger(LogMapper.class);
+    private final ObjectMapper objectMapper;
+
+    public LogMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public LogDTO toDTO(Log log) {
+        LogDTO logDTO = new LogDTO();
+        logDTO.setId(log.getId());
+        logDTO.setType(log.getType());
+        logDTO.setTimestamp(log.getTimestamp());
+        logDTO.setDescription(log.getDescription());
+        logDTO.setSource(log.getSource());
+        logDTO.setErrorCode(log.getErrorCode());
+        logDTO.setCustomMessage(log.getCustomMessage());
+        logDTO.setSeverity(log.getSeverity());
+        logDTO.setTenant(log.getTenant());
+        logDTO.setProjectId(log.getProjectId());
+        logDTO.setPid(log.getPid());
+        logDTO.setThread(log.getThread());
+        logDTO.setClassName(log.getClassName());
+        logDTO.setContainerId(log.getContainerId());
+        logDTO.setContainerName(log.getContainerName());
+        logDTO.setOriginalTimestamp(log.getOriginalTimestamp());
+        logDTO.setTag(log.getTag());
+        logDTO.setStackTrace(log.getStackTrace());
+        logDTO.setExceptionType(log.getExceptionType());
+        if (log.getAnalysis() != null && !log.getAnalysis().isEmpty()) {
+            try {
+                logger.info("Converting analysis for log ID: {}. Raw analysis: {}", log.getId(), log.getAnalysis());
+                AnalysisInfo analysisInfo = objectMapper.readValue(log.getAnalysis(), AnalysisInfo.class);
+                logDTO.setAnalysis(analysisInfo);
+                logger.info("Successfully converted analysis for log ID: {}. Converted object: {}", log.getId(), analysisInfo);
+            } catch (Exception e) {
+                logger.error("Failed to parse analysis JSON for log ID: {}. Error: {}. Raw analysis: {}", 
+                    log.getId(), e.getMessage(), log.getAnalysis(), e);
+            }
+        } else {
+            logger.debug("No analysis found for log ID: {}", log.getId());
+        }
+        return logDTO;
+    }
+}
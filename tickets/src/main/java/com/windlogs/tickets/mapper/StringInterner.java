@@ -0,0 +1,78 @@
+package com.windlogs.tickets.mapper;
+
+/**
+ * Canonical instances of low-cardinality strings (tags, levels, container names), looked up
+ * straight from a parser's character buffer: a value seen before costs no allocation, and
+ * every log of a container shares one instance of its name.
+ * A fixed-size table where a colliding value replaces the previous one, so memory stays bounded
+ * whatever the input. Unsynchronized on purpose: a racing write only costs a duplicate string.
+ */
+final class StringInterner {
+    private final String[] table;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * @param size Number of slots, rounded up to a power of two
+     * @param maxLength Longer values are not interned: they are unlikely to repeat
+     */
+    StringInterner(int size, int maxLength) {
+        int slots = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+        this.table = new String[slots];
+        this.mask = slots - 1;
+        this.maxLength = maxLength;
+    }
+
+    String intern(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = spread(hash) & mask;
+        String cached = table[slot];
+        if (cached != null && cached.length() == length && matches(cached, chars, offset)) {
+            return cached;
+        }
+        String value = new String(chars, offset, length);
+        table[slot] = value;
+        return value;
+    }
+
+    /**
+     * @return The canonical instance of {@code text.substring(start, end)}
+     */
+    String intern(String text, int start, int end) {
+        int length = end - start;
+        if (length > maxLength) {
+            return text.substring(start, end);
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        int slot = spread(hash) & mask;
+        String cached = table[slot];
+        if (cached != null && cached.length() == length && cached.regionMatches(0, text, start, length)) {
+            return cached;
+        }
+        String value = text.substring(start, end);
+        table[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset) {
+        for (int i = 0; i < cached.length(); i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
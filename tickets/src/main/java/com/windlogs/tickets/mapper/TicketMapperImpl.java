@@ -44,6 +44,9 @@ public class TicketMapperImpl implements TicketMapper {
         if (ticket.getLog() != null) {
             ticketDTO.setLogId(ticket.getLog().getId());
         }
+
+        ticketDTO.setOccurrenceCount(ticket.getOccurrenceCount());
+        ticketDTO.setLastOccurrenceAt(ticket.getLastOccurrenceAt());
         
         logger.debug("Mapped Ticket to TicketDTO - ID: {}, Tenant: {}, LogId: {}", 
                 ticketDTO.getId(), ticketDTO.getTenant(), ticketDTO.getLogId());
@@ -0,0 +1,124 @@
+package com.windlogs.tickets.repository;
+
+import com.windlogs.tickets.dto.ActivityStatsDTO;
+import com.windlogs.tickets.dto.LogRollupSummary;
+import com.windlogs.tickets.dto.LogStatsDTO;
+import com.windlogs.tickets.entity.LogDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Daily log counts backing the statistics endpoints.
+ * Project queries mirror the log aggregations of {@link LogRepository} they replace,
+ * with the same result shapes; tenant dashboards use {@link #summarizeTenant(String)}.
+ */
+@Repository
+public interface LogDailyRollupRepository extends JpaRepository<LogDailyRollup, Long> {
+
+    /**
+     * Take the rollup rebuild lock until the end of the current transaction, if no other
+     * instance holds it: log_daily_rollups has no unique key, so two concurrent rebuilds
+     * of the same days would both insert their rows
+     * @return False if another transaction holds the lock
+     */
+    @Query(nativeQuery = true, value = "SELECT pg_try_advisory_xact_lock(hashtext('log_daily_rollups'))")
+    boolean tryLockRebuild();
+
+    /**
+     * Wait for the rollup rebuild lock, held until the end of the current transaction
+     */
+    @Query(nativeQuery = true, value = "SELECT CAST(pg_advisory_xact_lock(hashtext('log_daily_rollups')) AS text)")
+    String lockRebuild();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM log_daily_rollups WHERE day >= :since")
+    int deleteFromDay(@Param("since") LocalDate since);
+
+    /**
+     * Recount the logs created since a given time into rollup rows
+     * @param since Start of the first day to rebuild
+     * @return The number of rollup rows written
+     */
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "INSERT INTO log_daily_rollups (tenant, project_id, day, type, severity, log_count, last_created_at) " +
+           "SELECT l.tenant, l.project_id, CAST(l.created_at AS date), l.type, l.severity, COUNT(*), MAX(l.created_at) " +
+           "FROM logs l WHERE l.created_at >= :since " +
+           "GROUP BY l.tenant, l.project_id, CAST(l.created_at AS date), l.type, l.severity")
+    int insertFromLogs(@Param("since") LocalDateTime since);
+
+    @Query("SELECT MIN(CAST(l.createdAt as date)) FROM Log l")
+    LocalDate findFirstLogDay();
+
+    List<LogDailyRollup> findByTenant(String tenant);
+
+    /**
+     * Read a tenant's rollups once and derive every dashboard log statistic from them
+     * @param tenant The tenant identifier
+     * @return The tenant's log statistics
+     */
+    default LogRollupSummary summarizeTenant(String tenant) {
+        return new LogRollupSummary(findByTenant(tenant));
+    }
+
+    @Query(nativeQuery = true,
+           value = "SELECT r.day, r.type, SUM(r.log_count) FROM log_daily_rollups r " +
+           "WHERE r.project_id = :projectId " +
+           "GROUP BY r.day, r.type ORDER BY r.day")
+    List<Object[]> getLogStatsByDayForProjectRaw(@Param("projectId") Long projectId);
+
+    @Query(nativeQuery = true,
+           value = "SELECT r.day, SUM(r.log_count) FROM log_daily_rollups r " +
+           "WHERE r.project_id = :projectId " +
+           "GROUP BY r.day ORDER BY r.day")
+    List<Object[]> getActivityByDayForProjectRaw(@Param("projectId") Long projectId);
+
+    /**
+     * Logs per day (of created_at) and type for a project
+     */
+    default List<LogStatsDTO> getLogStatsByDayForProject(Long projectId) {
+        return getLogStatsByDayForProjectRaw(projectId).stream()
+                .map(row -> new LogStatsDTO(
+                        (Date) row[0],
+                        (String) row[1],
+                        ((Number) row[2]).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Logs per day (of created_at) for a project
+     */
+    default List<ActivityStatsDTO> getActivityByDayForProject(Long projectId) {
+        return getActivityByDayForProjectRaw(projectId).stream()
+                .map(row -> new ActivityStatsDTO(
+                        (Date) row[0],
+                        ((Number) row[1]).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Query("SELECT COALESCE(SUM(r.logCount), 0) FROM LogDailyRollup r " +
+           "WHERE r.projectId = :projectId AND r.type = com.windlogs.tickets.enums.LogType.ERROR")
+    long countAllErrorsByProject(@Param("projectId") Long projectId);
+
+    @Query("SELECT COALESCE(SUM(r.logCount), 0) FROM LogDailyRollup r " +
+           "WHERE r.projectId = :projectId AND r.severity = com.windlogs.tickets.enums.LogSeverity.HIGH")
+    long countCriticalErrorsByProject(@Param("projectId") Long projectId);
+
+    @Query("SELECT new map(" +
+           "r.type as type, " +
+           "SUM(r.logCount) as count) " +
+           "FROM LogDailyRollup r " +
+           "WHERE r.projectId = :projectId " +
+           "GROUP BY r.type")
+    List<Map<String, Object>> getErrorTypeDistributionByProject(@Param("projectId") Long projectId);
+}
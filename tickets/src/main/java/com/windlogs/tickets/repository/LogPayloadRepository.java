@@ -0,0 +1,48 @@
+package com.windlogs.tickets.repository;
+
+import com.windlogs.tickets.entity.LogPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Repository
+public interface LogPayloadRepository extends JpaRepository<LogPayload, String> {
+
+    /**
+     * Store a payload, or mark an already stored one as in use again. created_at is the last time
+     * the content was stored: the retention sweep only removes payloads unreferenced since long
+     * before that (see LogRetentionService)
+     * @param content The content as stored, see {@link com.windlogs.tickets.entity.CompressedTextConverter}
+     * @param searchText The text to index for full-text search, or null if the payload is not searchable
+     * @return 1 once stored or touched
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value =
+           "INSERT INTO log_payloads (hash, content, created_at, search_vector) " +
+           "VALUES (:hash, :content, now(), to_tsvector('simple', log_search_text(CAST(:searchText AS text)))) " +
+           "ON CONFLICT (hash) DO UPDATE SET created_at = now()")
+    int storeOrTouch(@Param("hash") String hash, @Param("content") byte[] content,
+                     @Param("searchText") String searchText);
+
+    @Query("SELECT p.hash, p.content FROM LogPayload p WHERE p.hash IN :hashes")
+    List<Object[]> findContentsRaw(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * Read payload contents as plain values, so exports streaming many chunks
+     * do not fill the persistence context with payload entities
+     * @return Content by hash, for the hashes that are stored
+     */
+    default Map<String, String> findContents(Collection<String> hashes) {
+        return findContentsRaw(hashes).stream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (String) row[1]));
+    }
+}
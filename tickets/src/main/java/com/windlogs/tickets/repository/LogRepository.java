@@ -1,57 +1,53 @@
 package com.windlogs.tickets.repository;
 
-import com.windlogs.tickets.dto.ActivityStatsDTO;
-import com.windlogs.tickets.dto.LogStatsDTO;
 import com.windlogs.tickets.entity.Log;
 import com.windlogs.tickets.enums.LogType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Repository
-public interface LogRepository extends JpaRepository<Log, Long> {
+public interface LogRepository extends JpaRepository<Log, Long>, LogRepositoryCustom {
     
 
     List<Log> findByProjectIdIn(List<Long> projectIds);
     List<Log> findByProjectId(Long projectId);
     List<Log> findByTenant(String tenant);
 
-    @Query(nativeQuery = true, 
-           value = "SELECT DATE(timestamp) as day, type, COUNT(*) as count " +
-           "FROM logs WHERE project_id = :projectId " +
-           "GROUP BY DATE(timestamp), type ORDER BY DATE(timestamp)")
-    List<Object[]> getLogStatsByDayForProjectRaw(@Param("projectId") Long projectId);
-    
-    @Query(nativeQuery = true,
-           value = "SELECT DATE(timestamp) as day, COUNT(*) as count " +
-           "FROM logs WHERE project_id = :projectId " +
-           "GROUP BY DATE(timestamp) ORDER BY DATE(timestamp)")
-    List<Object[]> getActivityByDayForProjectRaw(@Param("projectId") Long projectId);
-    
-    default List<LogStatsDTO> getLogStatsByDayForProject(Long projectId) {
-        List<Object[]> results = getLogStatsByDayForProjectRaw(projectId);
-        return results.stream()
-            .map(row -> new LogStatsDTO(
-                (Date) row[0],
-                (String) row[1],
-                ((Number) row[2]).longValue()))
-            .collect(Collectors.toList());
-    }
-    
-    default List<ActivityStatsDTO> getActivityByDayForProject(Long projectId) {
-        List<Object[]> results = getActivityByDayForProjectRaw(projectId);
-        return results.stream()
-            .map(row -> new ActivityStatsDTO(
-                (Date) row[0],
-                ((Number) row[1]).longValue()))
-            .collect(Collectors.toList());
-    }
+    /**
+     * Latest analyzed log with the given stack trace hash, used to reuse analyzer results
+     */
+    Optional<Log> findFirstByStackTraceHashAndAnalysisRefIsNotNullOrderByIdDesc(String stackTraceHash);
+
+    /**
+     * Oldest logs waiting for a deferred analyzer call
+     */
+    List<Log> findByAnalysisPendingTrueOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Write what the enrich stages and the deferred analysis fill in on a stored log.
+     * Matched on the whole primary key (id, created_at), so only the log's own monthly
+     * partition is read, unlike save() which looks the row up by ID in every partition.
+     * @param log A log read or saved before, with its ID and created_at
+     * @return The number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Log l SET l.projectId = :#{#log.projectId}, l.tenant = :#{#log.tenant}, " +
+           "l.exceptionType = :#{#log.exceptionType}, l.stackTraceRef = :#{#log.stackTraceRef}, " +
+           "l.analysisRef = :#{#log.analysisRef}, l.stackTraceHash = :#{#log.stackTraceHash}, " +
+           "l.analysisPending = :#{#log.analysisPending}, l.analysisAttempts = :#{#log.analysisAttempts}, " +
+           "l.fingerprint = :#{#log.fingerprint}, l.attachedTicketId = :#{#log.attachedTicketId} " +
+           "WHERE l.id = :#{#log.id} AND l.createdAt = :#{#log.createdAt}")
+    int updateEnrichment(@Param("log") Log log);
 
     @Query("SELECT COUNT(l) FROM Log l WHERE l.projectId = :projectId AND l.type = com.windlogs.tickets.enums.LogType.ERROR")
     long countAllErrorsByProject(@Param("projectId") Long projectId);
@@ -0,0 +1,56 @@
+package com.windlogs.tickets.repository;
+
+import com.windlogs.tickets.dto.LogCursor;
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.dto.LogSearchCursor;
+import com.windlogs.tickets.dto.LogSummaryDTO;
+import com.windlogs.tickets.entity.Log;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Log queries built at runtime from optional filters
+ */
+public interface LogRepositoryCustom {
+
+    /**
+     * Get log summaries matching a filter, newest first
+     * @param filter The filters to apply
+     * @param after Only return logs strictly after this position, or null for the first page
+     * @param limit The maximum number of rows
+     * @return Summaries ordered by timestamp then ID, descending
+     */
+    List<LogSummaryDTO> findSummaries(LogFilterDTO filter, LogCursor after, int limit);
+
+    /**
+     * Get log summaries matching a filter inserted at or after a given time, in insert order
+     * @param filter The filters to apply
+     * @param since Only return logs with a created_at at or after this time
+     * @param limit The maximum number of rows
+     * @return Summaries ordered by (created_at, id) ascending
+     */
+    List<LogSummaryDTO> findSummariesCreatedSince(LogFilterDTO filter, LocalDateTime since, int limit);
+
+    /**
+     * Stream every log matching a filter, oldest first, through a database cursor.
+     * Rows are detached as they are read so the persistence context does not grow.
+     * Must be called inside a transaction and the stream closed after use.
+     * @param filter The filters to apply
+     * @param fetchSize The number of rows fetched per round trip
+     * @return The matching logs
+     */
+    Stream<Log> streamLogs(LogFilterDTO filter, int fetchSize);
+
+    /**
+     * Full-text search of a tenant's logs, over their message fields and stack traces
+     * @param tenant The tenant whose logs are searched
+     * @param projectId Only search this project's logs, or null
+     * @param query The words to find, all of them
+     * @param after Only return hits strictly after this position, or null for the first page
+     * @param limit The maximum number of hits
+     * @return The rank and ID of each hit, best first, ties by ID descending
+     */
+    List<LogSearchCursor> searchRanked(String tenant, Long projectId, String query, LogSearchCursor after, int limit);
+}
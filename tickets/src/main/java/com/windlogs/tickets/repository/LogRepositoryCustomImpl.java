@@ -0,0 +1,185 @@
+package com.windlogs.tickets.repository;
+
+import com.windlogs.tickets.dto.LogCursor;
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.dto.LogSearchCursor;
+import com.windlogs.tickets.dto.LogSummaryDTO;
+import com.windlogs.tickets.entity.Log;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Only the filters that are set end up in the SQL, so each combination gets a plan
+ * using the (project_id|tenant, timestamp, id) indexes instead of a catch-all query.
+ * Listings filter and page on the log's own timestamp, but logs is partitioned by created_at:
+ * every timestamp bound is repeated on created_at, widened by a slack that covers the delay
+ * between a log being written and stored, so only the months in range are scanned.
+ * A log stored more than the slack after (or before) its timestamp is missed by bounded filters.
+ */
+public class LogRepositoryCustomImpl implements LogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${logs.partitioning.created-at-slack-hours:24}")
+    private long createdAtSlackHours;
+
+    @Override
+    public List<LogSummaryDTO> findSummaries(LogFilterDTO filter, LogCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LogSummaryDTO> query = cb.createQuery(LogSummaryDTO.class);
+        Root<Log> log = query.from(Log.class);
+
+        query.select(summary(cb, log));
+
+        List<Predicate> predicates = filterPredicates(cb, log, filter);
+        if (after != null) {
+            predicates.add(cb.lessThan(log.<LocalDateTime>get("createdAt"), after.timestamp().plusHours(createdAtSlackHours)));
+            // (timestamp, id) < (:timestamp, :id)
+            predicates.add(cb.or(
+                    cb.lessThan(log.<LocalDateTime>get("timestamp"), after.timestamp()),
+                    cb.and(
+                            cb.equal(log.get("timestamp"), after.timestamp()),
+                            cb.lessThan(log.<Long>get("id"), after.id()))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(log.get("timestamp")), cb.desc(log.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<LogSummaryDTO> findSummariesCreatedSince(LogFilterDTO filter, LocalDateTime since, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LogSummaryDTO> query = cb.createQuery(LogSummaryDTO.class);
+        Root<Log> log = query.from(Log.class);
+        query.select(summary(cb, log));
+
+        List<Predicate> predicates = filterPredicates(cb, log, filter);
+        predicates.add(cb.greaterThanOrEqualTo(log.<LocalDateTime>get("createdAt"), since));
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(log.get("createdAt")), cb.asc(log.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Log> streamLogs(LogFilterDTO filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Log> query = cb.createQuery(Log.class);
+        Root<Log> log = query.from(Log.class);
+        query.where(filterPredicates(cb, log, filter).toArray(new Predicate[0]))
+                .orderBy(cb.asc(log.get("timestamp")), cb.asc(log.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    /**
+     * Message matches (GIN index on logs.search_vector) and stack trace matches (GIN index on
+     * log_payloads.search_vector, then the logs referencing the payload) are ranked separately
+     * and added up. Stack traces weigh half, as a frame name is a weaker hint than the message.
+     * The message is indexed once even when custom_message repeats description (V1_13).
+     */
+    @Override
+    public List<LogSearchCursor> searchRanked(String tenant, Long projectId, String query, LogSearchCursor after, int limit) {
+        String projectFilter = projectId != null ? " AND l.project_id = :projectId" : "";
+        String sql = "WITH q AS (SELECT plainto_tsquery('simple', log_search_text(:query)) AS query), " +
+                "matches AS (" +
+                "SELECT l.id, ts_rank(l.search_vector, q.query) AS rank FROM logs l, q " +
+                "WHERE l.tenant = :tenant AND l.search_vector @@ q.query" + projectFilter +
+                " UNION ALL " +
+                "SELECT l.id, ts_rank(p.search_vector, q.query) * 0.5 AS rank " +
+                "FROM q, log_payloads p JOIN logs l ON l.stack_trace_ref = p.hash " +
+                "WHERE p.search_vector @@ q.query AND l.tenant = :tenant" + projectFilter +
+                "), ranked AS (SELECT id, CAST(SUM(rank) AS float8) AS rank FROM matches GROUP BY id) " +
+                "SELECT r.rank, r.id FROM ranked r" +
+                (after != null ? " WHERE (r.rank, r.id) < (:afterRank, :afterId)" : "") +
+                " ORDER BY r.rank DESC, r.id DESC LIMIT :limit";
+
+        Query search = entityManager.createNativeQuery(sql)
+                .setParameter("query", query)
+                .setParameter("tenant", tenant)
+                .setParameter("limit", limit);
+        if (projectId != null) {
+            search.setParameter("projectId", projectId);
+        }
+        if (after != null) {
+            search.setParameter("afterRank", after.rank());
+            search.setParameter("afterId", after.id());
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = search.getResultList();
+        return rows.stream()
+                .map(row -> new LogSearchCursor(((Number) row[0]).doubleValue(), ((Number) row[1]).longValue()))
+                .toList();
+    }
+
+    private static CompoundSelection<LogSummaryDTO> summary(CriteriaBuilder cb, Root<Log> log) {
+        return cb.construct(LogSummaryDTO.class,
+                log.get("id"),
+                log.get("type"),
+                log.get("timestamp"),
+                log.get("source"),
+                log.get("errorCode"),
+                log.get("customMessage"),
+                log.get("severity"),
+                log.get("tenant"),
+                log.get("projectId"),
+                log.get("className"),
+                log.get("containerName"),
+                log.get("tag"),
+                log.get("exceptionType"),
+                log.get("attachedTicketId"),
+                log.get("createdAt"));
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Log> log, LogFilterDTO filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getProjectId() != null) {
+            predicates.add(cb.equal(log.get("projectId"), filter.getProjectId()));
+        }
+        if (filter.getTenant() != null) {
+            predicates.add(cb.equal(log.get("tenant"), filter.getTenant()));
+        }
+        if (filter.getType() != null) {
+            predicates.add(cb.equal(log.get("type"), filter.getType()));
+        }
+        if (filter.getSeverity() != null) {
+            predicates.add(cb.equal(log.get("severity"), filter.getSeverity()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(log.<LocalDateTime>get("timestamp"), filter.getFrom()));
+            predicates.add(cb.greaterThanOrEqualTo(log.<LocalDateTime>get("createdAt"), filter.getFrom().minusHours(createdAtSlackHours)));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThan(log.<LocalDateTime>get("timestamp"), filter.getTo()));
+            predicates.add(cb.lessThan(log.<LocalDateTime>get("createdAt"), filter.getTo().plusHours(createdAtSlackHours)));
+        }
+        if (filter.getExceptionType() != null) {
+            predicates.add(cb.equal(log.get("exceptionType"), filter.getExceptionType()));
+        }
+        return predicates;
+    }
+}
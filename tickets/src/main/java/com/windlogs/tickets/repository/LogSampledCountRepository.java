@@ -0,0 +1,28 @@
+package com.windlogs.tickets.repository;
+
+import com.windlogs.tickets.entity.LogSampledCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LogSampledCountRepository extends JpaRepository<LogSampledCount, Long> {
+
+    /**
+     * Add to the count of a minute, creating its row on the first flush
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value =
+           "INSERT INTO log_sampled_counts (tenant, tag, minute, type, dropped_count) " +
+           "VALUES (:tenant, :tag, :minute, :type, :count) " +
+           "ON CONFLICT (tenant, tag, minute, type) " +
+           "DO UPDATE SET dropped_count = log_sampled_counts.dropped_count + EXCLUDED.dropped_count")
+    int addDropped(@Param("tenant") String tenant, @Param("tag") String tag, @Param("minute") LocalDateTime minute,
+                   @Param("type") String type, @Param("count") long count);
+}
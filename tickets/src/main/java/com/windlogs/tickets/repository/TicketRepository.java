@@ -1,10 +1,15 @@
 package com.windlogs.tickets.repository;
 
+import com.windlogs.tickets.dto.TicketStatusHistogram;
 import com.windlogs.tickets.entity.Ticket;
 import com.windlogs.tickets.enums.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -47,6 +52,101 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     Long countByAssignedToUserId(Long assignedToUserId);
     Long countByAssignedToUserIdAndStatus(Long assignedToUserId, Status status);
 
+    /**
+     * Find the most recent ticket with a given fingerprint that is not in a given status
+     * @param tenant The tenant identifier
+     * @param fingerprint The error fingerprint
+     * @param excludedStatus The status that closes a ticket
+     * @param pageable Use a page of one
+     * @return The matching ticket IDs, newest first
+     */
+    @Query("SELECT t.id FROM Ticket t " +
+           "WHERE t.tenant = :tenant AND t.fingerprint = :fingerprint AND t.status <> :excludedStatus " +
+           "ORDER BY t.id DESC")
+    List<Long> findOpenTicketIdsByFingerprint(@Param("tenant") String tenant,
+                                              @Param("fingerprint") String fingerprint,
+                                              @Param("excludedStatus") Status excludedStatus,
+                                              Pageable pageable);
+
+    /**
+     * Wait for the lock of a tenant's error fingerprint, held until the end of the current
+     * transaction, so that instances never create two open tickets for the same error
+     * @param tenant The tenant identifier
+     * @param fingerprint The error fingerprint
+     */
+    @Query(nativeQuery = true, value =
+           "SELECT CAST(pg_advisory_xact_lock(hashtext(COALESCE(:tenant, '') || ':' || :fingerprint)) AS text)")
+    String lockFingerprint(@Param("tenant") String tenant, @Param("fingerprint") String fingerprint);
+
+    /**
+     * Record one more occurrence of a ticket's error
+     * @param ticketId The ticket ID
+     * @param occurredAt When the error occurred again
+     * @return The number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Ticket t SET t.occurrenceCount = COALESCE(t.occurrenceCount, 1) + 1, " +
+           "t.lastOccurrenceAt = :occurredAt WHERE t.id = :ticketId")
+    int incrementOccurrenceCount(@Param("ticketId") Long ticketId, @Param("occurredAt") LocalDateTime occurredAt);
+
+    /**
+     * Ticket counts per status, with time-window buckets, in one pass over the tenant's tickets
+     */
+    @Query(nativeQuery = true, value =
+           "SELECT t.status, COUNT(*), " +
+           "AVG(FLOOR(EXTRACT(EPOCH FROM (t.updated_at - t.created_at)) / 3600)), " +
+           "COUNT(*) FILTER (WHERE t.created_at BETWEEN :weekAgo AND :now), " +
+           "COUNT(*) FILTER (WHERE t.created_at BETWEEN :monthAgo AND :now), " +
+           "COUNT(*) FILTER (WHERE t.updated_at BETWEEN :weekAgo AND :now), " +
+           "COUNT(*) FILTER (WHERE t.updated_at BETWEEN :monthAgo AND :now) " +
+           "FROM tickets t WHERE t.tenant = :tenant " +
+           "GROUP BY t.status")
+    List<Object[]> getStatusHistogramRaw(@Param("tenant") String tenant,
+                                         @Param("weekAgo") LocalDateTime weekAgo,
+                                         @Param("monthAgo") LocalDateTime monthAgo,
+                                         @Param("now") LocalDateTime now);
+
+    /**
+     * Same as {@link #getStatusHistogramRaw} for the tickets assigned to one user
+     */
+    @Query(nativeQuery = true, value =
+           "SELECT t.status, COUNT(*), " +
+           "AVG(FLOOR(EXTRACT(EPOCH FROM (t.updated_at - t.created_at)) / 3600)), " +
+           "COUNT(*) FILTER (WHERE t.created_at BETWEEN :weekAgo AND :now), " +
+           "COUNT(*) FILTER (WHERE t.created_at BETWEEN :monthAgo AND :now), " +
+           "COUNT(*) FILTER (WHERE t.updated_at BETWEEN :weekAgo AND :now), " +
+           "COUNT(*) FILTER (WHERE t.updated_at BETWEEN :monthAgo AND :now) " +
+           "FROM tickets t WHERE t.tenant = :tenant AND t.assigned_to_user_id = :userId " +
+           "GROUP BY t.status")
+    List<Object[]> getStatusHistogramForAssigneeRaw(@Param("tenant") String tenant,
+                                                    @Param("userId") Long userId,
+                                                    @Param("weekAgo") LocalDateTime weekAgo,
+                                                    @Param("monthAgo") LocalDateTime monthAgo,
+                                                    @Param("now") LocalDateTime now);
+
+    /**
+     * Get the status histogram of a tenant's tickets, with last-7-days and last-30-days buckets
+     * @param tenant The tenant identifier
+     * @param now The end of the time windows
+     * @return The histogram
+     */
+    default TicketStatusHistogram getStatusHistogram(String tenant, LocalDateTime now) {
+        return TicketStatusHistogram.fromRows(getStatusHistogramRaw(tenant, now.minusDays(7), now.minusDays(30), now));
+    }
+
+    /**
+     * Get the status histogram of the tickets assigned to a user within a tenant
+     * @param tenant The tenant identifier
+     * @param userId The assignee
+     * @param now The end of the time windows
+     * @return The histogram
+     */
+    default TicketStatusHistogram getStatusHistogramForAssignee(String tenant, Long userId, LocalDateTime now) {
+        return TicketStatusHistogram.fromRows(
+                getStatusHistogramForAssigneeRaw(tenant, userId, now.minusDays(7), now.minusDays(30), now));
+    }
+
     @Query("SELECT new map(" +
            "t.status as status, " +
            "COUNT(t) as count, " +
@@ -0,0 +1,99 @@
+package com.windlogs.tickets.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of dashboard statistics, so a tenant's users polling their dashboards
+ * share one computation every few seconds.
+ * Concurrent requests for the same dashboard wait for the first one instead of recomputing it.
+ * A tenant's entries are dropped as soon as one of its tickets changes, and every entry is
+ * dropped when the daily log rollups are refreshed. Partial dashboards (with a section in
+ * {@link StatsQueryRunner#ERRORS_KEY}) are returned to the waiting requests but not kept.
+ */
+@Service
+public class DashboardStatsCache {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsCache.class);
+
+    /**
+     * @param userId Null for the dashboards that are the same for every user of a tenant
+     */
+    public record DashboardKey(String tenant, String role, Long userId) {
+    }
+
+    private final AsyncCache<DashboardKey, Map<String, Object>> dashboards;
+
+    public DashboardStatsCache(
+            MeterRegistry meterRegistry,
+            @Value("${cache.dashboard.max-size:10000}") long maxSize,
+            @Value("${cache.dashboard.ttl-seconds:5}") long ttlSeconds) {
+        this.dashboards = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, dashboards.synchronous(), "dashboardStats");
+    }
+
+    /**
+     * Get a dashboard, computing it on the calling thread if no fresh copy exists
+     * and no other request is already computing it
+     * @param key The dashboard
+     * @param loader Computes the dashboard
+     * @return The dashboard statistics, read-only
+     */
+    public Map<String, Object> get(DashboardKey key, Supplier<Map<String, Object>> loader) {
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> future = dashboards.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                Map<String, Object> stats = Collections.unmodifiableMap(loader.get());
+                created.complete(stats);
+                if (stats.containsKey(StatsQueryRunner.ERRORS_KEY)) {
+                    dashboards.asMap().remove(key, created);
+                }
+            } catch (RuntimeException e) {
+                // Failed futures are removed by the cache
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Drop the dashboards of a tenant, e.g. after one of its tickets changed
+     * @param tenant The tenant identifier
+     */
+    public void invalidateTenant(String tenant) {
+        if (tenant == null) {
+            return;
+        }
+        logger.debug("Invalidating dashboard statistics of tenant {}", tenant);
+        dashboards.asMap().keySet().removeIf(key -> tenant.equals(key.tenant()));
+    }
+
+    /**
+     * Drop every dashboard, e.g. after the log rollups were refreshed
+     */
+    public void invalidateAll() {
+        dashboards.synchronous().invalidateAll();
+    }
+}
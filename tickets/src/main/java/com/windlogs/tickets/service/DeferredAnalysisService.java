@@ -0,0 +1,108 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogRepository;
+import com.windlogs.tickets.service.StackTraceAnalysisCache.CachedAnalysis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Fills in the analysis of logs ingested while the analyzer was down or failing.
+ * Pending logs are picked up oldest first, a batch per run, and only while the analyzer
+ * circuit breaker lets calls through. A log is given up on after a few failed attempts.
+ */
+@Service
+public class DeferredAnalysisService {
+    private static final Logger logger = LoggerFactory.getLogger(DeferredAnalysisService.class);
+
+    private final LogRepository logRepository;
+    private final LogPayloadStore logPayloadStore;
+    private final StackTraceAnalysisCache stackTraceAnalysisCache;
+    private final ExceptionAnalyzerService exceptionAnalyzerService;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public DeferredAnalysisService(
+            LogRepository logRepository,
+            LogPayloadStore logPayloadStore,
+            StackTraceAnalysisCache stackTraceAnalysisCache,
+            ExceptionAnalyzerService exceptionAnalyzerService,
+            @Value("${exception.analyzer.reanalysis.batch-size:50}") int batchSize,
+            @Value("${exception.analyzer.reanalysis.max-attempts:5}") int maxAttempts) {
+        this.logRepository = logRepository;
+        this.logPayloadStore = logPayloadStore;
+        this.stackTraceAnalysisCache = stackTraceAnalysisCache;
+        this.exceptionAnalyzerService = exceptionAnalyzerService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Re-analyze a batch of pending logs
+     * @return The number of logs processed
+     */
+    @Scheduled(fixedDelayString = "${exception.analyzer.reanalysis.interval-ms:60000}",
+            initialDelayString = "${exception.analyzer.reanalysis.interval-ms:60000}")
+    public int reanalyzePending() {
+        if (!exceptionAnalyzerService.isAvailable()) {
+            logger.debug("Analyzer unavailable, postponing deferred analysis");
+            return 0;
+        }
+        List<Log> pending = logRepository.findByAnalysisPendingTrueOrderByIdAsc(PageRequest.of(0, batchSize));
+        logPayloadStore.hydrate(pending);
+        int processed = 0;
+        for (Log log : pending) {
+            if (!exceptionAnalyzerService.isAvailable()) {
+                break;
+            }
+            reanalyze(log);
+            logPayloadStore.externalize(log);
+            logRepository.updateEnrichment(log);
+            processed++;
+        }
+        if (processed > 0) {
+            logger.info("Deferred analysis processed {} of {} pending logs", processed, pending.size());
+        }
+        return processed;
+    }
+
+    private void reanalyze(Log log) {
+        boolean complete = true;
+        if (log.getAnalysis() == null && log.getStackTraceHash() != null && log.getStackTrace() != null) {
+            // Pending logs keep the raw stack trace, which is what the analyzer expects
+            CachedAnalysis analysis = stackTraceAnalysisCache
+                    .analyzeStackTrace(log.getStackTraceHash(), log.getStackTrace()).join();
+            if (analysis != null) {
+                if (analysis.stackTrace() != null) {
+                    log.setStackTrace(analysis.stackTrace());
+                }
+                log.setAnalysis(analysis.analysis());
+            } else {
+                complete = false;
+            }
+        }
+        if (log.getExceptionType() == null && log.getDescription() != null) {
+            String exceptionType = stackTraceAnalysisCache.classifyException(log.getDescription()).join();
+            if (exceptionType != null) {
+                log.setExceptionType(exceptionType);
+            } else {
+                complete = false;
+            }
+        }
+
+        int attempts = (log.getAnalysisAttempts() != null ? log.getAnalysisAttempts() : 0) + 1;
+        log.setAnalysisAttempts(attempts);
+        if (complete) {
+            log.setAnalysisPending(false);
+        } else if (attempts >= maxAttempts) {
+            logger.warn("Giving up deferred analysis of log {} after {} attempts", log.getId(), attempts);
+            log.setAnalysisPending(false);
+        }
+    }
+}
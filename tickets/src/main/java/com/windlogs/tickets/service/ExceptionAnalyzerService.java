@@ -1,28 +1,135 @@
 package com.windlogs.tickets.service;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import com.windlogs.tickets.exception.AnalyzerBatchUnsupportedException;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.util.StdConverter;
 import lombok.Data;
+import java.time.Duration;
 import java.util.Map;
 import java.util.List;
-
+import java.util.Set;
+
+/**
+ * Client of the exception analyzer API.
+ * Every call is non-blocking, has its own timeout and goes through the analyzer
+ * bulkhead and circuit breaker (see {@link com.windlogs.tickets.config.AnalyzerClientConfig}).
+ * The blocking variants wait at most for that timeout and report failures in their response.
+ * <p>
+ * Stack trace analyses are queued and sent in multi-item requests, a group closing once it
+ * holds {@code batch.max-size} traces or after {@code batch.linger-ms}. Results are handed back
+ * to each waiting caller. If the analyzer has no batch endpoint, groups fall back to one call
+ * per trace for the rest of the process lifetime.
+ * The queue is bounded: a trace that does not fit is analyzed on its own. Groups are only
+ * closed when a send slot is free, and a caller waits at most {@code batch.result-timeout-ms}
+ * for its group; the batching is restarted if it ever fails.
+ */
 @Slf4j
 @Service
 public class ExceptionAnalyzerService {
 
-    @Value("${exception.analyzer.api.url:http://localhost:8000}")
-    private String apiUrl;
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration classifyTimeout;
+    private final Duration analyzeStackTraceTimeout;
+    private final Duration recommendTimeout;
+    private final Duration analyzeStackTraceBatchTimeout;
+
+    /** Statuses meaning the analyzer does not know the batch endpoint */
+    private static final Set<Integer> BATCH_UNSUPPORTED_STATUSES = Set.of(404, 405, 501);
+    private static final String BATCH_PATH = "/analyze-stack-trace/batch";
+
+    private final int batchMaxSize;
+    private final Duration batchLinger;
+    private final int batchConcurrency;
+    private final int batchQueueCapacity;
+    private final Duration batchResultTimeout;
+    private volatile Sinks.Many<PendingStackTrace> pendingStackTraces;
+    private volatile Disposable batchSubscription;
+    private volatile boolean batchSupported;
+    private volatile boolean shutdown;
 
-    private final RestTemplate restTemplate;
+    /**
+     * A stack trace waiting for its group to be sent
+     */
+    private record PendingStackTrace(String stackTrace, Sinks.One<StackTraceAnalysisResponse> result) {
+    }
 
-    public ExceptionAnalyzerService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public ExceptionAnalyzerService(
+            @Qualifier("analyzerWebClient") WebClient webClient,
+            @Qualifier("analyzerCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("analyzerBulkhead") Bulkhead bulkhead,
+            @Value("${exception.analyzer.timeout.classify-ms:2000}") long classifyTimeoutMs,
+            @Value("${exception.analyzer.timeout.analyze-stack-trace-ms:5000}") long analyzeStackTraceTimeoutMs,
+            @Value("${exception.analyzer.timeout.recommend-ms:10000}") long recommendTimeoutMs,
+            @Value("${exception.analyzer.timeout.analyze-stack-trace-batch-ms:15000}") long analyzeStackTraceBatchTimeoutMs,
+            @Value("${exception.analyzer.batch.enabled:true}") boolean batchEnabled,
+            @Value("${exception.analyzer.batch.max-size:20}") int batchMaxSize,
+            @Value("${exception.analyzer.batch.linger-ms:50}") long batchLingerMs,
+            @Value("${exception.analyzer.batch.concurrency:4}") int batchConcurrency,
+            @Value("${exception.analyzer.batch.queue-capacity:1000}") int batchQueueCapacity,
+            @Value("${exception.analyzer.batch.result-timeout-ms:20000}") long batchResultTimeoutMs) {
+        this.webClient = webClient;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.classifyTimeout = Duration.ofMillis(classifyTimeoutMs);
+        this.analyzeStackTraceTimeout = Duration.ofMillis(analyzeStackTraceTimeoutMs);
+        this.recommendTimeout = Duration.ofMillis(recommendTimeoutMs);
+        this.analyzeStackTraceBatchTimeout = Duration.ofMillis(analyzeStackTraceBatchTimeoutMs);
+        this.batchSupported = batchEnabled;
+        this.batchMaxSize = batchMaxSize;
+        this.batchLinger = Duration.ofMillis(batchLingerMs);
+        this.batchConcurrency = batchConcurrency;
+        this.batchQueueCapacity = batchQueueCapacity;
+        this.batchResultTimeout = Duration.ofMillis(batchResultTimeoutMs);
+        startBatching();
+    }
+
+    /**
+     * Subscribe the batching pipeline to a new queue. The group timer only closes a group
+     * when a send slot is free (fair backpressure), so full groups wait in the queue instead
+     * of overflowing; any other failure starts a new pipeline. Traces queued in a failed
+     * pipeline are lost, their callers time out.
+     */
+    private synchronized void startBatching() {
+        if (shutdown) {
+            return;
+        }
+        Sinks.Many<PendingStackTrace> queue = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<PendingStackTrace>get(batchQueueCapacity).get());
+        pendingStackTraces = queue;
+        batchSubscription = queue.asFlux()
+                .bufferTimeout(batchMaxSize, batchLinger, true)
+                .flatMap(this::analyzeStackTraceGroup, batchConcurrency)
+                .subscribe(null, error -> {
+                    log.error("Stack trace batching failed, restarting it: {}", error.getMessage(), error);
+                    startBatching();
+                });
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        shutdown = true;
+        pendingStackTraces.tryEmitComplete();
+        batchSubscription.dispose();
     }
 
     @Data
@@ -36,6 +143,16 @@ public class ExceptionAnalyzerService {
         private String message;
     }
 
+    @Data
+    private static class StackTraceAnalysisBatchRequest {
+        private List<String> messages;
+    }
+
+    @Data
+    private static class StackTraceAnalysisBatchResponse {
+        private List<StackTraceAnalysisResponse> results;
+    }
+
     @Data
     public static class StackTraceAnalysisResponse {
         @JsonProperty("exception_type")
@@ -151,104 +268,162 @@ public class ExceptionAnalyzerService {
         private QueryAnalysis queryAnalysis;
     }
 
-    public String analyzeException(String logMessage) {
-        try {
-            log.debug("Analyzing exception message: {}", logMessage.substring(0, Math.min(logMessage.length(), 100)));
-
-            String endpoint = apiUrl + "/classify-log";
-
-            ExceptionAnalyzerRequest request = new ExceptionAnalyzerRequest();
-            request.setMessage(logMessage);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<ExceptionAnalyzerRequest> entity = new HttpEntity<>(request, headers);
-
-            ResponseEntity<ExceptionAnalyzerResponse> responseEntity = restTemplate.exchange(
-                    endpoint,
-                    HttpMethod.POST,
-                    entity,
-                    ExceptionAnalyzerResponse.class
-            );
-
-            ExceptionAnalyzerResponse response = responseEntity.getBody();
-
-            if (response != null && response.getExceptionType() != null) {
-                log.info("Exception analyzed: {} (using {})", response.getExceptionType(), response.getModelUsed());
-                return response.getExceptionType();
-            }
+    /**
+     * Whether calls are currently let through to the analyzer
+     * @return false while the circuit breaker is open
+     */
+    public boolean isAvailable() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
 
-            log.warn("Received null response from analyzer API");
-            return "UnknownException";
+    /**
+     * Classify the exception type of a log message
+     * @param logMessage The log message
+     * @return The exception type; errors if the call failed, timed out or was rejected
+     */
+    public Mono<String> analyzeExceptionAsync(String logMessage) {
+        log.debug("Analyzing exception message: {}", logMessage.substring(0, Math.min(logMessage.length(), 100)));
+
+        ExceptionAnalyzerRequest request = new ExceptionAnalyzerRequest();
+        request.setMessage(logMessage);
+
+        return post("/classify-log", request, ExceptionAnalyzerResponse.class, classifyTimeout)
+                .map(response -> {
+                    if (response.getExceptionType() == null) {
+                        log.warn("Received null response from analyzer API");
+                        return "UnknownException";
+                    }
+                    log.info("Exception analyzed: {} (using {})", response.getExceptionType(), response.getModelUsed());
+                    return response.getExceptionType();
+                })
+                .defaultIfEmpty("UnknownException");
+    }
 
+    public String analyzeException(String logMessage) {
+        try {
+            return analyzeExceptionAsync(logMessage).block();
         } catch (Exception e) {
-            log.error("Failed to analyze exception: {}", e.getMessage(), e);
+            log.error("Failed to analyze exception: {}", e.getMessage());
             return "AnalysisFailedException: " + e.getMessage();
         }
     }
 
-    public StackTraceAnalysisResponse analyzeStackTrace(String logMessage) {
-        try {
-            log.debug("Analyzing stack trace for message: {}", logMessage.substring(0, Math.min(logMessage.length(), 100)));
+    /**
+     * Analyze a stack trace, as part of the next multi-item request when batching is enabled
+     * @param logMessage The stack trace
+     * @return The analysis; errors if the call failed, timed out or was rejected
+     */
+    public Mono<StackTraceAnalysisResponse> analyzeStackTraceAsync(String logMessage) {
+        if (!batchSupported) {
+            return analyzeSingleStackTrace(logMessage);
+        }
+        return Mono.defer(() -> {
+            Sinks.One<StackTraceAnalysisResponse> result = Sinks.one();
+            Sinks.Many<PendingStackTrace> queue = pendingStackTraces;
+            Sinks.EmitResult emitted;
+            synchronized (queue) {
+                emitted = queue.tryEmitNext(new PendingStackTrace(logMessage, result));
+            }
+            if (emitted.isFailure()) {
+                // Queue full or batching restarting
+                return analyzeSingleStackTrace(logMessage);
+            }
+            // Errors like a failed call: the caller marks the log for deferred analysis
+            return result.asMono().timeout(batchResultTimeout);
+        });
+    }
 
-            String endpoint = apiUrl + "/analyze-stack-trace";
+    private Mono<StackTraceAnalysisResponse> analyzeSingleStackTrace(String logMessage) {
+        log.debug("Analyzing stack trace for message: {}", logMessage.substring(0, Math.min(logMessage.length(), 100)));
 
-            StackTraceAnalysisRequest request = new StackTraceAnalysisRequest();
-            request.setMessage(logMessage);
+        StackTraceAnalysisRequest request = new StackTraceAnalysisRequest();
+        request.setMessage(logMessage);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<StackTraceAnalysisRequest> entity = new HttpEntity<>(request, headers);
+        return post("/analyze-stack-trace", request, StackTraceAnalysisResponse.class, analyzeStackTraceTimeout)
+                .doOnNext(response -> log.info("Stack trace analyzed successfully. Found exception type: {}",
+                        response.getExceptionType()))
+                .switchIfEmpty(Mono.error(new IllegalStateException("Received null response from API")));
+    }
 
-            ResponseEntity<StackTraceAnalysisResponse> responseEntity = restTemplate.exchange(
-                    endpoint,
-                    HttpMethod.POST,
-                    entity,
-                    StackTraceAnalysisResponse.class
-            );
+    /**
+     * Send a group of queued stack traces and complete each caller with its own result.
+     * Never errors, so the queue keeps being drained after a failed group.
+     */
+    private Mono<Void> analyzeStackTraceGroup(List<PendingStackTrace> group) {
+        if (group.size() == 1 || !batchSupported) {
+            return analyzeOneByOne(group);
+        }
 
-            StackTraceAnalysisResponse response = responseEntity.getBody();
+        StackTraceAnalysisBatchRequest request = new StackTraceAnalysisBatchRequest();
+        request.setMessages(group.stream().map(PendingStackTrace::stackTrace).toList());
+
+        return post(BATCH_PATH, request, StackTraceAnalysisBatchResponse.class, analyzeStackTraceBatchTimeout)
+                .flatMap(response -> {
+                    List<StackTraceAnalysisResponse> results = response.getResults();
+                    if (results == null || results.size() != group.size()) {
+                        return Mono.error(new IllegalStateException("Batch analysis returned "
+                                + (results == null ? 0 : results.size()) + " results for " + group.size() + " stack traces"));
+                    }
+                    log.info("Analyzed batch of {} stack traces", group.size());
+                    for (int i = 0; i < group.size(); i++) {
+                        group.get(i).result().tryEmitValue(results.get(i));
+                    }
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(AnalyzerBatchUnsupportedException.class,
+                        e -> {
+                            log.warn("Analyzer does not support batch analysis ({}), falling back to single calls",
+                                    e.getMessage());
+                            batchSupported = false;
+                            return analyzeOneByOne(group);
+                        })
+                .onErrorResume(e -> {
+                    log.error("Failed to analyze batch of {} stack traces: {}", group.size(), e.getMessage());
+                    group.forEach(pending -> pending.result().tryEmitError(e));
+                    return Mono.empty();
+                });
+    }
 
-            if (response != null) {
-                log.info("Stack trace analyzed successfully. Found exception type: {}", response.getExceptionType());
-                return response;
-            }
+    private static boolean isBatchUnsupported(Throwable error) {
+        return error instanceof WebClientResponseException responseException
+                && BATCH_UNSUPPORTED_STATUSES.contains(responseException.getStatusCode().value());
+    }
 
-            log.warn("Received null response from stack trace analyzer API");
-            StackTraceAnalysisResponse errorResponse = new StackTraceAnalysisResponse();
-            errorResponse.setError("Received null response from API");
-            return errorResponse;
+    /**
+     * One call per trace, never more in flight than the bulkhead admits
+     */
+    private Mono<Void> analyzeOneByOne(List<PendingStackTrace> group) {
+        return Flux.fromIterable(group)
+                .flatMap(pending -> analyzeSingleStackTrace(pending.stackTrace())
+                        .doOnNext(response -> pending.result().tryEmitValue(response))
+                        .doOnError(e -> pending.result().tryEmitError(e))
+                        .onErrorResume(e -> Mono.empty()),
+                        bulkhead.getBulkheadConfig().getMaxConcurrentCalls())
+                .then();
+    }
 
+    public StackTraceAnalysisResponse analyzeStackTrace(String logMessage) {
+        try {
+            return analyzeStackTraceAsync(logMessage).block();
         } catch (Exception e) {
-            log.error("Failed to analyze stack trace", e);
+            log.error("Failed to analyze stack trace: {}", e.getMessage());
             StackTraceAnalysisResponse errorResponse = new StackTraceAnalysisResponse();
             errorResponse.setError("Analysis failed: " + e.getMessage());
             return errorResponse;
         }
     }
-    
+
     public LogRecommendationResponse recommendSolutions(String logMessage, Integer k) {
         try {
             log.debug("Recommending solutions for log message: {}", logMessage.substring(0, Math.min(logMessage.length(), 100)));
 
-            String endpoint = apiUrl + "/recommend-solutions";
-
             LogRecommendationRequest request = new LogRecommendationRequest();
             request.setLogMessage(logMessage);
             request.setK(k);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<LogRecommendationRequest> entity = new HttpEntity<>(request, headers);
-
-            ResponseEntity<LogRecommendationResponse> responseEntity = restTemplate.exchange(
-                    endpoint,
-                    HttpMethod.POST,
-                    entity,
-                    LogRecommendationResponse.class
-            );
-
-            LogRecommendationResponse response = responseEntity.getBody();
+            LogRecommendationResponse response =
+                    post("/recommend-solutions", request, LogRecommendationResponse.class, recommendTimeout).block();
 
             if (response != null) {
                 log.info("Log recommendations retrieved successfully. Found {} similar logs", 
@@ -262,10 +437,29 @@ public class ExceptionAnalyzerService {
             return errorResponse;
 
         } catch (Exception e) {
-            log.error("Failed to recommend solutions for log message", e);
+            log.error("Failed to recommend solutions for log message: {}", e.getMessage());
             LogRecommendationResponse errorResponse = new LogRecommendationResponse();
             errorResponse.setMessage("Recommendation failed: " + e.getMessage());
             return errorResponse;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * POST a JSON request to the analyzer, guarded by the timeout, bulkhead and circuit breaker.
+     * The circuit breaker is outermost so timed out calls count as failures; bulkhead rejections
+     * and a missing batch endpoint are ignored by it (see {@link com.windlogs.tickets.config.AnalyzerClientConfig}).
+     */
+    private <T> Mono<T> post(String path, Object request, Class<T> responseType, Duration timeout) {
+        return webClient.post()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(responseType)
+                .timeout(timeout)
+                .onErrorMap(e -> BATCH_PATH.equals(path) && isBatchUnsupported(e),
+                        e -> new AnalyzerBatchUnsupportedException(e.getMessage(), e))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+}
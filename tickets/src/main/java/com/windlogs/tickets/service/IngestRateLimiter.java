@@ -0,0 +1,176 @@
+package com.windlogs.tickets.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control of Fluentd records, so one noisy tenant (a crash-looping container)
+ * cannot take the ingest pipeline from everyone else.
+ * Each tenant (from the container name) and each project tag has a token bucket.
+ * A record over either limit is still persisted, but in degraded mode: no analyzer call
+ * and no ticket. A sampled fraction of the over-limit records is still fully processed,
+ * so a burst of a new error still gets a ticket.
+ * Over-limit counts are tagged by limit and outcome only: tenants come from arbitrary container
+ * names, so a tenant tag would add meters without bound.
+ */
+@Service
+public class IngestRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(IngestRateLimiter.class);
+
+    public enum Admission {
+        /** Analyzed, ticketed and notified */
+        FULL,
+        /** Only persisted and shown in the live tail */
+        DEGRADED
+    }
+
+    private final boolean enabled;
+    private final double tenantRate;
+    private final long tenantBurst;
+    private final double tagRate;
+    private final long tagBurst;
+    private final double sampleRate;
+    private final LongSupplier nanoClock;
+    private final DoubleSupplier random;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Buckets of recently seen tenants ("tenant:" prefix) and tags ("tag:" prefix);
+     * an idle bucket is full anyway, so evicting it loses nothing
+     */
+    private final Cache<String, TokenBucket> buckets;
+
+    @Autowired
+    public IngestRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${ingest.rate-limit.enabled:true}") boolean enabled,
+            @Value("${ingest.rate-limit.tenant.permits-per-second:200}") double tenantRate,
+            @Value("${ingest.rate-limit.tenant.burst:1000}") long tenantBurst,
+            @Value("${ingest.rate-limit.tag.permits-per-second:100}") double tagRate,
+            @Value("${ingest.rate-limit.tag.burst:500}") long tagBurst,
+            @Value("${ingest.rate-limit.degraded-sample-rate:0.01}") double sampleRate,
+            @Value("${ingest.rate-limit.max-buckets:10000}") long maxBuckets) {
+        this(meterRegistry, enabled, tenantRate, tenantBurst, tagRate, tagBurst, sampleRate, maxBuckets,
+                System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    IngestRateLimiter(MeterRegistry meterRegistry, boolean enabled, double tenantRate, long tenantBurst,
+                      double tagRate, long tagBurst, double sampleRate, long maxBuckets,
+                      LongSupplier nanoClock, DoubleSupplier random) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.tenantRate = tenantRate;
+        this.tenantBurst = tenantBurst;
+        this.tagRate = tagRate;
+        this.tagBurst = tagBurst;
+        this.sampleRate = sampleRate;
+        this.nanoClock = nanoClock;
+        this.random = random;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        Gauge.builder("ingest.rate-limit.permits-per-second", () -> tenantRate)
+                .description("Sustained ingest rate allowed per key")
+                .tag("scope", "tenant")
+                .register(meterRegistry);
+        Gauge.builder("ingest.rate-limit.permits-per-second", () -> tagRate)
+                .description("Sustained ingest rate allowed per key")
+                .tag("scope", "tag")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take one permit from the buckets of the record's tenant and tag
+     * @param tenant The tenant from the container name
+     * @param tag The Fluentd tag, or empty
+     * @return How far the record should be processed
+     */
+    public Admission admit(String tenant, String tag) {
+        if (!enabled) {
+            return Admission.FULL;
+        }
+        String limitedBy = null;
+        TokenBucket tenantBucket = bucket("tenant:" + tenant, tenantRate, tenantBurst);
+        if (!tenantBucket.tryAcquire()) {
+            limitedBy = "tenant";
+        } else if (tag != null && !tag.isEmpty() && !bucket("tag:" + tag, tagRate, tagBurst).tryAcquire()) {
+            // A record degraded by its tag does not use up its tenant's budget
+            tenantBucket.refund();
+            limitedBy = "tag";
+        }
+        if (limitedBy == null) {
+            return Admission.FULL;
+        }
+
+        if (random.getAsDouble() < sampleRate) {
+            shedCounter(limitedBy, "sampled").increment();
+            return Admission.FULL;
+        }
+        shedCounter(limitedBy, "degraded").increment();
+        logger.debug("Over the {} rate limit, degrading log of tenant {} (tag {})", limitedBy, tenant, tag);
+        return Admission.DEGRADED;
+    }
+
+    private TokenBucket bucket(String key, double rate, long burst) {
+        return buckets.get(key, ignored -> new TokenBucket(rate, burst, nanoClock));
+    }
+
+    private Counter shedCounter(String limitedBy, String outcome) {
+        return Counter.builder("ingest.rate-limit.over-limit")
+                .description("Records over an ingest rate limit, fully processed (sampled) or only persisted (degraded)")
+                .tag("limit", limitedBy)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Refilled lazily from the elapsed time on each acquire, so idle keys cost nothing
+     */
+    static final class TokenBucket {
+        private final double ratePerNano;
+        private final double capacity;
+        private final LongSupplier nanoClock;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double ratePerSecond, long capacity, LongSupplier nanoClock) {
+            this.ratePerNano = ratePerSecond / 1_000_000_000d;
+            this.capacity = capacity;
+            this.nanoClock = nanoClock;
+            this.tokens = capacity;
+            this.refilledAt = nanoClock.getAsLong();
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * ratePerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        /**
+         * Give back a permit taken by {@link #tryAcquire()} for a record that was not admitted
+         */
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+}
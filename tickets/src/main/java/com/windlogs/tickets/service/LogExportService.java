@@ -0,0 +1,203 @@
+package com.windlogs.tickets.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogExportFormat;
+import com.windlogs.tickets.repository.LogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes logs straight from a database cursor to an output stream, one row at a time,
+ * so exports of any size run in constant memory. Stack traces and analyses are loaded
+ * a fetch-size chunk of logs at a time.
+ */
+@Service
+public class LogExportService {
+    private static final Logger logger = LoggerFactory.getLogger(LogExportService.class);
+
+    /** Columns of an export, in output order; the same for NDJSON and CSV */
+    private static final List<ExportColumn> COLUMNS = List.of(
+            new ExportColumn("id", Log::getId),
+            new ExportColumn("timestamp", Log::getTimestamp),
+            new ExportColumn("type", Log::getType),
+            new ExportColumn("severity", Log::getSeverity),
+            new ExportColumn("tenant", Log::getTenant),
+            new ExportColumn("projectId", Log::getProjectId),
+            new ExportColumn("source", Log::getSource),
+            new ExportColumn("errorCode", Log::getErrorCode),
+            new ExportColumn("tag", Log::getTag),
+            new ExportColumn("pid", Log::getPid),
+            new ExportColumn("thread", Log::getThread),
+            new ExportColumn("className", Log::getClassName),
+            new ExportColumn("containerId", Log::getContainerId),
+            new ExportColumn("containerName", Log::getContainerName),
+            new ExportColumn("exceptionType", Log::getExceptionType),
+            new ExportColumn("fingerprint", Log::getFingerprint),
+            new ExportColumn("attachedTicketId", Log::getAttachedTicketId),
+            new ExportColumn("customMessage", Log::getCustomMessage),
+            new ExportColumn("description", Log::getDescription),
+            new ExportColumn("stackTrace", Log::getStackTrace),
+            new ExportColumn("analysis", Log::getAnalysis));
+
+    private record ExportColumn(String name, Function<Log, Object> value) {
+    }
+
+    private final LogRepository logRepository;
+    private final LogPayloadStore logPayloadStore;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    public LogExportService(
+            LogRepository logRepository,
+            LogPayloadStore logPayloadStore,
+            ObjectMapper objectMapper,
+            @Value("${export.logs.fetch-size:1000}") int fetchSize,
+            @Value("${export.logs.flush-every:500}") int flushEvery) {
+        this.logRepository = logRepository;
+        this.logPayloadStore = logPayloadStore;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Export every log matching a filter, oldest first
+     * @param filter The filters to apply
+     * @param format The output format
+     * @param out Where to write; flushed regularly, not closed
+     * @return The number of logs written
+     */
+    @Transactional(readOnly = true)
+    public long export(LogFilterDTO filter, LogExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting logs as {} for filter: {}", format, filter);
+        long count;
+        try (Stream<Log> logs = logRepository.streamLogs(filter, fetchSize)) {
+            Iterator<Log> hydrated = hydrateInChunks(logs.iterator());
+            count = format == LogExportFormat.CSV
+                    ? writeCsv(hydrated, out)
+                    : writeNdjson(hydrated, out);
+        }
+        logger.info("Exported {} logs", count);
+        return count;
+    }
+
+    /**
+     * Read ahead up to fetch-size logs and load their payloads with one query per chunk
+     */
+    private Iterator<Log> hydrateInChunks(Iterator<Log> logs) {
+        return new Iterator<>() {
+            private final List<Log> chunk = new ArrayList<>(fetchSize);
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                if (next < chunk.size()) {
+                    return true;
+                }
+                chunk.clear();
+                next = 0;
+                while (chunk.size() < fetchSize && logs.hasNext()) {
+                    chunk.add(logs.next());
+                }
+                logPayloadStore.hydrate(chunk);
+                return !chunk.isEmpty();
+            }
+
+            @Override
+            public Log next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.get(next++);
+            }
+        };
+    }
+
+    private long writeNdjson(Iterator<Log> logs, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // Keep the response open: the servlet container owns it
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (logs.hasNext()) {
+                Log log = logs.next();
+                generator.writeStartObject();
+                for (ExportColumn column : COLUMNS) {
+                    Object value = column.value().apply(log);
+                    if (value == null) {
+                        generator.writeNullField(column.name());
+                    } else if (value instanceof Number number) {
+                        generator.writeFieldName(column.name());
+                        generator.writeNumber(number.longValue());
+                    } else {
+                        generator.writeStringField(column.name(), value.toString());
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                if (++count % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Log> logs, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRow(writer, COLUMNS.stream().map(ExportColumn::name).toList());
+        while (logs.hasNext()) {
+            Log log = logs.next();
+            writeCsvRow(writer, COLUMNS.stream()
+                    .map(column -> column.value().apply(log))
+                    .map(value -> value != null ? value.toString() : "")
+                    .toList());
+            if (++count % flushEvery == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvEscape(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quote a CSV field if needed (RFC 4180)
+     */
+    static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
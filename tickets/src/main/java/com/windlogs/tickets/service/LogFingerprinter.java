@@ -0,0 +1,117 @@
+package com.windlogs.tickets.service;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Computes a stable fingerprint for an error so recurrences of the same problem
+ * can be grouped under one ticket.
+ * The fingerprint is a SHA-256 over the exception type, the class name, the message
+ * with its variable parts (numbers, IDs, quoted values) masked, and the top stack frames
+ * without line numbers or jar details.
+ */
+@Component
+public class LogFingerprinter {
+    static final int TOP_FRAMES = 5;
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern HEX = Pattern.compile("\\b0x[0-9a-fA-F]+\\b|\\b[0-9a-fA-F]{16,}\\b");
+    private static final Pattern QUOTED = Pattern.compile("'[^']*'|\"[^\"]*\"");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern FRAME_LOCATION = Pattern.compile("\\(([^:()]+)(:\\d+)?\\)");
+    private static final Pattern FRAME_JAR_INFO = Pattern.compile("\\s*~?\\[[^\\]]*\\]\\s*$");
+    private static final Pattern GENERATED_SUFFIX = Pattern.compile("\\$\\$(Lambda|EnhancerBySpringCGLIB|SpringCGLIB)[^.(]*");
+
+    /**
+     * Fingerprint an error
+     * @param message The log message
+     * @param exceptionType The exception class name, if known
+     * @param className The logging class, if known
+     * @param stackTrace The raw stack trace, if any
+     * @return A 64 character hex digest
+     */
+    public String fingerprint(String message, String exceptionType, String className, String stackTrace) {
+        StringBuilder key = new StringBuilder(256)
+                .append(nullToEmpty(exceptionType)).append('|')
+                .append(nullToEmpty(className)).append('|')
+                .append(normalizeMessage(message));
+        if (stackTrace != null) {
+            int frames = 0;
+            for (String line : stackTrace.split("\\R")) {
+                String frame = normalizeFrame(line);
+                if (frame != null) {
+                    key.append('|').append(frame);
+                    if (++frames == TOP_FRAMES) {
+                        break;
+                    }
+                }
+            }
+        }
+        return sha256(key.toString());
+    }
+
+    /**
+     * Hash a stack trace as sent by the log appender, ignoring indentation, blank lines
+     * and the jar/version details that differ between deployments of the same code
+     * @param stackTrace The raw stack trace
+     * @return A 64 character hex digest
+     */
+    public String stackTraceHash(String stackTrace) {
+        StringBuilder key = new StringBuilder(stackTrace.length());
+        for (String line : stackTrace.split("\\R")) {
+            String normalized = FRAME_JAR_INFO.matcher(line.strip()).replaceAll("");
+            if (!normalized.isEmpty()) {
+                key.append(normalized).append('\n');
+            }
+        }
+        return sha256(key.toString());
+    }
+
+    String normalizeMessage(String message) {
+        if (message == null) {
+            return "";
+        }
+        String normalized = message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+        normalized = UUID.matcher(normalized).replaceAll("<uuid>");
+        normalized = HEX.matcher(normalized).replaceAll("<hex>");
+        normalized = QUOTED.matcher(normalized).replaceAll("<str>");
+        normalized = NUMBER.matcher(normalized).replaceAll("<n>");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * @return The frame without line number, jar details or generated class suffixes; null if the line is not a frame
+     */
+    String normalizeFrame(String line) {
+        String frame = line.strip();
+        if (!frame.startsWith("at ")) {
+            return null;
+        }
+        frame = frame.substring(3);
+        frame = FRAME_JAR_INFO.matcher(frame).replaceAll("");
+        frame = FRAME_LOCATION.matcher(frame).replaceAll("($1)");
+        return GENERATED_SUFFIX.matcher(frame).replaceAll("\\$\\$$1");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
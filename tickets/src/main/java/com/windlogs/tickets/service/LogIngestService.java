@@ -0,0 +1,535 @@
+package com.windlogs.tickets.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.windlogs.tickets.dto.FluentdLogRequest;
+import com.windlogs.tickets.dto.IngestResultDTO;
+import com.windlogs.tickets.dto.ThrownInfo;
+import com.windlogs.tickets.dto.TicketDTO;
+import com.windlogs.tickets.dto.UserResponseDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.mapper.FluentdLogMapper;
+import com.windlogs.tickets.mapper.FluentdRecordDecoder;
+import com.windlogs.tickets.repository.LogRepository;
+import com.windlogs.tickets.service.IngestRateLimiter.Admission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ingest path for Fluentd records, run as a staged pipeline:
+ * <ol>
+ *     <li>accept: map and persist the raw log on the request thread</li>
+ *     <li>enrich: project lookup by tag and analyzer call, then update the log and push it
+ *     to live tail subscribers (see {@link LogTailService})</li>
+ *     <li>ticket: resolve the assignee and create the automatic ticket</li>
+ *     <li>notify: publish the log event to Kafka</li>
+ * </ol>
+ * Callers get an answer as soon as the first stage commits; the later stages run on
+ * their own bounded pools (see {@link com.windlogs.tickets.config.IngestPipelineConfig}).
+ * A log whose fingerprint matches an open ticket of its tenant is attached to that ticket
+ * as soon as its project is known, and skips the analyzer, ticket and notify stages.
+ * Records over their tenant or tag rate limit (see {@link IngestRateLimiter}) are persisted
+ * and get their project, but skip the analyzer, ticket and notify stages too.
+ * Records of sampled-out levels (see {@link LogSampler}) are only counted, and only logs of
+ * at least {@code ingest.ticket.min-severity} get a ticket.
+ */
+@Service
+public class LogIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(LogIngestService.class);
+    private final LogRepository logRepository;
+    private final LogPayloadStore logPayloadStore;
+    private final LogService logService;
+    private final LogTailService logTailService;
+    private final IngestRateLimiter ingestRateLimiter;
+    private final LogSampler logSampler;
+    private final TicketService ticketService;
+    private final ProjectService projectService;
+    private final StackTraceAnalysisCache stackTraceAnalysisCache;
+    private final FluentdLogMapper fluentdLogMapper;
+    private final LogFingerprinter logFingerprinter;
+    private final FluentdRecordDecoder fluentdRecordDecoder;
+    private final TaskExecutor enrichExecutor;
+    private final TaskExecutor ticketExecutor;
+    private final TaskExecutor notifyExecutor;
+
+    /**
+     * Serializes the "find open ticket or create one" step per fingerprint within this
+     * instance, so a burst of the same error waits here rather than holding connections
+     * blocked on the database fingerprint lock (see {@link TicketService#withFingerprintLock})
+     */
+    private final Object[] fingerprintLocks = new Object[64];
+
+    @Value("${ingest.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${ingest.ticket.min-severity:LOW}")
+    private LogSeverity ticketMinSeverity;
+
+    public LogIngestService(
+            LogRepository logRepository,
+            LogPayloadStore logPayloadStore,
+            LogService logService,
+            LogTailService logTailService,
+            IngestRateLimiter ingestRateLimiter,
+            LogSampler logSampler,
+            TicketService ticketService,
+            ProjectService projectService,
+            StackTraceAnalysisCache stackTraceAnalysisCache,
+            FluentdLogMapper fluentdLogMapper,
+            LogFingerprinter logFingerprinter,
+            FluentdRecordDecoder fluentdRecordDecoder,
+            @Qualifier("ingestEnrichExecutor") TaskExecutor enrichExecutor,
+            @Qualifier("ingestTicketExecutor") TaskExecutor ticketExecutor,
+            @Qualifier("ingestNotifyExecutor") TaskExecutor notifyExecutor) {
+        this.logRepository = logRepository;
+        this.logPayloadStore = logPayloadStore;
+        this.logService = logService;
+        this.logTailService = logTailService;
+        this.ingestRateLimiter = ingestRateLimiter;
+        this.logSampler = logSampler;
+        this.ticketService = ticketService;
+        this.projectService = projectService;
+        this.stackTraceAnalysisCache = stackTraceAnalysisCache;
+        this.fluentdLogMapper = fluentdLogMapper;
+        this.logFingerprinter = logFingerprinter;
+        this.fluentdRecordDecoder = fluentdRecordDecoder;
+        this.enrichExecutor = enrichExecutor;
+        this.ticketExecutor = ticketExecutor;
+        this.notifyExecutor = notifyExecutor;
+        for (int i = 0; i < fingerprintLocks.length; i++) {
+            fingerprintLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Ingest a single Fluentd record. Returns once the log is persisted;
+     * enrichment, ticket creation and notification continue asynchronously.
+     * @param fluentdLog The Fluentd record
+     * @return The ingest result with the log ID
+     */
+    public IngestResultDTO ingest(FluentdLogRequest fluentdLog) {
+        Log log = accept(fluentdLog);
+        if (!logSampler.sample(log, fluentdLog.getLevel())) {
+            return IngestResultDTO.sampled(null);
+        }
+        Admission admission = ingestRateLimiter.admit(log.getTenant(), log.getTag());
+        Log savedLog = logRepository.save(log);
+        logger.info("Successfully saved log with ID: {}", savedLog.getId());
+
+        return submit(null, savedLog, fluentdLog, admission);
+    }
+
+    /**
+     * Ingest an NDJSON stream of Fluentd records.
+     * Lines are parsed as they are read and persisted in chunks of {@code ingest.batch.chunk-size}
+     * so that a large flush never has to be held in memory at once.
+     * @param body The request body, one JSON record per line
+     * @return One result per non-blank line, in input order
+     * @throws IOException If the body cannot be read
+     */
+    public List<IngestResultDTO> ingestNdjson(InputStream body) throws IOException {
+        List<IngestResultDTO> results = new ArrayList<>();
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        List<FluentdLogRequest> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            int index = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(fluentdRecordDecoder.decode(line));
+                    chunkIndexes.add(index);
+                } catch (JsonProcessingException e) {
+                    logger.warn("Skipping malformed NDJSON record at index {}: {}", index, e.getMessage());
+                    results.add(IngestResultDTO.error(index, "Malformed record: " + e.getOriginalMessage()));
+                }
+                index++;
+
+                if (chunk.size() >= chunkSize) {
+                    results.addAll(ingestBatch(chunk, chunkIndexes));
+                    chunk.clear();
+                    chunkIndexes.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(ingestBatch(chunk, chunkIndexes));
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        logger.info("Processed NDJSON batch of {} records", results.size());
+        return results;
+    }
+
+    /**
+     * Ingest one chunk of records: the logs are inserted together in a single
+     * batched statement, then each saved log is handed to the enrich stage.
+     * @param records The parsed records
+     * @param indexes The position of each record in the original stream
+     * @return One result per record
+     */
+    private List<IngestResultDTO> ingestBatch(List<FluentdLogRequest> records, List<Integer> indexes) {
+        List<IngestResultDTO> results = new ArrayList<>(records.size());
+        List<Log> logs = new ArrayList<>(records.size());
+        List<FluentdLogRequest> mappedRecords = new ArrayList<>(records.size());
+        List<Admission> admissions = new ArrayList<>(records.size());
+        List<Integer> logIndexes = new ArrayList<>(records.size());
+
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                Log log = accept(records.get(i));
+                if (!logSampler.sample(log, records.get(i).getLevel())) {
+                    results.add(IngestResultDTO.sampled(indexes.get(i)));
+                    continue;
+                }
+                admissions.add(ingestRateLimiter.admit(log.getTenant(), log.getTag()));
+                logs.add(log);
+                mappedRecords.add(records.get(i));
+                logIndexes.add(indexes.get(i));
+            } catch (Exception e) {
+                logger.error("Error mapping record at index {}: {}", indexes.get(i), e.getMessage());
+                results.add(IngestResultDTO.error(indexes.get(i), "Error processing log: " + e.getMessage()));
+            }
+        }
+
+        List<Log> savedLogs = saveChunk(logs);
+        for (int i = 0; i < savedLogs.size(); i++) {
+            Log savedLog = savedLogs.get(i);
+            Integer index = logIndexes.get(i);
+            if (savedLog == null) {
+                results.add(IngestResultDTO.error(index, "Failed to save log"));
+                continue;
+            }
+            results.add(submit(index, savedLog, mappedRecords.get(i), admissions.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Hand a persisted log to the enrich stage, or only resolve its project when degraded
+     */
+    private IngestResultDTO submit(Integer index, Log savedLog, FluentdLogRequest fluentdLog, Admission admission) {
+        if (admission == Admission.DEGRADED) {
+            submitDegradedEnrich(savedLog, fluentdLog);
+            return IngestResultDTO.degraded(index, savedLog.getId());
+        }
+        submitEnrich(savedLog, fluentdLog);
+        return IngestResultDTO.accepted(index, savedLog.getId());
+    }
+
+    /**
+     * Persist a chunk in one transaction. If the batch fails, fall back to
+     * row-by-row inserts so a single bad record does not reject the whole chunk.
+     * @return The saved logs, position-aligned with the input; null where a row could not be saved
+     */
+    private List<Log> saveChunk(List<Log> logs) {
+        if (logs.isEmpty()) {
+            return logs;
+        }
+        try {
+            List<Log> saved = logRepository.saveAll(logs);
+            logger.info("Saved chunk of {} logs", saved.size());
+            return saved;
+        } catch (Exception e) {
+            logger.warn("Batch insert of {} logs failed, retrying row by row: {}", logs.size(), e.getMessage());
+            List<Log> saved = new ArrayList<>(logs.size());
+            for (Log log : logs) {
+                try {
+                    log.setId(null);
+                    saved.add(logRepository.save(log));
+                } catch (Exception rowError) {
+                    logger.error("Failed to save log: {}", rowError.getMessage());
+                    saved.add(null);
+                }
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * Accept stage: map the record and fingerprint it, ready to be persisted
+     */
+    private Log accept(FluentdLogRequest fluentdLog) {
+        Log log = fluentdLogMapper.toLog(fluentdLog);
+        ThrownInfo thrown = fluentdLog.getThrown();
+        log.setFingerprint(logFingerprinter.fingerprint(
+                fluentdLog.getMessage(),
+                thrown != null ? thrown.getName() : null,
+                log.getClassName(),
+                thrown != null ? thrown.getExtendedStackTrace() : null));
+        return log;
+    }
+
+    /**
+     * Enrich stage: resolve the project, attach recurrences to their open ticket,
+     * otherwise fill in the analyzer output, update the row and hand the log over
+     * to the ticket stage.
+     */
+    private void submitEnrich(Log savedLog, FluentdLogRequest fluentdLog) {
+        enrichExecutor.execute(() -> {
+            try {
+                resolveProject(savedLog);
+                applyThrown(savedLog, fluentdLog);
+                if (attachToOpenTicket(savedLog)) {
+                    logTailService.publish(savedLog);
+                    return;
+                }
+                // The analyzer answers asynchronously; the rest of the stage resumes on this pool
+                analyze(savedLog, fluentdLog).whenCompleteAsync((ignored, error) -> {
+                    if (error != null) {
+                        logger.error("Error analyzing log {}: {}", savedLog.getId(), error.getMessage(), error);
+                    }
+                    completeEnrich(savedLog);
+                }, enrichExecutor);
+            } catch (Exception e) {
+                logger.error("Error enriching log {}: {}", savedLog.getId(), e.getMessage(), e);
+                logTailService.publish(savedLog);
+                submitTicket(savedLog);
+            }
+        });
+    }
+
+    /**
+     * Enrich stage of a log over its rate limit: the project lookup (cached per tag) and
+     * the record's own exception and stack trace, so the log is listed complete;
+     * no analyzer call, no ticket and no notification
+     */
+    private void submitDegradedEnrich(Log savedLog, FluentdLogRequest fluentdLog) {
+        enrichExecutor.execute(() -> {
+            try {
+                resolveProject(savedLog);
+                applyThrown(savedLog, fluentdLog);
+                logPayloadStore.externalize(savedLog);
+                logRepository.updateEnrichment(savedLog);
+            } catch (Exception e) {
+                logger.error("Error enriching degraded log {}: {}", savedLog.getId(), e.getMessage(), e);
+            }
+            logTailService.publish(savedLog);
+        });
+    }
+
+    private void completeEnrich(Log enrichedLog) {
+        try {
+            logPayloadStore.externalize(enrichedLog);
+            logRepository.updateEnrichment(enrichedLog);
+        } catch (Exception e) {
+            logger.error("Error updating log {}: {}", enrichedLog.getId(), e.getMessage(), e);
+        }
+        logTailService.publish(enrichedLog);
+        submitTicket(enrichedLog);
+    }
+
+    /**
+     * Ticket stage: create the automatic ticket unless an open one appeared for the
+     * same fingerprint in the meantime, then hand over to the notify stage.
+     * Logs under the ticket severity threshold stop here.
+     */
+    private void submitTicket(Log savedLog) {
+        LogSeverity severity = savedLog.getSeverity() != null ? savedLog.getSeverity() : LogSeverity.LOW;
+        if (severity.compareTo(ticketMinSeverity) < 0) {
+            logger.debug("No ticket for log {} of severity {}", savedLog.getId(), severity);
+            return;
+        }
+        ticketExecutor.execute(() -> {
+            try {
+                TicketDTO createdTicket;
+                if (savedLog.getFingerprint() == null) {
+                    // Nothing to group recurrences by: the log always gets a ticket of its own
+                    createdTicket = createTicket(savedLog);
+                } else {
+                    synchronized (fingerprintLock(savedLog.getFingerprint())) {
+                        createdTicket = ticketService.withFingerprintLock(savedLog,
+                                () -> attachToOpenTicket(savedLog) ? null : createTicket(savedLog));
+                    }
+                }
+                if (createdTicket != null) {
+                    submitNotify(savedLog, createdTicket);
+                }
+            } catch (Exception e) {
+                logger.error("Error creating ticket for log {}: {}", savedLog.getId(), e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Record the log as a new occurrence of the open ticket with the same fingerprint
+     * @return true if the log was attached to an existing ticket
+     */
+    private boolean attachToOpenTicket(Log log) {
+        Optional<Long> ticketId = ticketService.recordOccurrence(log);
+        if (ticketId.isEmpty()) {
+            return false;
+        }
+        log.setAttachedTicketId(ticketId.get());
+        // A recurrence attached at enrich time never reaches completeEnrich
+        logPayloadStore.externalize(log);
+        logRepository.updateEnrichment(log);
+        return true;
+    }
+
+    private Object fingerprintLock(String fingerprint) {
+        return fingerprintLocks[Math.floorMod(fingerprint.hashCode(), fingerprintLocks.length)];
+    }
+
+    /**
+     * Notify stage: send the log notification with the ticket's tenant and recipient.
+     */
+    private void submitNotify(Log savedLog, TicketDTO createdTicket) {
+        notifyExecutor.execute(() -> {
+            logService.sendLogNotification(savedLog, createdTicket.getTenant(), createdTicket.getUserEmail());
+            logger.info("Notification sent for log ID: {}, tenant: {}, userEmail: {}",
+                    savedLog.getId(), createdTicket.getTenant(), createdTicket.getUserEmail());
+        });
+    }
+
+    /**
+     * Copy what the record itself says about its exception: type, raw stack trace and its hash.
+     * Done for every log, also those that never reach the analyzer (attached recurrences, degraded logs).
+     */
+    private void applyThrown(Log log, FluentdLogRequest fluentdLog) {
+        ThrownInfo thrown = fluentdLog.getThrown();
+        if (thrown == null) {
+            return;
+        }
+        if (thrown.getName() != null && !thrown.getName().isEmpty()) {
+            log.setExceptionType(thrown.getName());
+        }
+        String extendedStackTrace = thrown.getExtendedStackTrace();
+        if (extendedStackTrace != null) {
+            log.setStackTrace(extendedStackTrace);
+            log.setStackTraceHash(stackTraceAnalysisCache.hash(extendedStackTrace));
+        }
+    }
+
+    /**
+     * Enrich a log with the analyzer output.
+     * When the analyzer is down or fails, the raw stack trace is kept and the log is
+     * flagged for deferred re-analysis instead of waiting.
+     * @param log The log to enrich
+     * @param fluentdLog The original Fluentd record
+     * @return Completes once every analyzer answer has been applied to the log
+     */
+    private CompletableFuture<Void> analyze(Log log, FluentdLogRequest fluentdLog) {
+        ThrownInfo thrown = fluentdLog.getThrown();
+        if (fluentdLog.getMessage() == null || thrown == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> stackTraceAnalysis = CompletableFuture.completedFuture(null);
+        String extendedStackTrace = thrown.getExtendedStackTrace();
+        if (extendedStackTrace != null) {
+            stackTraceAnalysis = stackTraceAnalysisCache.analyzeStackTrace(log.getStackTraceHash(), extendedStackTrace)
+                    .thenAccept(analysis -> {
+                        if (analysis == null) {
+                            log.setStackTrace(extendedStackTrace);
+                            log.setAnalysisPending(true);
+                            return;
+                        }
+                        if (analysis.stackTrace() != null) {
+                            log.setStackTrace(analysis.stackTrace());
+                        }
+                        log.setAnalysis(analysis.analysis());
+                    });
+        }
+
+        // Already set from the thrown object by applyThrown
+        String exceptionType = thrown.getName();
+        if (exceptionType != null && !exceptionType.isEmpty()) {
+            return stackTraceAnalysis;
+        }
+        CompletableFuture<Void> classification = stackTraceAnalysisCache.classifyException(fluentdLog.getMessage())
+                .thenAccept(classified -> {
+                    if (classified == null) {
+                        log.setAnalysisPending(true);
+                        return;
+                    }
+                    log.setExceptionType(classified);
+                    logger.info("Analyzed exception type: {}", classified);
+                });
+        return CompletableFuture.allOf(stackTraceAnalysis, classification);
+    }
+
+    /**
+     * Set the project owning the log's tag, and the project's tenant
+     * @param log The log to enrich
+     */
+    private void resolveProject(Log log) {
+        String logTag = log.getTag();
+        String containerTenant = log.getTenant();
+        if (logTag != null && !logTag.isEmpty()) {
+            try {
+                logService.findProjectByTagPublic(logTag)
+                        .ifPresentOrElse(
+                                project -> {
+                                    log.setProjectId(project.getId());
+                                    if (project.getTenant() != null && !project.getTenant().isEmpty()) {
+                                        log.setTenant(project.getTenant());
+                                        logger.info("Using project tenant: {} for log", project.getTenant());
+                                    }
+                                    logger.info("Matched log with tag {} to project {} (tenant: {})",
+                                            logTag, project.getId(), project.getTenant());
+                                },
+                                () -> {
+                                    log.setProjectId(1L);
+                                    logger.info("No project found with tag {}, using default project ID and container tenant: {}",
+                                            logTag, containerTenant);
+                                }
+                        );
+            } catch (Exception e) {
+                logger.error("Error finding project by tag: {}", e.getMessage());
+                log.setProjectId(1L);
+            }
+        } else {
+            log.setProjectId(1L);
+        }
+    }
+
+    /**
+     * Create the automatic ticket for a saved log
+     * @param savedLog The persisted log
+     * @return The created ticket
+     */
+    private TicketDTO createTicket(Log savedLog) {
+        TicketDTO ticketDTO = new TicketDTO();
+
+        // Served from the project members cache, no remote call on a hit
+        UserResponseDTO assignee = projectService.getDefaultAssignee(savedLog.getProjectId()).orElse(null);
+
+        if (assignee != null) {
+            ticketDTO.setCreatorUserId(assignee.getId());
+            ticketDTO.setUserEmail(assignee.getEmail());
+            logger.info("Assigned ticket to user: {} ({})", assignee.getEmail(), assignee.getRole());
+        } else {
+            ticketDTO.setCreatorUserId(1L);
+            ticketDTO.setUserEmail("admin@windlogs.com");
+            logger.warn("No suitable assignee found, using default admin account");
+        }
+
+        // Automatically create a ticket
+        ticketDTO.setLogId(savedLog.getId());
+        ticketDTO.setTitle("Auto-generated ticket for log " + savedLog.getId());
+        ticketDTO.setDescription(savedLog.getDescription());
+        ticketDTO.setTenant(savedLog.getTenant());
+
+        TicketDTO createdTicket = ticketService.createTicket(ticketDTO);
+        logger.info("Ticket created with ID: {}, tenant: {}", createdTicket.getId(), createdTicket.getTenant());
+        return createdTicket;
+    }
+}
@@ -0,0 +1,115 @@
+package com.windlogs.tickets.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.windlogs.tickets.entity.CompressedTextConverter;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogPayloadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves the stack trace and analysis of logs out of the logs table into log_payloads,
+ * stored compressed, once per distinct content. A log only keeps the content hashes; the
+ * texts are loaded on demand, by the few paths that show them, with {@link #hydrate(Collection)}.
+ */
+@Service
+public class LogPayloadStore {
+
+    private final LogPayloadRepository logPayloadRepository;
+    private final CompressedTextConverter compressedTextConverter;
+
+    /**
+     * Hashes known to be stored, so recurring stack traces skip the insert.
+     * Entries expire well before the retention sweep may delete an unreferenced payload, so a
+     * hash is never reused after its payload is gone.
+     */
+    private final Cache<String, Boolean> storedHashes;
+
+    public LogPayloadStore(
+            LogPayloadRepository logPayloadRepository,
+            CompressedTextConverter compressedTextConverter,
+            @Value("${logs.payloads.known-hashes:100000}") long knownHashes,
+            @Value("${logs.payloads.known-hash-ttl-minutes:60}") long knownHashTtlMinutes) {
+        this.logPayloadRepository = logPayloadRepository;
+        this.compressedTextConverter = compressedTextConverter;
+        this.storedHashes = Caffeine.newBuilder()
+                .maximumSize(knownHashes)
+                .expireAfterWrite(Duration.ofMinutes(knownHashTtlMinutes))
+                .build();
+    }
+
+    /**
+     * Store the stack trace and analysis of a log, if any, and point the log at them.
+     * Call before saving the log.
+     */
+    public void externalize(Log log) {
+        // Stack traces are searchable (see LogSearchService), analyses are not
+        log.setStackTraceRef(store(log.getStackTrace(), true));
+        log.setAnalysisRef(store(log.getAnalysis(), false));
+    }
+
+    /**
+     * Load the stack trace and analysis of a log
+     */
+    public void hydrate(Log log) {
+        hydrate(List.of(log));
+    }
+
+    /**
+     * Load the stack traces and analyses of logs, with one query for all of them
+     */
+    public void hydrate(Collection<Log> logs) {
+        Set<String> hashes = logs.stream()
+                .flatMap(log -> Stream.of(log.getStackTraceRef(), log.getAnalysisRef()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        if (hashes.isEmpty()) {
+            return;
+        }
+        Map<String, String> contents = logPayloadRepository.findContents(hashes);
+        for (Log log : logs) {
+            log.setStackTrace(log.getStackTraceRef() != null ? contents.get(log.getStackTraceRef()) : null);
+            log.setAnalysis(log.getAnalysisRef() != null ? contents.get(log.getAnalysisRef()) : null);
+        }
+    }
+
+    private String store(String content, boolean searchable) {
+        if (content == null) {
+            return null;
+        }
+        String hash = contentHash(content);
+        if (storedHashes.getIfPresent(hash) == null) {
+            logPayloadRepository.storeOrTouch(
+                    hash, compressedTextConverter.convertToDatabaseColumn(content), searchable ? content : null);
+            storedHashes.put(hash, Boolean.TRUE);
+        }
+        return hash;
+    }
+
+    /**
+     * @return The key of a payload: SHA-256 of its UTF-8 bytes, in hex
+     */
+    static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
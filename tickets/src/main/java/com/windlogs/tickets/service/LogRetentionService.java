@@ -0,0 +1,237 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.config.LogRetentionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the monthly partitions of the logs table (see db/migration/V1_6):
+ * creates the partitions of the coming months ahead of time and drops the partitions
+ * that are older than every tenant's retention. Tenants with a shorter retention than
+ * the longest one have their older rows deleted from the partitions that are kept.
+ * Stack traces and analyses in log_payloads that no log references any more are then deleted.
+ * Daily log rollups are not pruned, so dashboards keep their history.
+ * Every instance schedules the maintenance; a run only goes ahead on the instance that takes
+ * the maintenance lock, a session-level advisory lock held on a connection of its own while
+ * the statements of the run use others.
+ */
+@Service
+public class LogRetentionService {
+    private static final Logger logger = LoggerFactory.getLogger(LogRetentionService.class);
+    static final String PARTITION_PREFIX = "logs_p";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String MAINTENANCE_LOCK = "hashtext('logs_maintenance')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final LogRetentionProperties retention;
+    private final int monthsAhead;
+    private final int payloadSweepBatchSize;
+    private final long payloadGraceHours;
+
+    public LogRetentionService(
+            JdbcTemplate jdbcTemplate,
+            LogRetentionProperties retention,
+            @Value("${logs.partitioning.months-ahead:2}") int monthsAhead,
+            @Value("${logs.payloads.sweep-batch-size:1000}") int payloadSweepBatchSize,
+            @Value("${logs.payloads.orphan-grace-hours:24}") long payloadGraceHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.retention = retention;
+        this.monthsAhead = monthsAhead;
+        this.payloadSweepBatchSize = payloadSweepBatchSize;
+        this.payloadGraceHours = payloadGraceHours;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Create the upcoming partitions, then apply the retention, unless another instance is at it
+     */
+    @Scheduled(cron = "${logs.partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                    logger.info("Log partition maintenance is running on another instance, skipping this run");
+                    return null;
+                }
+                try {
+                    runMaintenance();
+                } finally {
+                    advisoryLock(connection, "pg_advisory_unlock");
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Log partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(" + MAINTENANCE_LOCK + ")");
+             ResultSet result = statement.executeQuery()) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private void runMaintenance() {
+        if (isPartitioned()) {
+            createUpcomingPartitions(YearMonth.now());
+            dropExpiredPartitions(YearMonth.now());
+        } else {
+            logger.warn("logs is not partitioned, expired logs are deleted row by row");
+            deleteOlderThan(cutoff(retention.longestMonths()), null, Set.of());
+        }
+        deleteShorterRetentions();
+        deleteUnreferencedPayloads();
+    }
+
+    void createUpcomingPartitions(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            String partition = jdbcTemplate.queryForObject(
+                    "SELECT create_logs_partition(?)", String.class, current.plusMonths(i).atDay(1));
+            logger.debug("Log partition {} is present", partition);
+        }
+    }
+
+    void dropExpiredPartitions(YearMonth current) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass('logs')", String.class);
+        for (String partition : expiredPartitions(partitions, current, retention.longestMonths())) {
+            logger.info("Dropping expired log partition {}", partition);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+        }
+    }
+
+    /**
+     * Delete the rows of tenants whose retention is shorter than the longest one.
+     * Bounded on created_at, so only the oldest kept partitions are scanned.
+     */
+    void deleteShorterRetentions() {
+        int longest = retention.longestMonths();
+        retention.tenantMonths().forEach((tenant, months) -> {
+            if (months < longest) {
+                deleteOlderThan(cutoff(months), tenant, Set.of());
+            }
+        });
+        if (retention.defaultMonths() < longest) {
+            // Tenants without an override, except the ones allowed to keep more
+            Set<String> keepLonger = retention.tenantMonths().entrySet().stream()
+                    .filter(entry -> entry.getValue() > retention.defaultMonths())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            deleteOlderThan(cutoff(retention.defaultMonths()), null, keepLonger);
+        }
+    }
+
+    /**
+     * Delete the payloads that no log references, in batches of payloads walked by hash so
+     * each statement stays short. A payload is only deleted once it has not been stored for the
+     * grace period: it is stored before the log that points at it is updated, and LogPayloadStore
+     * skips the insert of hashes it stored recently.
+     */
+    void deleteUnreferencedPayloads() {
+        LocalDateTime storedBefore = LocalDateTime.now().minusHours(payloadGraceHours);
+        String lastHash = "";
+        int deleted = 0;
+        while (true) {
+            List<String> hashes = jdbcTemplate.queryForList(
+                    "SELECT hash FROM log_payloads WHERE hash > ? ORDER BY hash LIMIT ?",
+                    String.class, lastHash, payloadSweepBatchSize);
+            if (hashes.isEmpty()) {
+                break;
+            }
+            deleted += namedJdbcTemplate.update(
+                    "DELETE FROM log_payloads p WHERE p.hash IN (:hashes) " +
+                    "AND (p.created_at IS NULL OR p.created_at < :storedBefore) " +
+                    "AND NOT EXISTS (SELECT 1 FROM logs l WHERE l.stack_trace_ref = p.hash) " +
+                    "AND NOT EXISTS (SELECT 1 FROM logs l WHERE l.analysis_ref = p.hash)",
+                    new MapSqlParameterSource("hashes", hashes).addValue("storedBefore", storedBefore));
+            lastHash = hashes.get(hashes.size() - 1);
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} log payloads no longer referenced by any log", deleted);
+        }
+    }
+
+    private void deleteOlderThan(LocalDateTime cutoff, String tenant, Set<String> exceptTenants) {
+        MapSqlParameterSource params = new MapSqlParameterSource("cutoff", cutoff);
+        StringBuilder sql = new StringBuilder("DELETE FROM logs WHERE created_at < :cutoff");
+        if (tenant != null) {
+            sql.append(" AND tenant = :tenant");
+            params.addValue("tenant", tenant);
+        } else if (!exceptTenants.isEmpty()) {
+            sql.append(" AND (tenant IS NULL OR tenant NOT IN (:exceptTenants))");
+            params.addValue("exceptTenants", exceptTenants);
+        }
+        int deleted = namedJdbcTemplate.update(sql.toString(), params);
+        if (deleted > 0) {
+            logger.info("Deleted {} logs older than {}{}", deleted, cutoff, tenant != null ? " for tenant " + tenant : "");
+        }
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('logs') AND relkind = 'p')",
+                Boolean.class));
+    }
+
+    /**
+     * @return The start of the oldest month kept with a retention of {@code months} months
+     */
+    static LocalDateTime cutoff(int months) {
+        return YearMonth.now().minusMonths(months).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * @return The partitions whose whole month is before the oldest month kept
+     */
+    static List<String> expiredPartitions(List<String> partitions, YearMonth current, int retentionMonths) {
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        return partitions.stream()
+                .filter(partition -> {
+                    YearMonth month = partitionMonth(partition);
+                    return month != null && month.isBefore(oldestKept);
+                })
+                .sorted()
+                .toList();
+    }
+
+    private static YearMonth partitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
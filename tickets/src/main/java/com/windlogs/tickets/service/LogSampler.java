@@ -0,0 +1,121 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.config.LogSamplingProperties;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogType;
+import com.windlogs.tickets.repository.LogSampledCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decides which Fluentd records are stored, by level and project tag (see {@link LogSamplingProperties}).
+ * Only records whose level is a {@link LogType} name are sampled: an unknown level ("WARNING",
+ * "CRITICAL", "SEVERE"...) is mapped to INFO, but may well be an error, so it is always stored.
+ * A record that is not stored is only counted, per tenant, tag, level and minute; the counts
+ * are added to log_sampled_counts once a minute, so the dropped volume stays visible.
+ * Counts not yet flushed are lost if the instance stops.
+ */
+@Service
+public class LogSampler {
+    private static final Logger logger = LoggerFactory.getLogger(LogSampler.class);
+
+    private final LogSamplingProperties properties;
+    private final LogSampledCountRepository logSampledCountRepository;
+    private final MeterRegistry meterRegistry;
+    private final DoubleSupplier random;
+
+    /**
+     * Counts since the last flush; merge() and remove() are atomic per key, so no increment is lost
+     */
+    private final Map<CountKey, Long> pendingCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LogSampler(LogSamplingProperties properties, LogSampledCountRepository logSampledCountRepository,
+                      MeterRegistry meterRegistry) {
+        this(properties, logSampledCountRepository, meterRegistry, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    LogSampler(LogSamplingProperties properties, LogSampledCountRepository logSampledCountRepository,
+               MeterRegistry meterRegistry, DoubleSupplier random) {
+        this.properties = properties;
+        this.logSampledCountRepository = logSampledCountRepository;
+        this.meterRegistry = meterRegistry;
+        this.random = random;
+    }
+
+    /**
+     * @param log A mapped, not yet persisted log
+     * @param level The level of the Fluentd record, as sent
+     * @return true if the log should be stored; otherwise it has been counted
+     */
+    public boolean sample(Log log, String level) {
+        if (level == null || log.getType() == null || !level.equalsIgnoreCase(log.getType().name())) {
+            return true;
+        }
+        return sample(log);
+    }
+
+    /**
+     * @param log A mapped, not yet persisted log whose type is the level of its record
+     * @return true if the log should be stored; otherwise it has been counted
+     */
+    boolean sample(Log log) {
+        double rate = properties.rateFor(log.getTag(), log.getType());
+        if (rate >= 1.0 || (rate > 0.0 && random.getAsDouble() < rate)) {
+            return true;
+        }
+        CountKey key = new CountKey(log.getTenant(), log.getTag() != null ? log.getTag() : "",
+                LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES), log.getType());
+        pendingCounts.merge(key, 1L, Long::sum);
+        Counter.builder("ingest.sampling.dropped")
+                .description("Fluentd records counted instead of stored")
+                .tag("type", String.valueOf(log.getType()))
+                .register(meterRegistry)
+                .increment();
+        return false;
+    }
+
+    /**
+     * Add the counts gathered since the last flush to their minutes
+     */
+    @Scheduled(fixedDelayString = "${ingest.sampling.flush-interval-ms:60000}",
+            initialDelayString = "${ingest.sampling.flush-interval-ms:60000}")
+    public void flush() {
+        int flushed = 0;
+        for (CountKey key : List.copyOf(pendingCounts.keySet())) {
+            Long count = pendingCounts.remove(key);
+            if (count == null) {
+                continue;
+            }
+            try {
+                logSampledCountRepository.addDropped(key.tenant(), key.tag(), key.minute(), key.type().name(), count);
+                flushed++;
+            } catch (Exception e) {
+                // Kept for the next flush
+                logger.error("Failed to store {} sampled {} logs of tenant {}: {}",
+                        count, key.type(), key.tenant(), e.getMessage());
+                pendingCounts.merge(key, count, Long::sum);
+                break;
+            }
+        }
+        if (flushed > 0) {
+            logger.debug("Flushed {} sampled log counts", flushed);
+        }
+    }
+
+    private record CountKey(String tenant, String tag, LocalDateTime minute, LogType type) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.dto.CursorPageDTO;
+import com.windlogs.tickets.dto.LogSearchCursor;
+import com.windlogs.tickets.dto.LogSearchHitDTO;
+import com.windlogs.tickets.dto.LogSummaryDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search of logs (indexes in db/migration/V1_10 and V1_13): every word of the query must
+ * appear in the log's message fields or stack trace. Words are runs of letters and digits,
+ * so {@code TicketService} matches {@code com.windlogs.TicketService.find(TicketService.java:42)}.
+ * Hits are ranked in the database, then only the page's logs are loaded for highlighting.
+ */
+@Service
+public class LogSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(LogSearchService.class);
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    /** Characters of context kept on each side of the first match of a field */
+    private static final int EXCERPT_CONTEXT = 80;
+
+    private final LogRepository logRepository;
+    private final LogPayloadStore logPayloadStore;
+
+    public LogSearchService(LogRepository logRepository, LogPayloadStore logPayloadStore) {
+        this.logRepository = logRepository;
+        this.logPayloadStore = logPayloadStore;
+    }
+
+    /**
+     * Search a tenant's logs
+     * @param tenant The tenant of the authenticated user
+     * @param projectId Only search this project's logs, or null
+     * @param query The words to find
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The page size
+     * @return Hits, best first, and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<LogSearchHitDTO> search(String tenant, Long projectId, String query, String cursor, int limit) {
+        Pattern terms = termPattern(query);
+        if (terms == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The search query has no words");
+        }
+        LogSearchCursor after;
+        try {
+            after = cursor != null && !cursor.isEmpty() ? LogSearchCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        logger.info("Searching logs of tenant {} (project {}) for '{}', limit: {}", tenant, projectId, query, limit);
+
+        // One extra row tells whether there is a next page
+        List<LogSearchCursor> ranked = logRepository.searchRanked(tenant, projectId, query, after, limit + 1);
+        boolean hasMore = ranked.size() > limit;
+        List<LogSearchCursor> page = hasMore ? ranked.subList(0, limit) : ranked;
+
+        List<Log> logs = logRepository.findAllById(page.stream().map(LogSearchCursor::id).toList());
+        logPayloadStore.hydrate(logs);
+        Map<Long, Log> logsById = logs.stream().collect(Collectors.toMap(Log::getId, Function.identity()));
+
+        List<LogSearchHitDTO> hits = page.stream()
+                .filter(hit -> logsById.containsKey(hit.id()))
+                .map(hit -> {
+                    Log log = logsById.get(hit.id());
+                    return new LogSearchHitDTO(LogSummaryDTO.of(log), hit.rank(), highlights(log, terms));
+                })
+                .toList();
+        String nextCursor = hasMore ? page.get(page.size() - 1).encode() : null;
+        return new CursorPageDTO<>(hits, nextCursor, hasMore);
+    }
+
+    /**
+     * @return A pattern matching any word of the query as a whole word, or null if it has none
+     */
+    static Pattern termPattern(String query) {
+        if (query == null) {
+            return null;
+        }
+        String alternatives = Arrays.stream(NON_WORD.split(query))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"));
+        if (alternatives.isEmpty()) {
+            return null;
+        }
+        return Pattern.compile("(?<![\\p{L}\\p{N}])(?:" + alternatives + ")(?![\\p{L}\\p{N}])",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    static Map<String, String> highlights(Log log, Pattern terms) {
+        Map<String, String> highlights = new LinkedHashMap<>();
+        putExcerpt(highlights, "description", log.getDescription(), terms);
+        putExcerpt(highlights, "customMessage", log.getCustomMessage(), terms);
+        putExcerpt(highlights, "exceptionType", log.getExceptionType(), terms);
+        putExcerpt(highlights, "className", log.getClassName(), terms);
+        putExcerpt(highlights, "stackTrace", log.getStackTrace(), terms);
+        return highlights;
+    }
+
+    private static void putExcerpt(Map<String, String> highlights, String field, String text, Pattern terms) {
+        String excerpt = excerpt(text, terms);
+        if (excerpt != null) {
+            highlights.put(field, excerpt);
+        }
+    }
+
+    /**
+     * @return The text around the first match, HTML-escaped, with every match in it marked;
+     * null if nothing matches
+     */
+    static String excerpt(String text, Pattern terms) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = terms.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+        int start = Math.max(0, matcher.start() - EXCERPT_CONTEXT);
+        int end = Math.min(text.length(), matcher.end() + EXCERPT_CONTEXT);
+
+        StringBuilder excerpt = new StringBuilder();
+        if (start > 0) {
+            excerpt.append('…');
+        }
+        int position = start;
+        matcher.useTransparentBounds(true).region(start, end);
+        while (matcher.find()) {
+            excerpt.append(HtmlUtils.htmlEscape(text.substring(position, matcher.start())))
+                    .append("<mark>").append(HtmlUtils.htmlEscape(matcher.group())).append("</mark>");
+            position = matcher.end();
+        }
+        excerpt.append(HtmlUtils.htmlEscape(text.substring(position, end)));
+        if (end < text.length()) {
+            excerpt.append('…');
+        }
+        return excerpt.toString();
+    }
+}
@@ -1,6 +1,10 @@
 package com.windlogs.tickets.service;
 
+import com.windlogs.tickets.dto.CursorPageDTO;
+import com.windlogs.tickets.dto.LogCursor;
 import com.windlogs.tickets.dto.LogDTO;
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.dto.LogSummaryDTO;
 import com.windlogs.tickets.dto.ProjectResponseDTO;
 import com.windlogs.tickets.entity.Log;
 import com.windlogs.tickets.kafka.LogEvent;
@@ -65,6 +69,30 @@ public class LogService {
         return logRepository.findByProjectId(projectId);
     }
 
+    /**
+     * Get one page of log summaries, newest first
+     * @param filter The filters to apply
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The page size
+     * @return The page and the cursor of the next one
+     */
+    public CursorPageDTO<LogSummaryDTO> getLogPage(LogFilterDTO filter, String cursor, int limit) {
+        logger.info("Getting log page for filter: {}, limit: {}", filter, limit);
+        LogCursor after;
+        try {
+            after = cursor != null && !cursor.isEmpty() ? LogCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+
+        // One extra row tells whether there is a next page
+        List<LogSummaryDTO> rows = logRepository.findSummaries(filter, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<LogSummaryDTO> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? LogCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
     /**
      * Get logs by project IDs
      * @param projectIds List of project IDs
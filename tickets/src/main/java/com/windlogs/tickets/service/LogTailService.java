@@ -0,0 +1,216 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.dto.LogCursor;
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.dto.LogSummaryDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes newly ingested logs to live tail subscribers as Server-Sent Events.
+ * A log is published once enriched, when its project and exception type are known.
+ * Filters are applied here, so a subscriber only receives the logs it asked for.
+ * Each subscriber has its own bounded buffer: when it reads slower than logs arrive, its
+ * oldest pending logs are dropped, and nobody else is slowed down.
+ * Event IDs are (created_at, id) cursors: a reconnecting client (Last-Event-ID) first gets the
+ * logs it missed from the database, then the live ones. Log IDs are allocated in blocks per
+ * instance and logs are published once enriched, so neither IDs nor publish order follow insert
+ * order: the replay starts an overlap window before the last log received, and may send again
+ * logs the client already has (same event data, same log ID). A replay cut at the replay limit
+ * ends with a "gap" event. Only logs ingested by this instance are pushed live.
+ */
+@Service
+public class LogTailService {
+    private static final Logger logger = LoggerFactory.getLogger(LogTailService.class);
+
+    private final LogRepository logRepository;
+    private final int bufferSize;
+    private final int replayLimit;
+    private final Duration replayOverlap;
+    private final int maxSubscribers;
+    private final Duration heartbeat;
+    private final Counter droppedLogs;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    /**
+     * Every published log; emissions are serialized by publish()
+     */
+    private final Sinks.Many<LogSummaryDTO> logs = Sinks.many().multicast().directBestEffort();
+
+    public LogTailService(
+            LogRepository logRepository,
+            MeterRegistry meterRegistry,
+            @Value("${logs.tail.buffer-size:256}") int bufferSize,
+            @Value("${logs.tail.replay-limit:500}") int replayLimit,
+            @Value("${logs.tail.replay-overlap-seconds:60}") long replayOverlapSeconds,
+            @Value("${logs.tail.max-subscribers:500}") int maxSubscribers,
+            @Value("${logs.tail.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.logRepository = logRepository;
+        this.bufferSize = bufferSize;
+        this.replayLimit = replayLimit;
+        this.replayOverlap = Duration.ofSeconds(replayOverlapSeconds);
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeat = Duration.ofSeconds(heartbeatSeconds);
+        this.droppedLogs = Counter.builder("logs.tail.dropped")
+                .description("Logs dropped from the buffer of a slow tail subscriber")
+                .register(meterRegistry);
+        Gauge.builder("logs.tail.subscribers", subscribers, AtomicInteger::get)
+                .description("Open live tail connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hand an ingested log to the subscribers whose filter it matches. Never blocks.
+     */
+    public void publish(Log log) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        LogSummaryDTO summary = LogSummaryDTO.of(log);
+        synchronized (logs) {
+            logs.tryEmitNext(summary);
+        }
+    }
+
+    /**
+     * Tail the logs matching a filter
+     * @param filter Tenant, and optionally project, type, severity and exception type; time bounds are ignored
+     * @param lastEventId The ID of the last event received, to resume after it; null to only get new logs
+     * @return Log events, a "gap" event when logs were skipped, plus comment-only heartbeats
+     * that keep idle connections open
+     * @throws ResponseStatusException 503 if the instance already serves its maximum of subscribers
+     */
+    public Flux<ServerSentEvent<Object>> tail(LogFilterDTO filter, String lastEventId) {
+        // Refused before the response starts; the slot itself is only taken once subscribed,
+        // so a stream that is never subscribed (request failed, client gone) holds none
+        if (subscribers.get() >= maxSubscribers) {
+            throw tooManySubscribers();
+        }
+        return Flux.defer(() -> {
+            if (subscribers.incrementAndGet() > maxSubscribers) {
+                subscribers.decrementAndGet();
+                return Flux.error(tooManySubscribers());
+            }
+            logger.info("Live tail opened for filter: {}, resuming after: {}", filter, lastEventId);
+            return events(filter, lastEventId).doFinally(signal -> {
+                subscribers.decrementAndGet();
+                logger.info("Live tail closed ({}) for filter: {}", signal, filter);
+            });
+        });
+    }
+
+    private Flux<ServerSentEvent<Object>> events(LogFilterDTO filter, String lastEventId) {
+        Flux<LogSummaryDTO> live = logs.asFlux()
+                .filter(log -> matches(filter, log))
+                .onBackpressureBuffer(bufferSize, dropped -> droppedLogs.increment(), BufferOverflowStrategy.DROP_OLDEST);
+        Flux<ServerSentEvent<Object>> events = live.map(LogTailService::toEvent);
+        if (lastEventId != null && !lastEventId.isEmpty()) {
+            Set<Long> replayed = ConcurrentHashMap.newKeySet();
+            Flux<TailItem> missed = Flux.defer(() -> Flux.fromIterable(replay(filter, lastEventId, replayed)))
+                    .subscribeOn(Schedulers.boundedElastic());
+            // Live logs are buffered from the start, so nothing published while the replay is read is
+            // missed; every replayed log is emitted before the first live one, so duplicates are skipped
+            events = Flux.mergeSequential(missed, live.map(log -> new TailItem(toEvent(log), log.getId())))
+                    .filter(item -> item.liveLogId() == null || !replayed.contains(item.liveLogId()))
+                    .map(TailItem::event);
+        }
+
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeat, heartbeat)
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+        return Flux.merge(events, heartbeats);
+    }
+
+    private static ResponseStatusException tooManySubscribers() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live tail subscribers");
+    }
+
+    /**
+     * Read the logs inserted since an overlap window before the last event received
+     * @param replayed Collects the IDs of the replayed logs
+     * @return The replayed log events, followed by a gap event if some could not be sent
+     */
+    private List<TailItem> replay(LogFilterDTO filter, String lastEventId, Set<Long> replayed) {
+        LogCursor after;
+        try {
+            after = LogCursor.decode(lastEventId);
+        } catch (IllegalArgumentException e) {
+            // E.g. an event ID from before an upgrade: nothing to resume from
+            logger.debug("Cannot resume live tail after unknown event ID {}", lastEventId);
+            return List.of(new TailItem(gapEvent(lastEventId), null));
+        }
+
+        // One extra row tells whether the replay was cut
+        List<LogSummaryDTO> rows = logRepository.findSummariesCreatedSince(
+                filter, after.timestamp().minus(replayOverlap), replayLimit + 1);
+        boolean truncated = rows.size() > replayLimit;
+        List<TailItem> items = new ArrayList<>();
+        LogCursor last = after;
+        for (LogSummaryDTO log : truncated ? rows.subList(0, replayLimit) : rows) {
+            last = LogCursor.ofCreatedAt(log);
+            if (!log.getId().equals(after.id()) && replayed.add(log.getId())) {
+                items.add(new TailItem(toEvent(log), null));
+            }
+        }
+        if (truncated) {
+            logger.info("Live tail replay cut at {} logs for filter: {}", replayLimit, filter);
+            items.add(new TailItem(gapEvent(last.encode()), null));
+        }
+        return items;
+    }
+
+    /**
+     * An event to send; live log events keep their log ID, to skip those already replayed
+     */
+    private record TailItem(ServerSentEvent<Object> event, Long liveLogId) {
+    }
+
+    static boolean matches(LogFilterDTO filter, LogSummaryDTO log) {
+        return Objects.equals(filter.getTenant(), log.getTenant())
+                && (filter.getProjectId() == null || filter.getProjectId().equals(log.getProjectId()))
+                && (filter.getType() == null || filter.getType() == log.getType())
+                && (filter.getSeverity() == null || filter.getSeverity() == log.getSeverity())
+                && (filter.getExceptionType() == null || filter.getExceptionType().equals(log.getExceptionType()));
+    }
+
+    private static ServerSentEvent<Object> toEvent(LogSummaryDTO log) {
+        return ServerSentEvent.builder()
+                .id(LogCursor.ofCreatedAt(log).encode())
+                .event("log")
+                .data(log)
+                .build();
+    }
+
+    /**
+     * Logs after the event ID may have been skipped: the client should reload the listing.
+     * Resuming with its ID goes on from the last log replayed.
+     */
+    private static ServerSentEvent<Object> gapEvent(String id) {
+        return ServerSentEvent.builder()
+                .id(id)
+                .event("gap")
+                .data("Logs were skipped, reload the log list")
+                .build();
+    }
+}
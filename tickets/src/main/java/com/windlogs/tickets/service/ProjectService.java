@@ -1,16 +1,24 @@
 package com.windlogs.tickets.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.windlogs.tickets.dto.ProjectResponseDTO;
 import com.windlogs.tickets.dto.UserResponseDTO;
 import com.windlogs.tickets.feign.AuthenticationFeignClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Service for project-related operations
@@ -20,8 +28,47 @@ public class ProjectService {
     private static final Logger logger = LoggerFactory.getLogger(ProjectService.class);
     private final AuthenticationFeignClient authenticationFeignClient;
 
-    public ProjectService(AuthenticationFeignClient authenticationFeignClient) {
+    /**
+     * Primary tag -> project, as resolved by the authentication service.
+     * Unknown tags are cached as {@code Optional.empty()} with a shorter TTL.
+     */
+    private final LoadingCache<String, Optional<ProjectResponseDTO>> projectsByTag;
+
+    /**
+     * Project ID -> members and their precomputed default assignee.
+     * Empty member lists (unknown project or auth service down) use the negative TTL.
+     */
+    private final LoadingCache<Long, ProjectMembers> membersByProject;
+
+    public ProjectService(
+            AuthenticationFeignClient authenticationFeignClient,
+            MeterRegistry meterRegistry,
+            @Value("${cache.project-by-tag.max-size:1000}") long tagCacheMaxSize,
+            @Value("${cache.project-by-tag.ttl-seconds:600}") long tagCacheTtlSeconds,
+            @Value("${cache.project-by-tag.negative-ttl-seconds:60}") long tagCacheNegativeTtlSeconds,
+            @Value("${cache.project-by-tag.refresh-after-seconds:300}") long tagCacheRefreshAfterSeconds,
+            @Value("${cache.project-members.max-size:1000}") long membersCacheMaxSize,
+            @Value("${cache.project-members.ttl-seconds:300}") long membersCacheTtlSeconds,
+            @Value("${cache.project-members.negative-ttl-seconds:30}") long membersCacheNegativeTtlSeconds) {
         this.authenticationFeignClient = authenticationFeignClient;
+        this.projectsByTag = Caffeine.newBuilder()
+                .maximumSize(tagCacheMaxSize)
+                .expireAfter(new PositiveNegativeExpiry<String, Optional<ProjectResponseDTO>>(
+                        Optional::isPresent, Duration.ofSeconds(tagCacheTtlSeconds), Duration.ofSeconds(tagCacheNegativeTtlSeconds)))
+                // Reload hot tags in the background before they expire
+                .refreshAfterWrite(Duration.ofSeconds(tagCacheRefreshAfterSeconds))
+                .recordStats()
+                .build(this::loadProjectByPrimaryTag);
+        CaffeineCacheMetrics.monitor(meterRegistry, projectsByTag, "projectByTag");
+
+        this.membersByProject = Caffeine.newBuilder()
+                .maximumSize(membersCacheMaxSize)
+                .expireAfter(new PositiveNegativeExpiry<Long, ProjectMembers>(
+                        members -> !members.members().isEmpty(),
+                        Duration.ofSeconds(membersCacheTtlSeconds), Duration.ofSeconds(membersCacheNegativeTtlSeconds)))
+                .recordStats()
+                .build(this::loadProjectMembers);
+        CaffeineCacheMetrics.monitor(meterRegistry, membersByProject, "projectMembers");
     }
 
     /**
@@ -59,12 +106,13 @@ public class ProjectService {
     
     /**
      * Find project by tag
+     * Served from the tag cache; only misses and refreshes reach the authentication service.
      * @param tag The tag to search for
      * @param authorizationHeader The authorization header
      * @return The project if found, or null if not found
      */
     public Optional<ProjectResponseDTO> findProjectByPrimaryTag(String tag, String authorizationHeader) {
-        logger.info("Finding project with tag: {}", tag);
+        logger.debug("Finding project with tag: {}", tag);
         
         if (tag == null || tag.isEmpty()) {
             logger.warn("Empty tag provided, returning empty result");
@@ -72,27 +120,134 @@ public class ProjectService {
         }
         
         try {
-            // Only use the public endpoint
-            List<ProjectResponseDTO> projects = authenticationFeignClient.findProjectsByPrimaryTagPublic(tag);
-            return projects.stream().findFirst();
+            return projectsByTag.get(tag);
         } catch (Exception e) {
             logger.error("Error finding project with tag {}: {}", tag, e.getMessage());
             return Optional.empty();
         }
     }
 
+    /**
+     * Drop a tag from the cache, e.g. when a project's primary tag changes
+     * @param tag The primary tag to evict
+     */
+    public void evictProjectTag(String tag) {
+        logger.info("Evicting project tag from cache: {}", tag);
+        projectsByTag.invalidate(tag);
+    }
+
+    /**
+     * Drop every cached tag
+     */
+    public void evictAllProjectTags() {
+        logger.info("Evicting all project tags from cache");
+        projectsByTag.invalidateAll();
+    }
+
+    /**
+     * Cache loader: resolve a tag with the public endpoint.
+     * Exceptions propagate so that failures are not cached as unknown tags.
+     */
+    private Optional<ProjectResponseDTO> loadProjectByPrimaryTag(String tag) {
+        logger.info("Loading project with tag: {}", tag);
+        List<ProjectResponseDTO> projects = authenticationFeignClient.findProjectsByPrimaryTagPublic(tag);
+        return projects.stream().findFirst();
+    }
+
+    /**
+     * Members of a project and the user auto-generated tickets go to:
+     * the first MANAGER, else the first member, else none
+     */
+    private record ProjectMembers(List<UserResponseDTO> members, Optional<UserResponseDTO> defaultAssignee) {
+        static ProjectMembers of(List<UserResponseDTO> users) {
+            List<UserResponseDTO> members = users != null ? List.copyOf(users) : Collections.emptyList();
+            Optional<UserResponseDTO> assignee = members.stream()
+                    .filter(user -> "MANAGER".equalsIgnoreCase(user.getRole()))
+                    .findFirst()
+                    .or(() -> members.stream().findFirst());
+            return new ProjectMembers(members, assignee);
+        }
+    }
+
+    /**
+     * Positive entries live for the full TTL, negative ones (unknown tag, no members)
+     * only for the negative TTL
+     */
+    private static class PositiveNegativeExpiry<K, V> implements Expiry<K, V> {
+        private final Predicate<V> isPositive;
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        PositiveNegativeExpiry(Predicate<V> isPositive, Duration ttl, Duration negativeTtl) {
+            this.isPositive = isPositive;
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            return isPositive.test(value) ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
     /**
      * Find project's members
      * @param projectId The project ID
      * @return List of users for the project, or empty list if error occurs
      */
     public List<UserResponseDTO> getProjectUsers(Long projectId) {
-        logger.info("Finding users of project id: {}", projectId);
+        logger.debug("Finding users of project id: {}", projectId);
         try {
-            return authenticationFeignClient.getProjectMembers(projectId);
+            return membersByProject.get(projectId).members();
         } catch (Exception e) {
             logger.error("Error getting project members for project ID {}: {}", projectId, e.getMessage(), e);
             return Collections.emptyList();
         }
     }
+
+    /**
+     * Find the user auto-generated tickets of a project are assigned to
+     * @param projectId The project ID
+     * @return The first MANAGER of the project, else its first member; empty if it has none
+     */
+    public Optional<UserResponseDTO> getDefaultAssignee(Long projectId) {
+        try {
+            return membersByProject.get(projectId).defaultAssignee();
+        } catch (Exception e) {
+            logger.error("Error getting default assignee for project ID {}: {}", projectId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Drop a project's members from the cache, e.g. after a membership change
+     * @param projectId The project ID
+     */
+    public void evictProjectMembers(Long projectId) {
+        logger.info("Evicting members of project {} from cache", projectId);
+        membersByProject.invalidate(projectId);
+    }
+
+    /**
+     * Drop every cached member list
+     */
+    public void evictAllProjectMembers() {
+        logger.info("Evicting all project members from cache");
+        membersByProject.invalidateAll();
+    }
+
+    private ProjectMembers loadProjectMembers(Long projectId) {
+        logger.info("Loading users of project id: {}", projectId);
+        return ProjectMembers.of(authenticationFeignClient.getProjectMembers(projectId));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.windlogs.tickets.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogRepository;
+import com.windlogs.tickets.service.ExceptionAnalyzerService.StackTraceAnalysisResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caches analyzer results so identical stack traces are only sent to the analyzer once.
+ * Results are keyed by {@link LogFingerprinter#stackTraceHash(String)} and kept in an LRU
+ * bounded by size and TTL. On a miss, the latest analyzed log with the same hash is reused
+ * when persisted lookups are enabled, so the cache survives restarts without a store of its own.
+ * Failed analyses are never cached. Lookups are asynchronous: analyzer calls never block the caller.
+ */
+@Service
+public class StackTraceAnalysisCache {
+    private static final Logger logger = LoggerFactory.getLogger(StackTraceAnalysisCache.class);
+
+    private final ExceptionAnalyzerService exceptionAnalyzerService;
+    private final LogRepository logRepository;
+    private final LogPayloadStore logPayloadStore;
+    private final LogFingerprinter logFingerprinter;
+    private final ObjectMapper objectMapper;
+    private final boolean persistedLookup;
+
+    /**
+     * Stack trace hash -> analyzer output, ready to be copied onto a log
+     */
+    private final AsyncCache<String, CachedAnalysis> analysesByStackTrace;
+
+    /**
+     * Log message -> exception type classified by the analyzer
+     */
+    private final AsyncCache<String, String> exceptionTypesByMessage;
+
+    /**
+     * Analyzer output for one stack trace
+     * @param stackTrace The stack trace as returned by the analyzer
+     * @param analysis The analysis as JSON, stored as-is in {@link Log#getAnalysis()}
+     */
+    public record CachedAnalysis(String stackTrace, String analysis) {
+    }
+
+    public StackTraceAnalysisCache(
+            ExceptionAnalyzerService exceptionAnalyzerService,
+            LogRepository logRepository,
+            LogPayloadStore logPayloadStore,
+            LogFingerprinter logFingerprinter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cache.analysis.max-size:10000}") long maxSize,
+            @Value("${cache.analysis.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${cache.analysis.persisted-lookup:true}") boolean persistedLookup) {
+        this.exceptionAnalyzerService = exceptionAnalyzerService;
+        this.logRepository = logRepository;
+        this.logPayloadStore = logPayloadStore;
+        this.logFingerprinter = logFingerprinter;
+        this.objectMapper = objectMapper;
+        this.persistedLookup = persistedLookup;
+        this.analysesByStackTrace = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, analysesByStackTrace.synchronous(), "stackTraceAnalysis");
+        this.exceptionTypesByMessage = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, exceptionTypesByMessage.synchronous(), "exceptionClassification");
+    }
+
+    /**
+     * Get the analysis of a stack trace, calling the analyzer only on a miss.
+     * Concurrent callers with the same stack trace share a single analyzer call.
+     * @param stackTraceHash Hash of the stack trace, see {@link #hash(String)}
+     * @param stackTrace The raw stack trace
+     * @return The analysis; completes with null if the analyzer failed or is unavailable
+     */
+    public CompletableFuture<CachedAnalysis> analyzeStackTrace(String stackTraceHash, String stackTrace) {
+        return analysesByStackTrace.get(stackTraceHash, (hash, executor) -> load(hash, stackTrace))
+                .exceptionally(e -> {
+                    logger.warn("Stack trace analysis failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Get the exception type of a log message, calling the analyzer only on a miss
+     * @param message The log message
+     * @return The exception type as classified by the analyzer; completes with null if the
+     * analyzer failed or is unavailable
+     */
+    public CompletableFuture<String> classifyException(String message) {
+        return exceptionTypesByMessage.get(message, (key, executor) ->
+                        exceptionAnalyzerService.analyzeExceptionAsync(key).toFuture())
+                .exceptionally(e -> {
+                    logger.warn("Exception classification failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * @return The cache key of a stack trace
+     */
+    public String hash(String stackTrace) {
+        return logFingerprinter.stackTraceHash(stackTrace);
+    }
+
+    /**
+     * Drop every cached result, e.g. after the analyzer model changed
+     */
+    public void evictAll() {
+        logger.info("Evicting all cached analyzer results");
+        analysesByStackTrace.synchronous().invalidateAll();
+        exceptionTypesByMessage.synchronous().invalidateAll();
+    }
+
+    private CompletableFuture<CachedAnalysis> load(String stackTraceHash, String stackTrace) {
+        if (persistedLookup) {
+            Log analyzed = logRepository.findFirstByStackTraceHashAndAnalysisRefIsNotNullOrderByIdDesc(stackTraceHash)
+                    .orElse(null);
+            if (analyzed != null) {
+                logPayloadStore.hydrate(analyzed);
+                logger.debug("Reusing analysis of log {} for stack trace {}", analyzed.getId(), stackTraceHash);
+                return CompletableFuture.completedFuture(new CachedAnalysis(analyzed.getStackTrace(), analyzed.getAnalysis()));
+            }
+        }
+        // A failed future leaves the entry absent, so the next occurrence retries
+        return exceptionAnalyzerService.analyzeStackTraceAsync(stackTrace)
+                .map(this::toCachedAnalysis)
+                .toFuture();
+    }
+
+    private CachedAnalysis toCachedAnalysis(StackTraceAnalysisResponse response) {
+        if (response.getError() != null) {
+            throw new IllegalStateException(response.getError());
+        }
+        String analysis = null;
+        if (response.getAnalysis() != null) {
+            try {
+                analysis = objectMapper.writeValueAsString(response.getAnalysis());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to convert analysis to JSON", e);
+            }
+        }
+        return new CachedAnalysis(response.getStackTrace(), analysis);
+    }
+}
@@ -0,0 +1,102 @@
+package com.windlogs.tickets.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent queries of a dashboard concurrently, so a dashboard costs its
+ * slowest query rather than the sum of them.
+ * Each query has its own timeout, enforced twice: the dashboard stops waiting for it, and
+ * the database cancels it through a statement timeout set in the query's read-only
+ * transaction, so an abandoned query does not keep its connection busy.
+ * A query that fails or times out only drops the
+ * statistics it feeds: they are replaced by an entry under {@value #ERRORS_KEY}
+ * naming the section, and the rest of the dashboard is still returned.
+ */
+@Component
+public class StatsQueryRunner {
+    private static final Logger logger = LoggerFactory.getLogger(StatsQueryRunner.class);
+    public static final String ERRORS_KEY = "errors";
+
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final long timeoutMs;
+
+    public StatsQueryRunner(
+            @Qualifier("statsQueryExecutor") Executor executor,
+            PlatformTransactionManager transactionManager,
+            JdbcTemplate jdbcTemplate,
+            @Value("${stats.query.timeout-ms:5000}") long timeoutMs) {
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.jdbcTemplate = jdbcTemplate;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Start a query on the stats pool
+     * @param query The repository call
+     * @return Completes with the query result, or exceptionally after the timeout
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> runWithStatementTimeout(query), executor)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> T runWithStatementTimeout(Supplier<T> query) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL statement_timeout = " + timeoutMs);
+            return query.get();
+        });
+    }
+
+    /**
+     * Wait for a query and write the statistics derived from it, or an error marker for its section
+     * @param stats The dashboard being assembled
+     * @param section The name reported in the error marker
+     * @param query The started query
+     * @param writer Puts the statistics derived from the result into the dashboard
+     */
+    public <T> void collect(Map<String, Object> stats, String section, CompletableFuture<T> query, Consumer<T> writer) {
+        T result;
+        try {
+            result = query.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            boolean timedOut = cause instanceof TimeoutException;
+            logger.warn("Dashboard section {} unavailable: {}", section,
+                    timedOut ? "timed out after " + timeoutMs + " ms" : cause.getMessage());
+            markError(stats, section, timedOut ? "timeout" : "failed");
+            return;
+        } catch (Exception e) {
+            logger.warn("Dashboard section {} unavailable: {}", section, e.getMessage());
+            markError(stats, section, "failed");
+            return;
+        }
+        writer.accept(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void markError(Map<String, Object> stats, String section, String reason) {
+        ((Map<String, String>) stats.computeIfAbsent(ERRORS_KEY, key -> new LinkedHashMap<String, String>()))
+                .put(section, reason);
+    }
+}
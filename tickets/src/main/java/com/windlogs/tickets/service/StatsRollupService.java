@@ -0,0 +1,86 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.repository.LogDailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Maintains the daily log rollups read by the statistics endpoints.
+ * Each run recounts the last few days from the logs table and replaces their rollup rows
+ * in one transaction. Recounting rather than incrementing keeps the rollups right when the
+ * enrich stage changes a log's tenant or project after the first insert. Older days are
+ * final and never rescanned.
+ * Every instance schedules the jobs, but a refresh only goes ahead on the instance that takes
+ * the rebuild lock; the others skip it.
+ */
+@Service
+public class StatsRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(StatsRollupService.class);
+    private final LogDailyRollupRepository logDailyRollupRepository;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final int refreshDays;
+
+    public StatsRollupService(
+            LogDailyRollupRepository logDailyRollupRepository,
+            DashboardStatsCache dashboardStatsCache,
+            @Value("${stats.rollup.refresh-days:2}") int refreshDays) {
+        this.logDailyRollupRepository = logDailyRollupRepository;
+        this.dashboardStatsCache = dashboardStatsCache;
+        this.refreshDays = refreshDays;
+    }
+
+    /**
+     * Build the rollups of every existing log the first time the service starts with an empty table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        // Instances starting together backfill one after the other: the later ones see the rows
+        logDailyRollupRepository.lockRebuild();
+        if (logDailyRollupRepository.count() > 0) {
+            return;
+        }
+        LocalDate firstDay = logDailyRollupRepository.findFirstLogDay();
+        if (firstDay != null) {
+            logger.info("Backfilling daily log rollups from {}", firstDay);
+            rebuildFrom(firstDay);
+        }
+    }
+
+    /**
+     * Recount the most recent days, then drop the cached dashboards built from the previous counts
+     */
+    @Scheduled(fixedDelayString = "${stats.rollup.interval-ms:60000}",
+            initialDelayString = "${stats.rollup.interval-ms:60000}")
+    @Transactional
+    public void refreshRecentDays() {
+        if (!logDailyRollupRepository.tryLockRebuild()) {
+            logger.debug("Daily log rollups are being rebuilt by another instance, skipping the refresh");
+            return;
+        }
+        rebuildFrom(LocalDate.now().minusDays(refreshDays - 1L));
+        dashboardStatsCache.invalidateAll();
+    }
+
+    /**
+     * Replace the rollups of every day from {@code since} onwards.
+     * Callers hold the rebuild lock ({@link LogDailyRollupRepository#lockRebuild()})
+     * @param since The first day to rebuild
+     * @return The number of rollup rows written
+     */
+    @Transactional
+    public int rebuildFrom(LocalDate since) {
+        logDailyRollupRepository.deleteFromDay(since);
+        int rows = logDailyRollupRepository.insertFromLogs(since.atStartOfDay());
+        logger.debug("Rebuilt {} daily log rollups since {}", rows, since);
+        return rows;
+    }
+}
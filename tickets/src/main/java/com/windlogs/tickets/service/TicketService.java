@@ -13,12 +13,16 @@ import jakarta.ws.rs.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +34,7 @@ public class TicketService {
     private final AuthService authService;
     private final LogService logService;
     private final SolutionRepository solutionRepository;
+    private final DashboardStatsCache dashboardStatsCache;
 
     public TicketDTO createTicket(TicketDTO ticketDTO) {
         String incomingTenant = ticketDTO.getTenant();
@@ -76,11 +81,15 @@ public class TicketService {
         
         // Set user email
         ticket.setUserEmail(ticketDTO.getUserEmail());
+
+        // Later occurrences of the same error are attached to this ticket
+        ticket.setFingerprint(log.getFingerprint());
         
         logger.info("Saving ticket with tenant: {}, creatorUserId: {}, userEmail: {}, logId: {}", 
                 ticket.getTenant(), ticket.getCreatorUserId(), ticket.getUserEmail(), log.getId());
         
         Ticket savedTicket = ticketRepository.save(ticket);
+        dashboardStatsCache.invalidateTenant(savedTicket.getTenant());
         
         // Verify tenant was preserved after save
         if (!incomingTenant.equals(savedTicket.getTenant())) {
@@ -104,6 +113,42 @@ public class TicketService {
         return resultDTO;
     }
 
+    /**
+     * Attach a recurring error to the open ticket already tracking it.
+     * A ticket stays open until it reaches DONE.
+     * @param log The new log, with its fingerprint and final tenant set
+     * @return The ID of the ticket the occurrence was recorded on, or empty if there is none
+     */
+    public Optional<Long> recordOccurrence(Log log) {
+        if (log.getFingerprint() == null || log.getTenant() == null) {
+            return Optional.empty();
+        }
+        List<Long> openTicketIds = ticketRepository.findOpenTicketIdsByFingerprint(
+                log.getTenant(), log.getFingerprint(), Status.DONE, PageRequest.of(0, 1));
+        if (openTicketIds.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Long ticketId = openTicketIds.get(0);
+        ticketRepository.incrementOccurrenceCount(ticketId, log.getTimestamp() != null ? log.getTimestamp() : LocalDateTime.now());
+        logger.info("Log {} is a recurrence of ticket {} (fingerprint: {})", log.getId(), ticketId, log.getFingerprint());
+        return Optional.of(ticketId);
+    }
+
+    /**
+     * Run the "attach to the open ticket or create one" step of an error in one transaction
+     * holding the lock of its fingerprint, so a ticket created by another instance is found
+     * rather than duplicated
+     * @param log The log, with its fingerprint and final tenant set
+     * @param step Attaches the log or creates its ticket
+     * @return The result of the step
+     */
+    @Transactional
+    public <T> T withFingerprintLock(Log log, Supplier<T> step) {
+        ticketRepository.lockFingerprint(log.getTenant(), log.getFingerprint());
+        return step.get();
+    }
+
     public List<TicketDTO> getTicketsByTenant(String tenant) {
         return ticketRepository.findByTenant(tenant).stream()
                 .map(ticketMapper::toDTO)
@@ -137,6 +182,7 @@ public class TicketService {
 
         ticket.setStatus(newStatus);
         Ticket updatedTicket = ticketRepository.save(ticket);
+        dashboardStatsCache.invalidateTenant(tenant);
 
         logger.info("Ticket ID {} status updated to '{}'", ticketId, newStatus);
 
@@ -185,6 +231,7 @@ public class TicketService {
             Ticket existingTicket = getTicket(ticketDTO, existingTicketOpt);
 
             Ticket updatedTicket = ticketRepository.save(existingTicket);
+            dashboardStatsCache.invalidateTenant(tenant);
             TicketDTO updatedTicketDTO = ticketMapper.toDTO(updatedTicket);
 
             return updatedTicketDTO;
@@ -228,6 +275,7 @@ public class TicketService {
         
         if (ticket.isPresent()) {
             ticketRepository.deleteById(id);
+            dashboardStatsCache.invalidateTenant(tenant);
             return true;
         }
         
@@ -282,6 +330,7 @@ public class TicketService {
         }
         
         Ticket updatedTicket = ticketRepository.save(ticket);
+        dashboardStatsCache.invalidateTenant(managerTenant);
         
         return ticketMapper.toDTO(updatedTicket);
     }
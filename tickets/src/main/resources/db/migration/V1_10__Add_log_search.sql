@@ -0,0 +1,31 @@
+-- Full-text search over logs (see LogSearchService). Text is split on every non-alphanumeric
+-- character before indexing, so the parts of dotted class names, file names and error codes
+-- are searchable words; queries go through the same function.
+-- Logs get a generated tsvector over their message fields. Stack traces are indexed once per
+-- distinct payload in log_payloads, written by LogPayloadStore: compressed contents cannot be
+-- read by the database.
+-- Adding the generated column rewrites logs: run during a maintenance window.
+
+CREATE OR REPLACE FUNCTION log_search_text(value text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+    AS $$ SELECT regexp_replace(coalesce(value, ''), '[^[:alnum:]]+', ' ', 'g') $$;
+
+ALTER TABLE logs ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', log_search_text(exception_type)), 'A') ||
+    setweight(to_tsvector('simple', log_search_text(custom_message)), 'A') ||
+    setweight(to_tsvector('simple', log_search_text(class_name)), 'B') ||
+    setweight(to_tsvector('simple', log_search_text(description)), 'B')) STORED;
+
+ALTER TABLE log_payloads ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+-- Indexes on the parent are created on every partition, present and future
+CREATE INDEX IF NOT EXISTS idx_logs_search_vector ON logs USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_logs_stack_trace_ref ON logs (stack_trace_ref);
+CREATE INDEX IF NOT EXISTS idx_log_payloads_search_vector ON log_payloads USING gin (search_vector);
+
+-- Stack traces stored before compression are still plain UTF-8 after the format byte
+UPDATE log_payloads p
+SET search_vector = to_tsvector('simple', log_search_text(convert_from(substring(p.content FROM 2), 'UTF8')))
+WHERE p.search_vector IS NULL
+  AND get_byte(p.content, 0) = 0
+  AND EXISTS (SELECT 1 FROM logs l WHERE l.stack_trace_ref = p.hash);
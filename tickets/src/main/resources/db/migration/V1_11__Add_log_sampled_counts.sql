@@ -0,0 +1,14 @@
+-- Per-minute counts of the INFO/DEBUG/WARN records that sampling did not store (see LogSampler).
+-- The unique key is the target of the upsert that adds each flush to its minute.
+
+CREATE TABLE IF NOT EXISTS log_sampled_counts (
+    id bigserial PRIMARY KEY,
+    tenant varchar(255) NOT NULL,
+    tag varchar(255) NOT NULL,
+    minute timestamp NOT NULL,
+    type varchar(255) NOT NULL,
+    dropped_count bigint NOT NULL,
+    CONSTRAINT uk_log_sampled_counts_key UNIQUE (tenant, tag, minute, type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_log_sampled_counts_minute ON log_sampled_counts (minute);
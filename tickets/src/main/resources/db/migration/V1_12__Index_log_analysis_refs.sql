@@ -0,0 +1,6 @@
+-- The retention sweep deletes the log_payloads rows that no log references (see
+-- LogRetentionService); each payload is looked up in logs by stack_trace_ref (V1_10) and
+-- analysis_ref.
+
+-- Indexes on the parent are created on every partition, present and future
+CREATE INDEX IF NOT EXISTS idx_logs_analysis_ref ON logs (analysis_ref);
@@ -0,0 +1,17 @@
+-- Logs ingested from Fluentd carry the same message in custom_message and description, so
+-- the search vector of V1_10 indexed it twice (weights A and B) and ts_rank counted message
+-- hits double, above exception type and class name matches. custom_message is now only
+-- indexed when it differs from description.
+-- A generated column cannot be altered in place: it is dropped and added again, which
+-- rewrites logs. Run during a maintenance window.
+
+ALTER TABLE logs DROP COLUMN IF EXISTS search_vector;
+
+ALTER TABLE logs ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', log_search_text(exception_type)), 'A') ||
+    setweight(to_tsvector('simple', log_search_text(NULLIF(custom_message, description))), 'A') ||
+    setweight(to_tsvector('simple', log_search_text(class_name)), 'B') ||
+    setweight(to_tsvector('simple', log_search_text(description)), 'B')) STORED;
+
+-- Indexes on the parent are created on every partition, present and future
+CREATE INDEX IF NOT EXISTS idx_logs_search_vector ON logs USING gin (search_vector);
@@ -0,0 +1,28 @@
+-- Composite indexes matching the filters of LogRepository, TicketRepository and the
+-- dashboard queries. Built CONCURRENTLY so large tables stay writable during the migration
+-- (Flyway runs these statements outside a transaction). If a build is interrupted, drop the
+-- INVALID index it leaves behind before re-running, IF NOT EXISTS would otherwise skip it.
+
+-- logs: tenant dashboards (created_at windows, critical counts, type distribution)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_tenant_created_at ON logs (tenant, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_tenant_severity_created_at ON logs (tenant, severity, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_tenant_type ON logs (tenant, type);
+
+-- logs: project statistics
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_project_created_at ON logs (project_id, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_project_type ON logs (project_id, type);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_project_severity ON logs (project_id, severity);
+
+-- logs: indexes previously only declared on the entity
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_project_timestamp_id ON logs (project_id, timestamp, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_tenant_timestamp_id ON logs (tenant, timestamp, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_created_at ON logs (created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_fingerprint ON logs (fingerprint);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_stack_trace_hash ON logs (stack_trace_hash);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_analysis_pending ON logs (analysis_pending);
+
+-- tickets: status histogram, per-status update windows, assignee dashboards
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_tenant_status_updated_at ON tickets (tenant, status, updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_tenant_created_at ON tickets (tenant, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_tenant_assignee_status ON tickets (tenant, assigned_to_user_id, status, updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tickets_tenant_fingerprint ON tickets (tenant, fingerprint);
@@ -0,0 +1,62 @@
+-- Turn logs into a table range-partitioned by month of created_at, so that retention drops
+-- whole partitions and queries bounded on created_at only scan the months they need.
+-- The existing rows are copied into the new partitions: run during a maintenance window.
+-- Upcoming partitions are created by LogRetentionService through create_logs_partition().
+
+CREATE OR REPLACE FUNCTION create_logs_partition(month_start date) RETURNS text AS $$
+DECLARE
+    first_day date := date_trunc('month', month_start)::date;
+    partition_name text := 'logs_p' || to_char(first_day, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF logs FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, first_day, (first_day + interval '1 month')::date);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    fk record;
+    month_start date;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('logs')) = 'p' THEN
+        RETURN;
+    END IF;
+
+    -- A foreign key cannot reference logs(id) alone once the key includes created_at
+    FOR fk IN SELECT conrelid::regclass AS table_name, conname FROM pg_constraint
+              WHERE contype = 'f' AND confrelid = to_regclass('logs') LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+    END LOOP;
+
+    UPDATE logs SET created_at = COALESCE(timestamp, now()) WHERE created_at IS NULL;
+    ALTER TABLE logs RENAME TO logs_unpartitioned;
+    CREATE TABLE logs (LIKE logs_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+
+    SELECT date_trunc('month', MIN(created_at))::date INTO month_start FROM logs_unpartitioned;
+    month_start := COALESCE(month_start, date_trunc('month', now())::date);
+    WHILE month_start <= (date_trunc('month', now()) + interval '2 months')::date LOOP
+        PERFORM create_logs_partition(month_start);
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+
+    INSERT INTO logs SELECT * FROM logs_unpartitioned;
+    DROP TABLE logs_unpartitioned;
+
+    ALTER TABLE logs ALTER COLUMN created_at SET NOT NULL;
+    ALTER TABLE logs ADD PRIMARY KEY (id, created_at);
+END $$;
+
+-- Indexes on the parent are created on every partition, present and future
+CREATE INDEX IF NOT EXISTS idx_logs_created_at ON logs (created_at);
+CREATE INDEX IF NOT EXISTS idx_logs_tenant_created_at ON logs (tenant, created_at);
+CREATE INDEX IF NOT EXISTS idx_logs_tenant_severity_created_at ON logs (tenant, severity, created_at);
+CREATE INDEX IF NOT EXISTS idx_logs_tenant_type ON logs (tenant, type);
+CREATE INDEX IF NOT EXISTS idx_logs_project_created_at ON logs (project_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_logs_project_type ON logs (project_id, type);
+CREATE INDEX IF NOT EXISTS idx_logs_project_severity ON logs (project_id, severity);
+CREATE INDEX IF NOT EXISTS idx_logs_project_timestamp_id ON logs (project_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_logs_tenant_timestamp_id ON logs (tenant, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_logs_fingerprint ON logs (fingerprint);
+CREATE INDEX IF NOT EXISTS idx_logs_stack_trace_hash ON logs (stack_trace_hash);
+CREATE INDEX IF NOT EXISTS idx_logs_analysis_pending ON logs (analysis_pending);
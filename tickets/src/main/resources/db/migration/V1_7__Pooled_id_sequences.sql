@@ -0,0 +1,26 @@
+-- Entity IDs are allocated 50 at a time with the pooled-lo optimizer: each sequence value
+-- is the first ID of a block, so the sequences must step by the allocation size.
+-- Tickets, comments and solutions move from identity columns to sequences, which lets
+-- Hibernate batch their inserts. Sequences restart above the highest existing ID.
+
+ALTER SEQUENCE IF EXISTS log_seq INCREMENT BY 50;
+
+DO $$
+DECLARE
+    target record;
+    next_id bigint;
+BEGIN
+    FOR target IN SELECT * FROM (VALUES ('tickets', 'ticket_seq'),
+                                        ('comments', 'comment_seq'),
+                                        ('solutions', 'solution_seq')) AS t(table_name, sequence_name) LOOP
+        IF to_regclass(target.table_name) IS NULL THEN
+            CONTINUE;
+        END IF;
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', target.sequence_name);
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', target.sequence_name);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', target.table_name);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', target.table_name);
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) + 1 FROM %I', target.table_name) INTO next_id;
+        PERFORM setval(target.sequence_name, GREATEST(next_id, nextval(target.sequence_name)), false);
+    END LOOP;
+END $$;
@@ -0,0 +1,46 @@
+-- Stack traces and analyzer output move from the logs rows to log_payloads, stored once per
+-- distinct content and referenced by the SHA-256 of their UTF-8 text (see LogPayloadStore).
+-- Recurring errors share the same stack trace, so most of this text was duplicated.
+-- Rewrites every log row: run during a maintenance window, then reclaim the space of logs
+-- (VACUUM FULL per partition, or pg_repack).
+-- Hibernate's schema update runs first (see SchemaMigrationConfig) and may already have created
+-- log_payloads with a bytea content: texts are then written in CompressedTextConverter's plain
+-- format, a zero format byte followed by the UTF-8 text.
+
+CREATE TABLE IF NOT EXISTS log_payloads (
+    hash varchar(64) PRIMARY KEY,
+    content text NOT NULL,
+    created_at timestamp
+);
+
+ALTER TABLE logs ADD COLUMN IF NOT EXISTS stack_trace_ref varchar(64);
+ALTER TABLE logs ADD COLUMN IF NOT EXISTS analysis_ref varchar(64);
+
+DO $$
+DECLARE
+    payload record;
+    content_value text := '%1$I';
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'log_payloads'
+          AND column_name = 'content') = 'bytea' THEN
+        content_value := '''\x00''::bytea || convert_to(%1$I, ''UTF8'')';
+    END IF;
+
+    FOR payload IN SELECT * FROM (VALUES ('stack_trace', 'stack_trace_ref'),
+                                         ('analysis_ia', 'analysis_ref')) AS p(text_column, ref_column) LOOP
+        IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema() AND table_name = 'logs'
+                         AND column_name = payload.text_column) THEN
+            CONTINUE;
+        END IF;
+        EXECUTE format('INSERT INTO log_payloads (hash, content, created_at) '
+                       'SELECT encode(sha256(convert_to(%1$I, ''UTF8'')), ''hex''), ' || content_value || ', now() '
+                       'FROM logs WHERE %1$I IS NOT NULL ON CONFLICT (hash) DO NOTHING',
+                       payload.text_column);
+        EXECUTE format('UPDATE logs SET %2$I = encode(sha256(convert_to(%1$I, ''UTF8'')), ''hex'') '
+                       'WHERE %1$I IS NOT NULL',
+                       payload.text_column, payload.ref_column);
+        EXECUTE format('ALTER TABLE logs DROP COLUMN %I', payload.text_column);
+    END LOOP;
+END $$;
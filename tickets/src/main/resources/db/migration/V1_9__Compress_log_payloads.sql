@@ -0,0 +1,16 @@
+-- Payload contents become bytea written by CompressedTextConverter: a format byte, then
+-- either plain UTF-8 or deflated text. Existing contents are kept as plain and stay readable;
+-- new payloads over the size threshold are stored compressed.
+-- Compressed values gain nothing from TOAST compression, so it is turned off for the column.
+
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'log_payloads'
+          AND column_name = 'content') = 'text' THEN
+        ALTER TABLE log_payloads ALTER COLUMN content TYPE bytea
+            USING '\x00'::bytea || convert_to(content, 'UTF8');
+    END IF;
+END $$;
+
+ALTER TABLE log_payloads ALTER COLUMN content SET STORAGE EXTERNAL;
@@ -0,0 +1,19 @@
+package com.windlogs.tickets.benchmark;
+
+import ch.qos.logback.classic.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Without a Spring context, logback logs everything at DEBUG to the console; the benchmarks
+ * would mostly measure console output.
+ */
+final class BenchmarkLogging {
+
+    private BenchmarkLogging() {
+    }
+
+    static void quiet() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+}
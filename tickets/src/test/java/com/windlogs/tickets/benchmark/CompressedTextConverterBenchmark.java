@@ -0,0 +1,72 @@
+package com.windlogs.tickets.benchmark;
+
+import com.windlogs.tickets.entity.CompressedTextConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of storing and reading back one log payload with {@link CompressedTextConverter},
+ * against plain UTF-8. The stored size of each payload is printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressedTextConverterBenchmark {
+
+    private static final String ANALYSIS = "{\"root_exception\":\"DataIntegrityViolationException\","
+            + "\"cause\":\"null value in column tenant\",\"location\":\"TicketService.java:118\","
+            + "\"exception_chain\":[\"DataIntegrityViolationException\",\"PSQLException\"],"
+            + "\"recommendation\":\"Set the tenant before saving the ticket\"}";
+
+    /**
+     * analysis is under the compression threshold, stackTrace a Spring MVC trace with causes
+     */
+    @Param({"analysis", "stackTrace"})
+    public String payload;
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(512);
+    private String text;
+    private byte[] stored;
+    private byte[] utf8;
+
+    @Setup
+    public void setUp() throws IOException {
+        if ("analysis".equals(payload)) {
+            text = ANALYSIS;
+        } else {
+            try (InputStream in = getClass().getResourceAsStream("/benchmark/stack-trace.txt")) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        stored = converter.convertToDatabaseColumn(text);
+        utf8 = text.getBytes(StandardCharsets.UTF_8);
+        System.out.printf("%n%s: %d bytes stored as %d%n", payload, utf8.length, stored.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return converter.convertToDatabaseColumn(text);
+    }
+
+    @Benchmark
+    public String decode() {
+        return converter.convertToEntityAttribute(stored);
+    }
+
+    @Benchmark
+    public byte[] encodePlainUtf8() {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String decodePlainUtf8() {
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
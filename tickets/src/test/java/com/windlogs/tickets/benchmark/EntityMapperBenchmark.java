@@ -0,0 +1,96 @@
+package com.windlogs.tickets.benchmark;
+
+import com.windlogs.tickets.dto.SolutionDTO;
+import com.windlogs.tickets.dto.TicketDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.entity.Solution;
+import com.windlogs.tickets.entity.Ticket;
+import com.windlogs.tickets.enums.ComplexityLevel;
+import com.windlogs.tickets.enums.Priority;
+import com.windlogs.tickets.enums.SolutionStatus;
+import com.windlogs.tickets.enums.Status;
+import com.windlogs.tickets.mapper.SolutionMapperImpl;
+import com.windlogs.tickets.mapper.TicketMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticket and solution mapping, both ways, as run for every item of the ticket and solution endpoints
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityMapperBenchmark {
+
+    private final TicketMapperImpl ticketMapper = new TicketMapperImpl();
+    private final SolutionMapperImpl solutionMapper = new SolutionMapperImpl();
+    private Ticket ticket;
+    private TicketDTO ticketDTO;
+    private Solution solution;
+    private SolutionDTO solutionDTO;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.quiet();
+        Log log = new Log();
+        log.setId(4242L);
+
+        ticket = new Ticket();
+        ticket.setId(1001L);
+        ticket.setTitle("Auto-generated ticket for log 4242");
+        ticket.setDescription("Order 17 not found");
+        ticket.setStatus(Status.IN_PROGRESS);
+        ticket.setPriority(Priority.HIGH);
+        ticket.setAttachments(List.of("screenshot.png"));
+        ticket.setAssignedToUserId(12L);
+        ticket.setTenant("acme");
+        ticket.setCreatorUserId(3L);
+        ticket.setUserEmail("dev@acme.test");
+        ticket.setLog(log);
+        ticket.setOccurrenceCount(5);
+        ticket.setLastOccurrenceAt(LocalDateTime.of(2024, 6, 10, 8, 30));
+        ticketDTO = ticketMapper.toDTO(ticket);
+
+        solution = new Solution();
+        solution.setId(2001L);
+        solution.setTitle("Set the tenant before saving");
+        solution.setComplexity(ComplexityLevel.MEDIUM);
+        solution.setContent("The ticket is saved before its tenant is copied from the project.");
+        solution.setAuthorUserId(12L);
+        solution.setStatus(SolutionStatus.SUBMITTED);
+        solution.setEstimatedTime(4);
+        solution.setCostEstimation(350.0);
+        solution.setCategory("bug");
+        solution.setTenant("acme");
+        solution.setTicket(ticket);
+        solution.setCreatedAt(LocalDateTime.of(2024, 6, 10, 9, 0));
+        solution.setUpdatedAt(LocalDateTime.of(2024, 6, 10, 9, 30));
+        solutionDTO = solutionMapper.toDTO(solution);
+    }
+
+    @Benchmark
+    public TicketDTO ticketToDTO() {
+        return ticketMapper.toDTO(ticket);
+    }
+
+    @Benchmark
+    public Ticket ticketToEntity() {
+        return ticketMapper.toEntity(ticketDTO);
+    }
+
+    @Benchmark
+    public SolutionDTO solutionToDTO() {
+        return solutionMapper.toDTO(solution);
+    }
+
+    @Benchmark
+    public Solution solutionToEntity() {
+        return solutionMapper.toEntity(solutionDTO);
+    }
+}
@@ -0,0 +1,48 @@
+package com.windlogs.tickets.benchmark;
+
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+import com.windlogs.tickets.mapper.FluentdLogMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The level and tenant rules {@link FluentdLogMapper} applies to each Fluentd record
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FluentdLogMapperBenchmark {
+
+    /**
+     * A known level, a lower-case one and one that falls back to the default
+     */
+    @Param({"ERROR", "warning", "TRACE"})
+    public String level;
+
+    private final FluentdLogMapper fluentdLogMapper = new FluentdLogMapper();
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.quiet();
+    }
+
+    @Benchmark
+    public LogType determineLogType() {
+        return fluentdLogMapper.determineLogType(level);
+    }
+
+    @Benchmark
+    public LogSeverity determineLogSeverity() {
+        return fluentdLogMapper.determineLogSeverity(level);
+    }
+
+    @Benchmark
+    public String extractTenant() {
+        return fluentdLogMapper.extractTenant("/acme_orders-api_1");
+    }
+}
@@ -0,0 +1,66 @@
+package com.windlogs.tickets.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.dto.FluentdLogRequest;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.mapper.FluentdLogMapper;
+import com.windlogs.tickets.mapper.FluentdRecordDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fluentd record to {@link Log}, as received by POST /api/v1/logs/fluentd: the body read
+ * into a string and bound by the ObjectMapper, against {@link FluentdRecordDecoder} reading
+ * the body stream. Compare gc.alloc.rate.norm (bytes per operation) as well as the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FluentdRecordDecoderBenchmark {
+
+    /**
+     * info: a plain INFO line; error: an ERROR with its thrown exception
+     */
+    @Param({"info", "error"})
+    public String record;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FluentdRecordDecoder decoder = new FluentdRecordDecoder(objectMapper);
+    private final FluentdLogMapper mapper = new FluentdLogMapper();
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.quiet();
+        String json = "{\"level\":\"INFO\",\"message\":\"GET /api/orders/17 200 12ms\",\"source\":\"stdout\","
+                + "\"timestamp\":1718000000,\"pid\":\"1\",\"thread\":\"http-nio-8080-exec-7\","
+                + "\"class_name\":\"com.acme.web.RequestLogger\",\"container_id\":\"3f2a9c1b7d6e\","
+                + "\"container_name\":\"/acme_orders-api_1\",\"tag\":\"docker.orders-api\"";
+        if ("error".equals(record)) {
+            json = json.replace("\"INFO\"", "\"ERROR\"")
+                    + ",\"thrown\":{\"name\":\"java.lang.IllegalStateException\",\"message\":\"Order 17 not found\","
+                    + "\"extendedStackTrace\":\"java.lang.IllegalStateException: Order 17 not found\\n"
+                    + "\\tat com.acme.orders.OrderService.find(OrderService.java:42)\\n"
+                    + "\\tat com.acme.orders.OrderController.get(OrderController.java:31)\\n\"}";
+        }
+        body = (json + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Log bindFromString() throws IOException {
+        String rawJsonBody = new String(body, StandardCharsets.UTF_8);
+        return mapper.toLog(objectMapper.readValue(rawJsonBody, FluentdLogRequest.class));
+    }
+
+    @Benchmark
+    public Log decodeFromStream() throws IOException {
+        return mapper.toLog(decoder.decode(new ByteArrayInputStream(body)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.windlogs.tickets.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.dto.LogDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.enums.LogType;
+import com.windlogs.tickets.mapper.LogMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LogMapper#toDTO}, run for each log of a listing, with and without the analyzer output to parse
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogMapperBenchmark {
+
+    private static final String ANALYSIS = "{\"root_exception\":\"DataIntegrityViolationException\","
+            + "\"cause\":\"null value in column tenant\",\"location\":\"TicketService.java:118\","
+            + "\"exception_chain\":[\"DataIntegrityViolationException\",\"PSQLException\"],"
+            + "\"recommendation\":\"Set the tenant before saving the ticket\"}";
+
+    private final LogMapper logMapper = new LogMapper(new ObjectMapper());
+    private Log log;
+    private Log analyzedLog;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.quiet();
+        log = new Log();
+        log.setId(4242L);
+        log.setType(LogType.ERROR);
+        log.setSeverity(LogSeverity.HIGH);
+        log.setTimestamp(LocalDateTime.of(2024, 6, 10, 8, 30));
+        log.setDescription("Order 17 not found");
+        log.setCustomMessage("Order 17 not found");
+        log.setSource("stdout");
+        log.setTenant("acme");
+        log.setProjectId(7L);
+        log.setThread("http-nio-8080-exec-7");
+        log.setClassName("com.acme.orders.OrderService");
+        log.setContainerName("/acme_orders-api_1");
+        log.setTag("docker.orders-api");
+        log.setStackTrace("java.lang.IllegalStateException: Order 17 not found\n\tat com.acme.orders.OrderService.find(OrderService.java:42)");
+        log.setExceptionType("java.lang.IllegalStateException");
+
+        analyzedLog = new Log();
+        analyzedLog.setId(4243L);
+        analyzedLog.setType(LogType.ERROR);
+        analyzedLog.setAnalysis(ANALYSIS);
+    }
+
+    @Benchmark
+    public LogDTO toDTO() {
+        return logMapper.toDTO(log);
+    }
+
+    @Benchmark
+    public LogDTO toDTOWithAnalysis() {
+        return logMapper.toDTO(analyzedLog);
+    }
+}
@@ -0,0 +1,63 @@
+package com.windlogs.tickets.benchmark;
+
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogType;
+import com.windlogs.tickets.kafka.LogEvent;
+import com.windlogs.tickets.kafka.LogProducer;
+import com.windlogs.tickets.service.LogService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the Kafka log event of the notify stage (LogService#sendLogNotification).
+ * The producer only keeps the event: no broker is needed, and only the construction is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogNotificationBenchmark {
+
+    private CapturingLogProducer logProducer;
+    private LogService logService;
+    private Log log;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.quiet();
+        logProducer = new CapturingLogProducer();
+        logService = new LogService(null, logProducer, null);
+        log = new Log();
+        log.setId(4242L);
+        log.setType(LogType.ERROR);
+        log.setTimestamp(LocalDateTime.of(2024, 6, 10, 8, 30));
+        log.setOriginalTimestamp(1718008200.0);
+        log.setPid("1");
+        log.setThread("http-nio-8080-exec-7");
+        log.setClassName("com.acme.orders.OrderService");
+        log.setContainerName("/acme_orders-api_1");
+    }
+
+    @Benchmark
+    public LogEvent sendLogNotification() {
+        logService.sendLogNotification(log, "acme", "dev@acme.test");
+        return logProducer.lastEvent;
+    }
+
+    static class CapturingLogProducer extends LogProducer {
+        LogEvent lastEvent;
+
+        CapturingLogProducer() {
+            super(null);
+        }
+
+        @Override
+        public void sendLogEvent(LogEvent logEvent) {
+            lastEvent = logEvent;
+        }
+    }
+}
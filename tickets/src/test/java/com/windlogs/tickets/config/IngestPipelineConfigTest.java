@@ -0,0 +1,60 @@
+package com.windlogs.tickets.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngestPipelineConfigTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ThreadPoolExecutor saturated = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new IngestPipelineConfig.CallerRunsUnlessNonBlockingPolicy());
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        saturated.shutdown();
+    }
+
+    @Test
+    void callerRunsUnlessNonBlockingPolicy_runsRejectedTasksOnTheSubmittingThread() {
+        saturate();
+        CompletableFuture<String> ranOn = new CompletableFuture<>();
+
+        saturated.execute(() -> ranOn.complete(Thread.currentThread().getName()));
+
+        assertEquals(Thread.currentThread().getName(), ranOn.join());
+    }
+
+    @Test
+    void callerRunsUnlessNonBlockingPolicy_neverRunsRejectedTasksOnANonBlockingThread() {
+        saturate();
+        CompletableFuture<String> ranOn = new CompletableFuture<>();
+
+        // Parallel scheduler threads are non-blocking, like Netty event loops
+        Mono.fromRunnable(() -> saturated.execute(() -> ranOn.complete(Thread.currentThread().getName())))
+                .subscribeOn(Schedulers.parallel())
+                .block();
+
+        assertTrue(ranOn.join().startsWith("boundedElastic"), ranOn.join());
+    }
+
+    private void saturate() {
+        saturated.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+}
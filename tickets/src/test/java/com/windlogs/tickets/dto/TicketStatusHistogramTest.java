@@ -0,0 +1,39 @@
+package com.windlogs.tickets.dto;
+
+import com.windlogs.tickets.enums.Status;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TicketStatusHistogramTest {
+
+    @Test
+    void fromRows_derivesDashboardCountersFromOneRowPerStatus() {
+        TicketStatusHistogram histogram = TicketStatusHistogram.fromRows(List.of(
+                new Object[]{"TO_DO", 6L, new BigDecimal("1.5"), 2L, 5L, 3L, 6L},
+                new Object[]{"DONE", 3L, new BigDecimal("48"), 0L, 1L, 1L, 2L},
+                new Object[]{null, 1L, null, 1L, 1L, 1L, 1L}));
+
+        assertEquals(10, histogram.total());
+        assertEquals(6, histogram.count(Status.TO_DO));
+        assertEquals(0, histogram.count(Status.IN_PROGRESS));
+        assertEquals(3, histogram.createdThisWeek());
+        assertEquals(7, histogram.createdThisMonth());
+        assertEquals(1, histogram.updatedThisWeek(Status.DONE));
+        assertEquals(2, histogram.updatedThisMonth(Status.DONE));
+        assertEquals(30.0, histogram.rate(Status.DONE), 1e-9);
+        assertEquals(List.of(Map.of("status", Status.DONE, "count", 3L)), histogram.testingProgress());
+    }
+
+    @Test
+    void rate_isZeroWithoutTickets() {
+        TicketStatusHistogram histogram = TicketStatusHistogram.fromRows(List.of());
+
+        assertEquals(0, histogram.total());
+        assertEquals(0.0, histogram.rate(Status.DONE));
+    }
+}
@@ -0,0 +1,58 @@
+package com.windlogs.tickets.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(512);
+
+    @Test
+    void shortTextIsStoredPlain() {
+        byte[] stored = converter.convertToDatabaseColumn("{\"cause\":\"boom\"}");
+
+        assertEquals(CompressedTextConverter.PLAIN, stored[0]);
+        assertEquals("{\"cause\":\"boom\"}", converter.convertToEntityAttribute(stored));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void stackTraceIsCompressedAndRoundTrips() {
+        String trace = stackTrace();
+
+        byte[] stored = converter.convertToDatabaseColumn(trace);
+
+        assertEquals(CompressedTextConverter.DEFLATE_V1, stored[0]);
+        assertTrue(stored.length * 5 < trace.getBytes(StandardCharsets.UTF_8).length,
+                "compressed to " + stored.length + " bytes");
+        assertEquals(trace, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void existingPlainValuesStayReadable() {
+        // As written by db/migration/V1_9 for payloads stored before compression
+        byte[] migrated = ("\0" + "élan").getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("élan", converter.convertToEntityAttribute(migrated));
+    }
+
+    static String stackTrace() {
+        StringBuilder trace = new StringBuilder("java.lang.IllegalStateException: Ticket 42 not found\n")
+                .append("\tat com.windlogs.tickets.service.TicketService.getTicketById(TicketService.java:118)\n");
+        for (int i = 0; i < 3; i++) {
+            trace.append("\tat org.springframework.aop.framework.ReflectiveMethodInvocation.proceed(ReflectiveMethodInvocation.java:184)\n")
+                    .append("\tat org.springframework.transaction.interceptor.TransactionInterceptor.invoke(TransactionInterceptor.java:119)\n")
+                    .append("\tat org.springframework.aop.framework.CglibAopProxy$DynamicAdvisedInterceptor.intercept(CglibAopProxy.java:727)\n");
+        }
+        return trace.append("\tat org.springframework.web.servlet.DispatcherServlet.doDispatch(DispatcherServlet.java:1089)\n")
+                .append("\tat jakarta.servlet.http.HttpServlet.service(HttpServlet.java:658)\n")
+                .append("\tat org.apache.catalina.core.ApplicationFilterChain.doFilter(ApplicationFilterChain.java:140)\n")
+                .append("\tat org.apache.tomcat.util.threads.ThreadPoolExecutor$Worker.run(ThreadPoolExecutor.java:659)\n")
+                .append("\tat java.base/java.lang.Thread.run(Thread.java:840)\n")
+                .toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.windlogs.tickets.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.dto.FluentdLogRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FluentdRecordDecoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FluentdRecordDecoder decoder = new FluentdRecordDecoder(objectMapper);
+
+    @Test
+    void decode_readsTheSameRecordAsTheObjectMapperBinding() throws Exception {
+        String record = "{\"level\":\"ERROR\",\"message\":\"Order 17 not found\",\"source\":\"stdout\","
+                + "\"timestamp\":1718000000.75,\"pid\":4242,\"thread\":\"http-nio-8080-exec-1\","
+                + "\"class_name\":\"com.acme.OrderService\",\"container_id\":\"3f2a\","
+                + "\"container_name\":\"/acme_api_1\",\"tag\":\"docker.api\",\"unknown\":{\"nested\":[1,2]},"
+                + "\"thrown\":{\"name\":\"java.lang.IllegalStateException\",\"extendedStackTrace\":\"at x\","
+                + "\"cause\":{\"name\":\"java.io.IOException\"}}}";
+
+        FluentdLogRequest decoded = decoder.decode(new ByteArrayInputStream(record.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(objectMapper.readValue(record, FluentdLogRequest.class), decoded);
+        assertEquals(1718000000L, decoded.getTimestamp());
+        assertEquals("4242", decoded.getPid());
+        assertEquals("java.io.IOException", decoded.getThrown().getCause().getName());
+    }
+
+    @Test
+    void decode_sharesOneInstanceOfRepeatedLowCardinalityValues() throws Exception {
+        String record = "{\"level\":\"INFO\",\"tag\":\"docker.api\",\"container_name\":\"/acme_api_1\",\"message\":\"ok\"}";
+
+        FluentdLogRequest first = decoder.decode(record);
+        FluentdLogRequest second = decoder.decode(record);
+
+        assertSame(first.getTag(), second.getTag());
+        assertSame(first.getLevel(), second.getLevel());
+        assertSame(first.getContainer_name(), second.getContainer_name());
+        assertEquals("docker.api", second.getTag());
+    }
+
+    @Test
+    void decode_rejectsWhatIsNotARecord() {
+        assertThrows(JsonProcessingException.class, () -> decoder.decode("[1,2]"));
+        assertThrows(JsonProcessingException.class, () -> decoder.decode("{not json}"));
+        assertThrows(JsonProcessingException.class, () -> decoder.decode("{\"timestamp\":\"yesterday\"}"));
+    }
+
+    @Test
+    void extractTenant_takesTheContainerNameUpToTheFirstUnderscore() {
+        FluentdLogMapper mapper = new FluentdLogMapper();
+
+        assertEquals("acme", mapper.extractTenant("/acme_api_1"));
+        assertEquals("acme", mapper.extractTenant("/acme"));
+        assertEquals("", mapper.extractTenant("/_api"));
+        assertEquals("default", mapper.extractTenant("acme_api"));
+        assertEquals("default", mapper.extractTenant(null));
+        assertSame(mapper.extractTenant("/acme_api_1"), mapper.extractTenant("/acme_worker_2"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.windlogs.tickets.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the hot query shapes of the logs and tickets repositories are served by an
+ * index once the migrations in db/migration are applied.
+ * Runs against a local PostgreSQL when QUERY_PLAN_DB_URL is set, e.g.
+ * {@code QUERY_PLAN_DB_URL=jdbc:postgresql://localhost:5432/tickets mvn test -Dtest=QueryPlanRegressionTest}
+ * (QUERY_PLAN_DB_USER and QUERY_PLAN_DB_PASSWORD default to postgres/postgres).
+ * Everything happens in a throwaway schema that is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_DB_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanRegressionTest {
+    private static final String SCHEMA = "query_plan_test_" + System.nanoTime();
+
+    private Connection connection;
+
+    @BeforeAll
+    void setUp() throws SQLException {
+        String url = System.getenv("QUERY_PLAN_DB_URL");
+        String user = System.getenv().getOrDefault("QUERY_PLAN_DB_USER", "postgres");
+        String password = System.getenv().getOrDefault("QUERY_PLAN_DB_PASSWORD", "postgres");
+        connection = DriverManager.getConnection(url, user, password);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA);
+            // The columns the repositories filter on, as Hibernate creates them
+            statement.execute("CREATE TABLE logs (id BIGINT PRIMARY KEY, type VARCHAR(255), "
+                    + "timestamp TIMESTAMP, severity VARCHAR(255), tenant VARCHAR(255), created_at TIMESTAMP, "
+                    + "description TEXT, custom_message VARCHAR(255), class_name VARCHAR(255), exception_type VARCHAR(255), "
+                    + "project_id BIGINT, stack_trace TEXT, analysis_ia TEXT, stack_trace_hash VARCHAR(64), "
+                    + "analysis_pending BOOLEAN, fingerprint VARCHAR(64))");
+            statement.execute("CREATE TABLE tickets (id BIGSERIAL PRIMARY KEY, status VARCHAR(255), "
+                    + "tenant VARCHAR(255) NOT NULL, assigned_to_user_id BIGINT, fingerprint VARCHAR(64), "
+                    + "created_at TIMESTAMP, updated_at TIMESTAMP)");
+            statement.execute("CREATE TABLE log_payloads (hash VARCHAR(64) PRIMARY KEY, content BYTEA NOT NULL, "
+                    + "created_at TIMESTAMP)");
+        }
+
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(SCHEMA)
+                .defaultSchema(SCHEMA)
+                .baselineOnMigrate(true)
+                .baselineVersion("1.3")
+                .load()
+                .migrate();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE logs");
+            statement.execute("ANALYZE tickets");
+            statement.execute("ANALYZE log_payloads");
+            // Tables are empty: make the planner show which index it would use at scale
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    static Stream<Arguments> queryShapes() {
+        return Stream.of(
+                Arguments.of("logs", "SELECT COUNT(*) FROM logs WHERE tenant = 't' AND severity = 'HIGH'"),
+                Arguments.of("logs", "SELECT COUNT(DISTINCT project_id) FROM logs "
+                        + "WHERE tenant = 't' AND created_at >= CURRENT_DATE - INTERVAL '7 days'"),
+                Arguments.of("logs", "SELECT type, COUNT(*) FROM logs WHERE tenant = 't' GROUP BY type"),
+                Arguments.of("logs", "SELECT DATE(timestamp), type, COUNT(*) FROM logs "
+                        + "WHERE project_id = 1 GROUP BY DATE(timestamp), type"),
+                Arguments.of("logs", "SELECT COUNT(*) FROM logs WHERE project_id = 1 AND type = 'ERROR'"),
+                Arguments.of("logs", "SELECT COUNT(*) FROM logs WHERE project_id = 1 AND severity = 'HIGH'"),
+                Arguments.of("logs", "SELECT tenant, project_id, CAST(created_at AS date), type, severity, COUNT(*) "
+                        + "FROM logs WHERE created_at >= CURRENT_DATE - 1 "
+                        + "GROUP BY tenant, project_id, CAST(created_at AS date), type, severity"),
+                Arguments.of("logs", "SELECT id FROM logs WHERE tenant = 't' "
+                        + "AND (timestamp < now() OR (timestamp = now() AND id < 100)) "
+                        + "ORDER BY timestamp DESC, id DESC LIMIT 50"),
+                Arguments.of("logs", "SELECT id FROM logs WHERE stack_trace_hash = 'h' "
+                        + "AND analysis_ref IS NOT NULL ORDER BY id DESC LIMIT 1"),
+                Arguments.of("logs", "SELECT 1 FROM logs WHERE analysis_ref = 'h'"),
+                Arguments.of("logs", "SELECT id FROM logs WHERE tenant = 't' "
+                        + "AND search_vector @@ plainto_tsquery('simple', log_search_text('TicketService boom'))"),
+                Arguments.of("log_payloads", "SELECT l.id FROM log_payloads p JOIN logs l ON l.stack_trace_ref = p.hash "
+                        + "WHERE p.search_vector @@ plainto_tsquery('simple', 'boom') AND l.tenant = 't'"),
+                Arguments.of("tickets", "SELECT status, COUNT(*) FROM tickets WHERE tenant = 't' GROUP BY status"),
+                Arguments.of("tickets", "SELECT status, COUNT(*) FROM tickets "
+                        + "WHERE tenant = 't' AND assigned_to_user_id = 1 GROUP BY status"),
+                Arguments.of("tickets", "SELECT COUNT(*) FROM tickets WHERE tenant = 't' AND status = 'DONE' "
+                        + "AND updated_at BETWEEN now() - INTERVAL '7 days' AND now()"),
+                Arguments.of("tickets", "SELECT id FROM tickets WHERE tenant = 't' AND fingerprint = 'f' "
+                        + "AND status <> 'DONE' LIMIT 1"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("queryShapes")
+    void queryShape_usesAnIndexCondition(String table, String query) throws SQLException {
+        String plan = explain(query);
+
+        assertFalse(plan.contains("Seq Scan on " + table), () -> "Sequential scan for " + query + "\n" + plan);
+        assertTrue(plan.contains("Index Cond"), () -> "No index condition for " + query + "\n" + plan);
+    }
+
+    private String explain(String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + query)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.windlogs.tickets.repository;
+
+import com.windlogs.tickets.entity.CompressedTextConverter;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the migrations in db/migration to a database that existed before them, in the state
+ * Hibernate's schema update leaves it in: the update runs first (see SchemaMigrationConfig), so
+ * tables and columns of the current entities already exist next to the old ones.
+ * Runs against a local PostgreSQL when QUERY_PLAN_DB_URL is set, like QueryPlanRegressionTest,
+ * in a throwaway schema that is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_DB_URL", matches = ".+")
+public class SchemaMigrationTest {
+    private static final String STACK_TRACE = "java.lang.IllegalStateException: boom\n"
+            + "\tat com.windlogs.tickets.service.TicketService.create(TicketService.java:42)\n";
+    private static final String ANALYSIS = "{\"root_exception\":\"IllegalStateException\"}";
+
+    private final String schema = "schema_migration_test_" + System.nanoTime();
+    private String url;
+    private String user;
+    private String password;
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        url = System.getenv("QUERY_PLAN_DB_URL");
+        user = System.getenv().getOrDefault("QUERY_PLAN_DB_USER", "postgres");
+        password = System.getenv().getOrDefault("QUERY_PLAN_DB_PASSWORD", "postgres");
+        connection = DriverManager.getConnection(url, user, password);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA " + schema);
+            statement.execute("SET search_path TO " + schema);
+            // logs as created before the migrations (stack_trace, analysis_ia), with the
+            // columns Hibernate adds for the current Log entity
+            statement.execute("CREATE TABLE logs (id BIGINT PRIMARY KEY, type VARCHAR(255), "
+                    + "timestamp TIMESTAMP(6), description TEXT, source VARCHAR(255), error_code VARCHAR(255), "
+                    + "custom_message VARCHAR(255), severity VARCHAR(255), tenant VARCHAR(255), "
+                    + "created_at TIMESTAMP(6), project_id BIGINT, pid VARCHAR(255), thread VARCHAR(255), "
+                    + "class_name VARCHAR(255), container_id VARCHAR(255), container_name VARCHAR(255), "
+                    + "original_timestamp FLOAT(53), tag VARCHAR(255), stack_trace TEXT, exception_type VARCHAR(255), "
+                    + "analysis_ia VARCHAR(255), stack_trace_ref VARCHAR(64), analysis_ref VARCHAR(64), "
+                    + "stack_trace_hash VARCHAR(64), analysis_pending BOOLEAN, analysis_attempts INTEGER, "
+                    + "fingerprint VARCHAR(64), attached_ticket_id BIGINT)");
+            statement.execute("CREATE SEQUENCE log_seq START WITH 1 INCREMENT BY 50");
+            statement.execute("CREATE TABLE tickets (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "status VARCHAR(255), tenant VARCHAR(255) NOT NULL, assigned_to_user_id BIGINT, "
+                    + "log_id BIGINT, fingerprint VARCHAR(64), created_at TIMESTAMP(6), updated_at TIMESTAMP(6))");
+            // LogPayload goes through CompressedTextConverter, so Hibernate maps its content to bytea
+            statement.execute("CREATE TABLE log_payloads (hash VARCHAR(64) NOT NULL PRIMARY KEY, "
+                    + "content BYTEA NOT NULL, created_at TIMESTAMP(6))");
+            statement.execute("INSERT INTO logs (id, type, tenant, created_at, timestamp, description, "
+                    + "stack_trace, analysis_ia) VALUES (1, 'ERROR', 't', now(), now(), 'boom', "
+                    + "'" + STACK_TRACE + "', '" + ANALYSIS + "')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA " + schema + " CASCADE");
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    void migrate_movesPayloadsOfExistingLogsIntoTheHibernateCreatedTable() throws SQLException {
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(schema)
+                .defaultSchema(schema)
+                .baselineOnMigrate(true)
+                .baselineVersion("1.3")
+                .load()
+                .migrate();
+
+        CompressedTextConverter converter = new CompressedTextConverter(512);
+        try (Statement statement = connection.createStatement();
+             ResultSet log = statement.executeQuery("SELECT stack_trace_ref, analysis_ref FROM logs WHERE id = 1")) {
+            assertTrue(log.next());
+            assertEquals(sha256(STACK_TRACE), log.getString("stack_trace_ref"));
+            assertEquals(sha256(ANALYSIS), log.getString("analysis_ref"));
+        }
+        assertEquals(STACK_TRACE, converter.convertToEntityAttribute(payload(sha256(STACK_TRACE))));
+        assertEquals(ANALYSIS, converter.convertToEntityAttribute(payload(sha256(ANALYSIS))));
+        try (Statement statement = connection.createStatement();
+             ResultSet columns = statement.executeQuery("SELECT column_name FROM information_schema.columns "
+                     + "WHERE table_schema = '" + schema + "' AND table_name = 'logs' "
+                     + "AND column_name IN ('stack_trace', 'analysis_ia')")) {
+            assertFalse(columns.next(), "Payload columns still on logs");
+        }
+    }
+
+    private byte[] payload(String hash) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT content FROM log_payloads WHERE hash = ?")) {
+            statement.setString(1, hash);
+            try (ResultSet payload = statement.executeQuery()) {
+                assertTrue(payload.next(), () -> "No payload " + hash);
+                return payload.getBytes(1);
+            }
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
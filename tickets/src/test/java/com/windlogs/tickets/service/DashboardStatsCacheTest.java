@@ -0,0 +1,86 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.service.DashboardStatsCache.DashboardKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DashboardStatsCacheTest {
+    private static final DashboardKey MANAGER_A = new DashboardKey("tenant-a", "MANAGER", null);
+    private static final DashboardKey MANAGER_B = new DashboardKey("tenant-b", "MANAGER", null);
+
+    private DashboardStatsCache dashboardStatsCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        dashboardStatsCache = new DashboardStatsCache(new SimpleMeterRegistry(), 100, 60);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_coalescesConcurrentRequestsIntoOneComputation() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Map<String, Object>> first = CompletableFuture.supplyAsync(() ->
+                dashboardStatsCache.get(MANAGER_A, () -> {
+                    loading.countDown();
+                    await(release);
+                    return Map.of("totalTickets", (long) loads.incrementAndGet());
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Map<String, Object>> second = CompletableFuture.supplyAsync(() ->
+                dashboardStatsCache.get(MANAGER_A, () -> Map.of("totalTickets", (long) loads.incrementAndGet())));
+        release.countDown();
+
+        assertEquals(Map.of("totalTickets", 1L), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Map.of("totalTickets", 1L), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateTenant_onlyDropsThatTenantsDashboards() {
+        dashboardStatsCache.get(MANAGER_A, this::load);
+        dashboardStatsCache.get(MANAGER_B, this::load);
+
+        dashboardStatsCache.invalidateTenant("tenant-a");
+        dashboardStatsCache.get(MANAGER_A, this::load);
+        dashboardStatsCache.get(MANAGER_B, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_doesNotKeepPartialDashboards() {
+        Map<String, Object> partial = Map.of(StatsQueryRunner.ERRORS_KEY, Map.of("logs", "timeout"));
+
+        assertEquals(partial, dashboardStatsCache.get(MANAGER_A, () -> {
+            loads.incrementAndGet();
+            return partial;
+        }));
+        dashboardStatsCache.get(MANAGER_A, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private Map<String, Object> load() {
+        return Map.of("totalTickets", (long) loads.incrementAndGet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogRepository;
+import com.windlogs.tickets.service.StackTraceAnalysisCache.CachedAnalysis;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DeferredAnalysisServiceTest {
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private LogPayloadStore logPayloadStore;
+
+    @Mock
+    private StackTraceAnalysisCache stackTraceAnalysisCache;
+
+    @Mock
+    private ExceptionAnalyzerService exceptionAnalyzerService;
+
+    private DeferredAnalysisService deferredAnalysisService;
+
+    @BeforeEach
+    void setUp() {
+        deferredAnalysisService = new DeferredAnalysisService(logRepository, logPayloadStore, stackTraceAnalysisCache,
+                exceptionAnalyzerService, 50, 2);
+    }
+
+    @Test
+    void reanalyzePending_skipsRunWhileAnalyzerIsDown() {
+        when(exceptionAnalyzerService.isAvailable()).thenReturn(false);
+
+        assertEquals(0, deferredAnalysisService.reanalyzePending());
+        verifyNoInteractions(logRepository, stackTraceAnalysisCache);
+    }
+
+    @Test
+    void reanalyzePending_fillsInAnalysisAndRetriesFailures() {
+        Log recovered = pendingLog(1L, "hash-1");
+        Log failing = pendingLog(2L, "hash-2");
+        when(exceptionAnalyzerService.isAvailable()).thenReturn(true);
+        when(logRepository.findByAnalysisPendingTrueOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(recovered, failing));
+        when(stackTraceAnalysisCache.analyzeStackTrace("hash-1", "raw trace"))
+                .thenReturn(CompletableFuture.completedFuture(new CachedAnalysis("formatted", "{}")));
+        when(stackTraceAnalysisCache.analyzeStackTrace("hash-2", "raw trace"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(2, deferredAnalysisService.reanalyzePending());
+
+        assertFalse(recovered.getAnalysisPending());
+        assertEquals("{}", recovered.getAnalysis());
+        assertEquals("formatted", recovered.getStackTrace());
+        assertTrue(failing.getAnalysisPending());
+        assertEquals(1, failing.getAnalysisAttempts());
+
+        // Second failure reaches max attempts
+        deferredAnalysisService.reanalyzePending();
+        assertFalse(failing.getAnalysisPending());
+        verify(logRepository, times(4)).updateEnrichment(any(Log.class));
+        verify(logPayloadStore, times(2)).externalize(recovered);
+    }
+
+    private static Log pendingLog(Long id, String stackTraceHash) {
+        Log log = new Log();
+        log.setId(id);
+        log.setStackTraceHash(stackTraceHash);
+        log.setStackTrace("raw trace");
+        log.setExceptionType("java.lang.IllegalStateException");
+        log.setAnalysisPending(true);
+        return log;
+    }
+}
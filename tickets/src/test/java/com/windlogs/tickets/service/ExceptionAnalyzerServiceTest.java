@@ -0,0 +1,173 @@
+package com.windlogs.tickets.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.windlogs.tickets.exception.AnalyzerBatchUnsupportedException;
+import com.windlogs.tickets.service.ExceptionAnalyzerService.StackTraceAnalysisResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the analyzer client against a local stub analyzer
+ */
+public class ExceptionAnalyzerServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private volatile boolean batchEndpointAvailable = true;
+    private volatile long batchDelayMs;
+
+    private HttpServer stubAnalyzer;
+    private WebClient webClient;
+    private CircuitBreaker circuitBreaker;
+    private ExceptionAnalyzerService exceptionAnalyzerService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubAnalyzer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubAnalyzer.createContext("/analyze-stack-trace", this::handleSingle);
+        stubAnalyzer.createContext("/analyze-stack-trace/batch", this::handleBatch);
+        stubAnalyzer.start();
+
+        webClient = WebClient.create("http://localhost:" + stubAnalyzer.getAddress().getPort());
+        // Same ignored exceptions as AnalyzerClientConfig
+        circuitBreaker = CircuitBreaker.of("analyzer", CircuitBreakerConfig.custom()
+                .ignoreExceptions(BulkheadFullException.class, AnalyzerBatchUnsupportedException.class)
+                .build());
+        exceptionAnalyzerService = new ExceptionAnalyzerService(webClient, circuitBreaker, Bulkhead.ofDefaults("analyzer"),
+                2000, 2000, 2000, 2000, true, 3, 500, 2, 100, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        exceptionAnalyzerService.shutdown();
+        stubAnalyzer.stop(0);
+    }
+
+    @Test
+    void analyzeStackTraceAsync_groupsTracesIntoOneRequest() {
+        List<StackTraceAnalysisResponse> results = analyzeConcurrently("trace-a", "trace-b", "trace-c");
+
+        assertEquals(List.of("analyzed trace-a", "analyzed trace-b", "analyzed trace-c"),
+                results.stream().map(StackTraceAnalysisResponse::getStackTrace).toList());
+        assertEquals(1, batchCalls.get());
+        assertEquals(0, singleCalls.get());
+    }
+
+    @Test
+    void analyzeStackTraceAsync_fallsBackToSingleCallsWithoutBatchEndpoint() {
+        batchEndpointAvailable = false;
+
+        List<StackTraceAnalysisResponse> results = analyzeConcurrently("trace-a", "trace-b", "trace-c");
+        assertEquals(List.of("analyzed trace-a", "analyzed trace-b", "analyzed trace-c"),
+                results.stream().map(StackTraceAnalysisResponse::getStackTrace).toList());
+        assertEquals(1, batchCalls.get());
+        assertEquals(3, singleCalls.get());
+        // The 404 of the batch endpoint is not an analyzer failure
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+
+        // The batch endpoint is not tried again
+        analyzeConcurrently("trace-d", "trace-e", "trace-f");
+        assertEquals(1, batchCalls.get());
+        assertEquals(6, singleCalls.get());
+    }
+
+    @Test
+    void analyzeStackTraceAsync_keepsGroupingWhileTheAnalyzerIsSlow() {
+        // One group in flight at a time, so full groups pile up behind it
+        exceptionAnalyzerService.shutdown();
+        exceptionAnalyzerService = new ExceptionAnalyzerService(webClient, circuitBreaker, Bulkhead.ofDefaults("analyzer"),
+                2000, 2000, 2000, 2000, true, 3, 10, 1, 100, 5000);
+        batchDelayMs = 100;
+
+        List<StackTraceAnalysisResponse> results = analyzeConcurrently(
+                "trace-a", "trace-b", "trace-c", "trace-d", "trace-e", "trace-f", "trace-g", "trace-h", "trace-i");
+        assertEquals(9, results.size());
+        assertEquals(0, singleCalls.get());
+
+        // The batching is still running
+        analyzeConcurrently("trace-j");
+        assertEquals(0, singleCalls.get());
+    }
+
+    @Test
+    void analyzeStackTraceAsync_failsWhenTheGroupTakesTooLong() {
+        exceptionAnalyzerService.shutdown();
+        exceptionAnalyzerService = new ExceptionAnalyzerService(webClient, circuitBreaker, Bulkhead.ofDefaults("analyzer"),
+                2000, 2000, 2000, 5000, true, 3, 10, 1, 100, 200);
+        batchDelayMs = 1000;
+
+        CompletableFuture<StackTraceAnalysisResponse> result =
+                exceptionAnalyzerService.analyzeStackTraceAsync("trace-a").toFuture();
+        assertThrows(CompletionException.class, result::join);
+    }
+
+    private List<StackTraceAnalysisResponse> analyzeConcurrently(String... stackTraces) {
+        List<CompletableFuture<StackTraceAnalysisResponse>> futures = Stream.of(stackTraces)
+                .map(stackTrace -> exceptionAnalyzerService.analyzeStackTraceAsync(stackTrace).toFuture())
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private void handleSingle(HttpExchange exchange) throws IOException {
+        singleCalls.incrementAndGet();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        respond(exchange, 200, analysis(request.get("message").asText()));
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        batchCalls.incrementAndGet();
+        if (batchDelayMs > 0) {
+            try {
+                Thread.sleep(batchDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!batchEndpointAvailable) {
+            respond(exchange, 404, objectMapper.createObjectNode().put("detail", "Not Found"));
+            return;
+        }
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        ArrayNode results = objectMapper.createArrayNode();
+        request.get("messages").forEach(message -> results.add(analysis(message.asText())));
+        respond(exchange, 200, objectMapper.createObjectNode().set("results", results));
+    }
+
+    private ObjectNode analysis(String stackTrace) {
+        ObjectNode analysis = objectMapper.createObjectNode();
+        analysis.put("exception_type", "java.lang.IllegalStateException");
+        analysis.put("stack_trace", "analyzed " + stackTrace);
+        return analysis;
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,104 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.service.IngestRateLimiter.Admission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngestRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private double nextRandom;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nextRandom = 0.5;
+    }
+
+    private IngestRateLimiter limiter(double sampleRate) {
+        // Tenants: 10/s, burst 5; tags: 2/s, burst 3
+        return new IngestRateLimiter(meterRegistry, true, 10, 5, 2, 3, sampleRate, 100,
+                now::get, () -> nextRandom);
+    }
+
+    @Test
+    void admit_degradesOverTheTenantBurstThenRefills() {
+        IngestRateLimiter limiter = limiter(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Admission.FULL, limiter.admit("acme", ""));
+        }
+        assertEquals(Admission.DEGRADED, limiter.admit("acme", ""));
+        // Other tenants keep their own budget
+        assertEquals(Admission.FULL, limiter.admit("globex", ""));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(Admission.FULL, limiter.admit("acme", ""));
+        assertEquals(Admission.DEGRADED, limiter.admit("acme", ""));
+
+        assertEquals(2.0, meterRegistry.counter("ingest.rate-limit.over-limit",
+                "limit", "tenant", "outcome", "degraded").count());
+    }
+
+    @Test
+    void admit_limitsEachTagWithinATenant() {
+        IngestRateLimiter limiter = limiter(0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Admission.FULL, limiter.admit("acme", "api"));
+        }
+        assertEquals(Admission.DEGRADED, limiter.admit("acme", "api"));
+        assertEquals(Admission.FULL, limiter.admit("acme", "worker"));
+        assertEquals(1.0, meterRegistry.counter("ingest.rate-limit.over-limit",
+                "limit", "tag", "outcome", "degraded").count());
+    }
+
+    @Test
+    void admit_doesNotChargeTheTenantForRecordsDegradedByTheirTag() {
+        IngestRateLimiter limiter = limiter(0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Admission.FULL, limiter.admit("acme", "api"));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Admission.DEGRADED, limiter.admit("acme", "api"));
+        }
+        // 3 of the 5 tenant permits are used: the noisy tag does not starve the other ones
+        assertEquals(Admission.FULL, limiter.admit("acme", "worker"));
+        assertEquals(Admission.FULL, limiter.admit("acme", "worker"));
+        assertEquals(Admission.DEGRADED, limiter.admit("acme", "worker"));
+        assertTrue(meterRegistry.find("ingest.rate-limit.over-limit").tagKeys("tenant").meters().isEmpty());
+    }
+
+    @Test
+    void admit_fullyProcessesASampleOfTheOverLimitRecords() {
+        IngestRateLimiter limiter = limiter(0.1);
+        for (int i = 0; i < 5; i++) {
+            limiter.admit("acme", "");
+        }
+
+        nextRandom = 0.05;
+        assertEquals(Admission.FULL, limiter.admit("acme", ""));
+        nextRandom = 0.5;
+        assertEquals(Admission.DEGRADED, limiter.admit("acme", ""));
+        assertEquals(1.0, meterRegistry.counter("ingest.rate-limit.over-limit",
+                "limit", "tenant", "outcome", "sampled").count());
+    }
+
+    @Test
+    void admit_letsEverythingThroughWhenDisabled() {
+        IngestRateLimiter limiter = new IngestRateLimiter(meterRegistry, false, 10, 1, 2, 1, 0, 100,
+                now::get, () -> nextRandom);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Admission.FULL, limiter.admit("acme", "api"));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.windlogs.tickets.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogExportFormat;
+import com.windlogs.tickets.enums.LogType;
+import com.windlogs.tickets.repository.LogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LogExportServiceTest {
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private LogPayloadStore logPayloadStore;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private LogExportService logExportService;
+
+    @BeforeEach
+    void setUp() {
+        logExportService = new LogExportService(logRepository, logPayloadStore, objectMapper, 100, 1);
+    }
+
+    @Test
+    void export_writesOneJsonObjectPerLineAndClosesTheStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(logRepository.streamLogs(any(LogFilterDTO.class), eq(100)))
+                .thenReturn(Stream.of(log(1L, "first"), log(2L, "second")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = logExportService.export(new LogFilterDTO(), LogExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("ERROR", first.get("type").asText());
+        assertEquals("2024-05-01T12:00", first.get("timestamp").asText());
+        assertTrue(first.get("stackTrace").isNull());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void export_quotesCsvFieldsWhenNeeded() throws Exception {
+        when(logRepository.streamLogs(any(LogFilterDTO.class), eq(100)))
+                .thenReturn(Stream.of(log(1L, "says \"hi\", twice\nthen stops")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        logExportService.export(new LogFilterDTO(), LogExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,timestamp,type,"));
+        assertTrue(csv.contains(",\"says \"\"hi\"\", twice\nthen stops\","));
+    }
+
+    private static Log log(Long id, String description) {
+        Log log = new Log();
+        log.setId(id);
+        log.setType(LogType.ERROR);
+        log.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 0));
+        log.setDescription(description);
+        return log;
+    }
+}
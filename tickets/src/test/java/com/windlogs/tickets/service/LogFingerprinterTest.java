@@ -0,0 +1,35 @@
+package com.windlogs.tickets.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFingerprinterTest {
+
+    private final LogFingerprinter fingerprinter = new LogFingerprinter();
+
+    @Test
+    void fingerprint_ignoresVariablePartsOfTheError() {
+        String first = fingerprinter.fingerprint("User 'alice' not found (id=12)", "java.lang.IllegalStateException",
+                "com.acme.UserService",
+                "java.lang.IllegalStateException: boom\n"
+                        + "\tat com.acme.UserService.find(UserService.java:42) ~[app.jar:1.0]\n"
+                        + "\tat com.acme.UserService$$SpringCGLIB$$0.find(<generated>)\n");
+        String second = fingerprinter.fingerprint("User 'bob' not found (id=981)", "java.lang.IllegalStateException",
+                "com.acme.UserService",
+                "java.lang.IllegalStateException: boom\n"
+                        + "\tat com.acme.UserService.find(UserService.java:57) ~[app.jar:1.1]\n"
+                        + "\tat com.acme.UserService$$SpringCGLIB$$1.find(<generated>)\n");
+
+        assertEquals(first, second);
+        assertEquals(64, first.length());
+    }
+
+    @Test
+    void fingerprint_separatesDifferentErrors() {
+        String npe = fingerprinter.fingerprint("boom", "java.lang.NullPointerException", "com.acme.A", null);
+        String iae = fingerprinter.fingerprint("boom", "java.lang.IllegalArgumentException", "com.acme.A", null);
+
+        assertNotEquals(npe, iae);
+    }
+}
@@ -0,0 +1,216 @@
+package com.windlogs.tickets.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.dto.IngestResultDTO;
+import com.windlogs.tickets.dto.TicketDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.mapper.FluentdLogMapper;
+import com.windlogs.tickets.mapper.FluentdRecordDecoder;
+import com.windlogs.tickets.repository.LogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LogIngestServiceTest {
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private LogPayloadStore logPayloadStore;
+
+    @Mock
+    private LogService logService;
+
+    @Mock
+    private LogTailService logTailService;
+
+    @Mock
+    private IngestRateLimiter ingestRateLimiter;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @Mock
+    private TicketService ticketService;
+
+    @Mock
+    private ProjectService projectService;
+
+    @Mock
+    private StackTraceAnalysisCache stackTraceAnalysisCache;
+
+    private LogIngestService logIngestService;
+
+    @BeforeEach
+    void setUp() {
+        logIngestService = new LogIngestService(logRepository, logPayloadStore, logService, logTailService, ingestRateLimiter, logSampler,
+                ticketService, projectService, stackTraceAnalysisCache, new FluentdLogMapper(), new LogFingerprinter(),
+                new FluentdRecordDecoder(new ObjectMapper()),
+                new SyncTaskExecutor(), new SyncTaskExecutor(), new SyncTaskExecutor());
+        ReflectionTestUtils.setField(logIngestService, "chunkSize", 2);
+        ReflectionTestUtils.setField(logIngestService, "ticketMinSeverity", LogSeverity.LOW);
+
+        lenient().when(logSampler.sample(any(Log.class), any())).thenReturn(true);
+        lenient().when(ingestRateLimiter.admit(any(), any())).thenReturn(IngestRateLimiter.Admission.FULL);
+        AtomicLong ids = new AtomicLong(100);
+        when(logRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Log> logs = new ArrayList<>(invocation.getArgument(0));
+            logs.forEach(log -> log.setId(ids.incrementAndGet()));
+            return logs;
+        });
+        when(logRepository.updateEnrichment(any(Log.class))).thenReturn(1);
+        lenient().when(projectService.getDefaultAssignee(anyLong())).thenReturn(Optional.empty());
+        lenient().when(ticketService.withFingerprintLock(any(Log.class), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(ticketService.createTicket(any(TicketDTO.class))).thenAnswer(invocation -> {
+            TicketDTO ticket = invocation.getArgument(0);
+            ticket.setId(ticket.getLogId() + 1000);
+            return ticket;
+        });
+    }
+
+    @Test
+    void ingestNdjson_persistsInChunksAndReportsPerRecordResults() throws Exception {
+        String body = "{\"level\":\"ERROR\",\"message\":\"first\",\"container_name\":\"/acme_api\"}\n"
+                + "\n"
+                + "{not json}\n"
+                + "{\"level\":\"WARN\",\"message\":\"second\"}\n"
+                + "{\"level\":\"INFO\",\"message\":\"third\"}\n";
+
+        when(ticketService.recordOccurrence(any(Log.class))).thenReturn(Optional.empty());
+
+        List<IngestResultDTO> results = logIngestService.ingestNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, results.size());
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(IngestResultDTO::getIndex).toList());
+        assertEquals("accepted", results.get(0).getStatus());
+        assertEquals("error", results.get(1).getStatus());
+        assertEquals("accepted", results.get(2).getStatus());
+        assertEquals("accepted", results.get(3).getStatus());
+        assertNotNull(results.get(0).getId());
+
+        // Three valid records with a chunk size of 2 -> two batched inserts,
+        // then one enrichment update, ticket and notification per log
+        verify(logRepository, times(2)).saveAll(anyList());
+        verify(logRepository, times(3)).updateEnrichment(any(Log.class));
+        verify(ticketService, times(3)).createTicket(any(TicketDTO.class));
+        verify(logService, times(3)).sendLogNotification(any(Log.class), any(), any());
+    }
+
+    @Test
+    void ingestNdjson_attachesRecurringErrorToOpenTicket() throws Exception {
+        String body = "{\"level\":\"ERROR\",\"message\":\"Order 17 not found\"}\n"
+                + "{\"level\":\"ERROR\",\"message\":\"Order 42 not found\"}\n";
+        // First log: no open ticket at enrich nor at ticket time; second log: the ticket now exists
+        when(ticketService.recordOccurrence(any(Log.class)))
+                .thenReturn(Optional.empty(), Optional.empty(), Optional.of(5000L));
+
+        List<IngestResultDTO> results = logIngestService.ingestNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, results.size());
+        verify(ticketService, times(1)).withFingerprintLock(any(Log.class), any());
+        verify(ticketService, times(1)).createTicket(any(TicketDTO.class));
+        verify(logService, times(1)).sendLogNotification(any(Log.class), any(), any());
+        verify(stackTraceAnalysisCache, never()).classifyException(any());
+        verify(logRepository).updateEnrichment(argThat(log -> Long.valueOf(5000L).equals(log.getAttachedTicketId())
+                && log.getFingerprint() != null));
+    }
+
+    @Test
+    void ingestNdjson_keepsTheExceptionOfARecurrenceAttachedToAnOpenTicket() throws Exception {
+        String body = "{\"level\":\"ERROR\",\"message\":\"Order 42 not found\",\"thrown\":"
+                + "{\"name\":\"java.lang.IllegalStateException\",\"extendedStackTrace\":\"at com.acme.Orders.find\"}}\n";
+        when(ticketService.recordOccurrence(any(Log.class))).thenReturn(Optional.of(5000L));
+        when(stackTraceAnalysisCache.hash("at com.acme.Orders.find")).thenReturn("trace-hash");
+        doAnswer(invocation -> {
+            Log log = invocation.getArgument(0);
+            log.setStackTraceRef(log.getStackTrace() != null ? "trace-ref" : null);
+            return null;
+        }).when(logPayloadStore).externalize(any(Log.class));
+
+        logIngestService.ingestNdjson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        verify(stackTraceAnalysisCache, never()).analyzeStackTrace(any(), any());
+        verify(ticketService, never()).createTicket(any(TicketDTO.class));
+        verify(logRepository).updateEnrichment(argThat(log -> Long.valueOf(5000L).equals(log.getAttachedTicketId())
+                && "java.lang.IllegalStateException".equals(log.getExceptionType())
+                && "trace-hash".equals(log.getStackTraceHash())
+                && "trace-ref".equals(log.getStackTraceRef())));
+    }
+
+    @Test
+    void ingestNdjson_storesRecordsOverTheRateLimitWithoutAnalysisOrTicket() throws Exception {
+        String body = "{\"level\":\"ERROR\",\"message\":\"first\",\"container_name\":\"/acme_api\",\"tag\":\"api\"}\n"
+                + "{\"level\":\"ERROR\",\"message\":\"second\",\"container_name\":\"/acme_api\",\"tag\":\"api\","
+                + "\"thrown\":{\"name\":\"java.lang.IllegalStateException\",\"extendedStackTrace\":\"at com.acme.Orders.find\"}}\n";
+        when(ingestRateLimiter.admit("acme", "api"))
+                .thenReturn(IngestRateLimiter.Admission.FULL, IngestRateLimiter.Admission.DEGRADED);
+        when(ticketService.recordOccurrence(any(Log.class))).thenReturn(Optional.empty());
+        when(logService.findProjectByTagPublic("api")).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            Log log = invocation.getArgument(0);
+            log.setStackTraceRef(log.getStackTrace() != null ? "trace-ref" : null);
+            return null;
+        }).when(logPayloadStore).externalize(any(Log.class));
+
+        List<IngestResultDTO> results = logIngestService.ingestNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("accepted", "accepted"), results.stream().map(IngestResultDTO::getStatus).toList());
+        assertNull(results.get(0).getMessage());
+        assertNotNull(results.get(1).getMessage());
+        // Both logs get their project and reach the live tail, only the first one a ticket
+        verify(logRepository, times(2)).updateEnrichment(argThat(log -> Long.valueOf(1L).equals(log.getProjectId())));
+        verify(logTailService, times(2)).publish(any(Log.class));
+        verify(ticketService, times(1)).createTicket(any(TicketDTO.class));
+        verify(logService, times(1)).sendLogNotification(any(Log.class), any(), any());
+        // The degraded log still keeps its exception, with the stack trace externalized
+        verify(logRepository).updateEnrichment(argThat(log -> "second".equals(log.getDescription())
+                && "java.lang.IllegalStateException".equals(log.getExceptionType())
+                && "trace-ref".equals(log.getStackTraceRef())));
+    }
+
+    @Test
+    void ingestNdjson_onlyStoresSampledRecordsAndTicketsThoseAboveTheSeverityThreshold() throws Exception {
+        ReflectionTestUtils.setField(logIngestService, "ticketMinSeverity", LogSeverity.MEDIUM);
+        String body = "{\"level\":\"DEBUG\",\"message\":\"cache warmed\"}\n"
+                + "{\"level\":\"INFO\",\"message\":\"request served\"}\n"
+                + "{\"level\":\"WARN\",\"message\":\"slow query\"}\n";
+        when(logSampler.sample(any(Log.class), any())).thenAnswer(invocation ->
+                !"DEBUG".equals(invocation.<Log>getArgument(0).getType().name()));
+        when(ticketService.recordOccurrence(any(Log.class))).thenReturn(Optional.empty());
+
+        List<IngestResultDTO> results = logIngestService.ingestNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("sampled", "accepted", "accepted"),
+                results.stream().map(IngestResultDTO::getStatus).toList());
+        assertNull(results.get(0).getId());
+        // Chunks of 2 parsed records: [DEBUG, INFO] stores only INFO, then [WARN]
+        verify(logRepository, times(2)).saveAll(argThat(logs -> ((List<?>) logs).size() == 1));
+        // Only the WARN log reaches the MEDIUM threshold
+        verify(ticketService, times(1)).createTicket(argThat(ticket -> "slow query".equals(ticket.getDescription())));
+        verify(logService, times(1)).sendLogNotification(any(Log.class), any(), any());
+    }
+}
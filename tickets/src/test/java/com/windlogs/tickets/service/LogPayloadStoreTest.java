@@ -0,0 +1,76 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.entity.CompressedTextConverter;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogPayloadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LogPayloadStoreTest {
+
+    @Mock
+    private LogPayloadRepository logPayloadRepository;
+
+    private LogPayloadStore logPayloadStore;
+
+    @BeforeEach
+    void setUp() {
+        logPayloadStore = new LogPayloadStore(logPayloadRepository, new CompressedTextConverter(512), 100, 60);
+    }
+
+    @Test
+    void externalize_storesIdenticalStackTracesOnce() {
+        Log first = log("java.lang.IllegalStateException: boom", "{}");
+        Log second = log("java.lang.IllegalStateException: boom", null);
+
+        logPayloadStore.externalize(first);
+        logPayloadStore.externalize(second);
+
+        // Same hash as encode(sha256(convert_to(text, 'UTF8')), 'hex') in db/migration/V1_8
+        assertEquals("44136fa355b3678a1146ad16f7e8649e94fb4fc21fe77e8310c060f61caaff8a", first.getAnalysisRef());
+        assertEquals(first.getStackTraceRef(), second.getStackTraceRef());
+        assertNull(second.getAnalysisRef());
+        verify(logPayloadRepository, times(1))
+                .storeOrTouch(eq(first.getStackTraceRef()), any(byte[].class), eq(first.getStackTrace()));
+        verify(logPayloadRepository, times(1))
+                .storeOrTouch(eq(first.getAnalysisRef()), any(byte[].class), isNull());
+    }
+
+    @Test
+    void hydrate_loadsEveryPayloadInOneQuery() {
+        Log first = new Log();
+        first.setStackTraceRef("trace");
+        first.setAnalysisRef("analysis");
+        Log second = new Log();
+        second.setStackTraceRef("trace");
+        when(logPayloadRepository.findContents(Set.of("trace", "analysis")))
+                .thenReturn(Map.of("trace", "stack", "analysis", "{}"));
+
+        logPayloadStore.hydrate(List.of(first, second));
+
+        assertEquals("stack", first.getStackTrace());
+        assertEquals("{}", first.getAnalysis());
+        assertEquals("stack", second.getStackTrace());
+        assertNull(second.getAnalysis());
+        verify(logPayloadRepository, times(1)).findContents(anyCollection());
+    }
+
+    private static Log log(String stackTrace, String analysis) {
+        Log log = new Log();
+        log.setStackTrace(stackTrace);
+        log.setAnalysis(analysis);
+        return log;
+    }
+}
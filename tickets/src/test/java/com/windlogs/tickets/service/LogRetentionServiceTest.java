@@ -0,0 +1,59 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.config.LogRetentionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class LogRetentionServiceTest {
+
+    @Test
+    void expiredPartitions_onlyDropsMonthsBeforeTheRetentionWindow() {
+        List<String> partitions = List.of("logs_p202612", "logs_p202604", "logs_p202603", "logs_p202510", "logs_default");
+
+        List<String> expired = LogRetentionService.expiredPartitions(partitions, YearMonth.of(2026, 10), 6);
+
+        assertEquals(List.of("logs_p202510", "logs_p202603"), expired);
+    }
+
+    @Test
+    void retention_longestMonthsCoversTenantOverrides() {
+        LogRetentionProperties retention = new LogRetentionProperties(12, Map.of("acme", 24, "trial", 1));
+
+        assertEquals(24, retention.longestMonths());
+        assertEquals(1, retention.monthsFor("trial"));
+        assertEquals(12, retention.monthsFor("other"));
+        assertEquals(12, new LogRetentionProperties(12, null).longestMonths());
+    }
+
+    @Test
+    void maintain_skipsTheRunWhileAnotherInstanceHoldsTheLock() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet result = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(result);
+        when(result.next()).thenReturn(true);
+        when(result.getBoolean(1)).thenReturn(false);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+
+        new LogRetentionService(jdbcTemplate, new LogRetentionProperties(12, null), 2, 1000, 24).maintain();
+
+        verify(connection).prepareStatement("SELECT pg_try_advisory_lock(hashtext('logs_maintenance'))");
+        verify(connection, never()).prepareStatement("SELECT pg_advisory_unlock(hashtext('logs_maintenance'))");
+        verify(jdbcTemplate, only()).execute(any(ConnectionCallback.class));
+    }
+}
@@ -0,0 +1,107 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.config.LogSamplingProperties;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogType;
+import com.windlogs.tickets.mapper.FluentdLogMapper;
+import com.windlogs.tickets.repository.LogSampledCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LogSamplerTest {
+
+    @Mock
+    private LogSampledCountRepository logSampledCountRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private double nextRandom;
+    private LogSampler logSampler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nextRandom = 0.5;
+        LogSamplingProperties properties = new LogSamplingProperties(
+                Map.of(LogType.DEBUG, 0.0, LogType.INFO, 0.1, LogType.ERROR, 0.0),
+                Map.of("payments", Map.of(LogType.INFO, 1.0)));
+        logSampler = new LogSampler(properties, logSampledCountRepository, meterRegistry, () -> nextRandom);
+    }
+
+    @Test
+    void sample_keepsErrorsAndTheConfiguredFractionOfEachLevel() {
+        assertTrue(logSampler.sample(log(LogType.ERROR, "api")));
+        assertTrue(logSampler.sample(log(LogType.FATAL, "api")));
+        assertTrue(logSampler.sample(log(LogType.WARN, "api")));
+        assertFalse(logSampler.sample(log(LogType.DEBUG, "api")));
+        assertFalse(logSampler.sample(log(LogType.INFO, "api")));
+        assertTrue(logSampler.sample(log(LogType.INFO, "payments")));
+
+        nextRandom = 0.05;
+        assertTrue(logSampler.sample(log(LogType.INFO, "api")));
+        assertFalse(logSampler.sample(log(LogType.DEBUG, "api")));
+
+        assertEquals(1.0, meterRegistry.counter("ingest.sampling.dropped", "type", "INFO").count());
+        assertEquals(2.0, meterRegistry.counter("ingest.sampling.dropped", "type", "DEBUG").count());
+    }
+
+    @Test
+    void sample_alwaysStoresLevelsThatAreNotALogType() {
+        FluentdLogMapper mapper = new FluentdLogMapper();
+        for (String level : new String[] {"WARNING", "CRITICAL", "SEVERE", "ERR", null}) {
+            Log log = log(mapper.determineLogType(level), "api");
+            assertEquals(LogType.INFO, log.getType());
+            assertTrue(logSampler.sample(log, level), level);
+        }
+        assertFalse(logSampler.sample(log(mapper.determineLogType("info"), "api"), "info"));
+
+        assertEquals(1.0, meterRegistry.counter("ingest.sampling.dropped", "type", "INFO").count());
+    }
+
+    @Test
+    void flush_addsTheDroppedCountsOfEachMinuteOnce() {
+        logSampler.sample(log(LogType.DEBUG, "api"));
+        logSampler.sample(log(LogType.DEBUG, "api"));
+        logSampler.sample(log(LogType.INFO, "api"));
+
+        logSampler.flush();
+        logSampler.flush();
+
+        verify(logSampledCountRepository).addDropped(eq("acme"), eq("api"), any(), eq("DEBUG"), eq(2L));
+        verify(logSampledCountRepository).addDropped(eq("acme"), eq("api"), any(), eq("INFO"), eq(1L));
+        verifyNoMoreInteractions(logSampledCountRepository);
+    }
+
+    @Test
+    void flush_keepsTheCountsItCouldNotStore() {
+        logSampler.sample(log(LogType.DEBUG, "api"));
+        when(logSampledCountRepository.addDropped(any(), any(), any(), any(), anyLong()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+
+        logSampler.flush();
+        logSampler.sample(log(LogType.DEBUG, "api"));
+        logSampler.flush();
+
+        verify(logSampledCountRepository).addDropped(eq("acme"), eq("api"), any(), eq("DEBUG"), eq(2L));
+    }
+
+    private static Log log(LogType type, String tag) {
+        Log log = new Log();
+        log.setType(type);
+        log.setTenant("acme");
+        log.setTag(tag);
+        return log;
+    }
+}
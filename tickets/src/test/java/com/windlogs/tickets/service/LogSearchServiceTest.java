@@ -0,0 +1,79 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.dto.CursorPageDTO;
+import com.windlogs.tickets.dto.LogSearchCursor;
+import com.windlogs.tickets.dto.LogSearchHitDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LogSearchServiceTest {
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private LogPayloadStore logPayloadStore;
+
+    private LogSearchService logSearchService;
+
+    @BeforeEach
+    void setUp() {
+        logSearchService = new LogSearchService(logRepository, logPayloadStore);
+    }
+
+    @Test
+    void search_returnsHitsInRankOrderWithTheNextCursor() {
+        LogSearchCursor best = new LogSearchCursor(0.6079271, 7L);
+        LogSearchCursor second = new LogSearchCursor(0.30396354, 9L);
+        when(logRepository.searchRanked("acme", null, "TicketService", null, 2))
+                .thenReturn(List.of(best, second));
+        when(logRepository.findAllById(List.of(7L))).thenReturn(List.of(log(7L, "Failure in com.acme.TicketService.find")));
+
+        CursorPageDTO<LogSearchHitDTO> page = logSearchService.search("acme", null, "TicketService", null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(7L, page.getItems().get(0).getLog().getId());
+        assertEquals("Failure in com.acme.<mark>TicketService</mark>.find",
+                page.getItems().get(0).getHighlights().get("description"));
+        assertTrue(page.isHasMore());
+        assertEquals(best, LogSearchCursor.decode(page.getNextCursor()));
+        verify(logPayloadStore).hydrate(anyList());
+    }
+
+    @Test
+    void search_rejectsQueriesWithoutWords() {
+        assertThrows(ResponseStatusException.class, () -> logSearchService.search("acme", null, " ?! ", null, 10));
+        verifyNoInteractions(logRepository);
+    }
+
+    @Test
+    void excerpt_marksWholeWordsAndEscapesHtml() {
+        Pattern terms = LogSearchService.termPattern("null <user>");
+
+        assertEquals("<mark>Null</mark> &lt;<mark>user</mark>&gt; in NullPointerException",
+                LogSearchService.excerpt("Null <user> in NullPointerException", terms));
+        assertNull(LogSearchService.excerpt("NullPointerException", terms));
+    }
+
+    private static Log log(Long id, String description) {
+        Log log = new Log();
+        log.setId(id);
+        log.setTenant("acme");
+        log.setDescription(description);
+        return log;
+    }
+}
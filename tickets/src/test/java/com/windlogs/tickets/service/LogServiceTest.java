@@ -0,0 +1,81 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.dto.CursorPageDTO;
+import com.windlogs.tickets.dto.LogCursor;
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.dto.LogSummaryDTO;
+import com.windlogs.tickets.kafka.LogProducer;
+import com.windlogs.tickets.repository.LogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LogServiceTest {
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private LogProducer logProducer;
+
+    @Mock
+    private ProjectService projectService;
+
+    private LogService logService;
+
+    @BeforeEach
+    void setUp() {
+        logService = new LogService(logRepository, logProducer, projectService);
+    }
+
+    @Test
+    void getLogPage_returnsCursorOfLastRowWhenMoreRowsExist() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        LogFilterDTO filter = new LogFilterDTO();
+        filter.setProjectId(7L);
+        when(logRepository.findSummaries(eq(filter), isNull(), eq(3)))
+                .thenReturn(List.of(summary(30L, now), summary(20L, now), summary(10L, now.minusMinutes(1))));
+
+        CursorPageDTO<LogSummaryDTO> page = logService.getLogPage(filter, null, 2);
+
+        assertEquals(List.of(30L, 20L), page.getItems().stream().map(LogSummaryDTO::getId).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(new LogCursor(now, 20L), LogCursor.decode(page.getNextCursor()));
+
+        when(logRepository.findSummaries(filter, new LogCursor(now, 20L), 3))
+                .thenReturn(List.of(summary(10L, now.minusMinutes(1))));
+
+        CursorPageDTO<LogSummaryDTO> last = logService.getLogPage(filter, page.getNextCursor(), 2);
+
+        assertEquals(1, last.getItems().size());
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void getLogPage_rejectsMalformedCursor() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> logService.getLogPage(new LogFilterDTO(), "not-a-cursor", 10));
+
+        assertEquals(400, e.getStatusCode().value());
+        verifyNoInteractions(logRepository);
+    }
+
+    private static LogSummaryDTO summary(Long id, LocalDateTime timestamp) {
+        LogSummaryDTO summary = new LogSummaryDTO();
+        summary.setId(id);
+        summary.setTimestamp(timestamp);
+        return summary;
+    }
+}
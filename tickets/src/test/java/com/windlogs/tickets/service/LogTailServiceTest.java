@@ -0,0 +1,172 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.dto.LogCursor;
+import com.windlogs.tickets.dto.LogFilterDTO;
+import com.windlogs.tickets.dto.LogSummaryDTO;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.enums.LogSeverity;
+import com.windlogs.tickets.repository.LogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LogTailServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+    @Mock
+    private LogRepository logRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LogTailService logTailService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        logTailService = new LogTailService(logRepository, meterRegistry, 2, 2, 60, 10, 3600);
+    }
+
+    @Test
+    void tail_onlyPushesLogsMatchingTheFilter() throws Exception {
+        CompletableFuture<List<ServerSentEvent<Object>>> events =
+                logTailService.tail(filter(LogSeverity.HIGH), null).take(1).collectList().toFuture();
+
+        logTailService.publish(log(1L, "other", LogSeverity.HIGH));
+        logTailService.publish(log(2L, "acme", LogSeverity.LOW));
+        logTailService.publish(log(3L, "acme", LogSeverity.HIGH));
+
+        List<ServerSentEvent<Object>> received = events.get(5, TimeUnit.SECONDS);
+        assertEquals(new LogCursor(CREATED_AT, 3L), LogCursor.decode(received.get(0).id()));
+        assertEquals("log", received.get(0).event());
+        assertEquals(3L, ((LogSummaryDTO) received.get(0).data()).getId());
+    }
+
+    @Test
+    void tail_resumesAfterTheLastEventIdWithoutDuplicates() throws Exception {
+        // The overlap window also returns 10 itself, and 8, inserted earlier but committed late
+        when(logRepository.findSummariesCreatedSince(any(LogFilterDTO.class), eq(CREATED_AT.minusSeconds(60)), eq(3)))
+                .thenReturn(List.of(LogSummaryDTO.of(log(10L, "acme", LogSeverity.HIGH)),
+                        LogSummaryDTO.of(log(8L, "acme", LogSeverity.HIGH))));
+        CompletableFuture<List<ServerSentEvent<Object>>> events = logTailService
+                .tail(filter(null), new LogCursor(CREATED_AT, 10L).encode()).take(2).collectList().toFuture();
+
+        // Published while the replay may still be read: 8 is in both
+        logTailService.publish(log(8L, "acme", LogSeverity.HIGH));
+        logTailService.publish(log(13L, "acme", LogSeverity.HIGH));
+
+        assertEquals(List.of(8L, 13L), logIds(events.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void tail_sendsAGapEventWhenTheReplayIsCut() throws Exception {
+        when(logRepository.findSummariesCreatedSince(any(LogFilterDTO.class), any(LocalDateTime.class), eq(3)))
+                .thenReturn(List.of(LogSummaryDTO.of(log(11L, "acme", LogSeverity.HIGH)),
+                        LogSummaryDTO.of(log(12L, "acme", LogSeverity.HIGH)),
+                        LogSummaryDTO.of(log(14L, "acme", LogSeverity.HIGH))));
+        CompletableFuture<List<ServerSentEvent<Object>>> events = logTailService
+                .tail(filter(null), new LogCursor(CREATED_AT, 10L).encode()).take(4).collectList().toFuture();
+
+        logTailService.publish(log(15L, "acme", LogSeverity.HIGH));
+
+        List<ServerSentEvent<Object>> received = events.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("log", "log", "gap", "log"), received.stream().map(ServerSentEvent::event).toList());
+        // Resuming from the gap goes on after the last replayed log
+        assertEquals(new LogCursor(CREATED_AT, 12L), LogCursor.decode(received.get(2).id()));
+    }
+
+    @Test
+    void tail_sendsAGapEventForAnUnknownLastEventId() throws Exception {
+        CompletableFuture<List<ServerSentEvent<Object>>> events =
+                logTailService.tail(filter(null), "42").take(2).collectList().toFuture();
+
+        logTailService.publish(log(43L, "acme", LogSeverity.HIGH));
+
+        assertEquals(List.of("gap", "log"),
+                events.get(5, TimeUnit.SECONDS).stream().map(ServerSentEvent::event).toList());
+        verifyNoInteractions(logRepository);
+    }
+
+    @Test
+    void tail_dropsTheOldestLogsOfASlowSubscriber() {
+        List<LogSummaryDTO> received = new CopyOnWriteArrayList<>();
+        BaseSubscriber<ServerSentEvent<Object>> slow = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // Reads nothing until the end of the burst
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<Object> event) {
+                received.add((LogSummaryDTO) event.data());
+            }
+        };
+        logTailService.tail(filter(null), null).subscribe(slow);
+
+        for (long id = 1; id <= 100; id++) {
+            logTailService.publish(log(id, "acme", LogSeverity.HIGH));
+        }
+        slow.request(Long.MAX_VALUE);
+        slow.dispose();
+
+        assertTrue(received.size() < 100);
+        assertEquals(100L, received.get(received.size() - 1).getId());
+        assertTrue(meterRegistry.counter("logs.tail.dropped").count() > 0);
+        assertEquals(0.0, meterRegistry.get("logs.tail.subscribers").gauge().value());
+    }
+
+    @Test
+    void tail_onlyTakesASubscriberSlotOnceSubscribed() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        logTailService = new LogTailService(logRepository, meterRegistry, 2, 2, 60, 1, 3600);
+
+        // Never subscribed, e.g. the client went away before the response started
+        logTailService.tail(filter(null), null);
+        logTailService.tail(filter(null), null);
+        assertEquals(0.0, meterRegistry.get("logs.tail.subscribers").gauge().value());
+
+        CompletableFuture<List<ServerSentEvent<Object>>> events =
+                logTailService.tail(filter(null), null).take(1).collectList().toFuture();
+        assertThrows(ResponseStatusException.class, () -> logTailService.tail(filter(null), null));
+        logTailService.publish(log(1L, "acme", LogSeverity.HIGH));
+
+        assertEquals(1, events.get(5, TimeUnit.SECONDS).size());
+        assertEquals(0.0, meterRegistry.get("logs.tail.subscribers").gauge().value());
+    }
+
+    private static List<Long> logIds(List<ServerSentEvent<Object>> events) {
+        return events.stream().map(event -> ((LogSummaryDTO) event.data()).getId()).toList();
+    }
+
+    private static LogFilterDTO filter(LogSeverity severity) {
+        LogFilterDTO filter = LogFilterDTO.of(null, severity, null, null, null);
+        filter.setTenant("acme");
+        return filter;
+    }
+
+    private static Log log(Long id, String tenant, LogSeverity severity) {
+        Log log = new Log();
+        log.setId(id);
+        log.setTenant(tenant);
+        log.setSeverity(severity);
+        log.setCreatedAt(CREATED_AT);
+        return log;
+    }
+}
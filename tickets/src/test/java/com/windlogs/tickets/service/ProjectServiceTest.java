@@ -0,0 +1,100 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.dto.ProjectResponseDTO;
+import com.windlogs.tickets.dto.UserResponseDTO;
+import com.windlogs.tickets.feign.AuthenticationFeignClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProjectServiceTest {
+
+    @Mock
+    private AuthenticationFeignClient authenticationFeignClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProjectService projectService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        projectService = new ProjectService(authenticationFeignClient, meterRegistry, 100, 600, 60, 300, 100, 300, 30);
+    }
+
+    @Test
+    void findProjectByPrimaryTag_cachesKnownAndUnknownTags() {
+        ProjectResponseDTO project = new ProjectResponseDTO();
+        project.setId(7L);
+        project.setTenant("acme");
+        when(authenticationFeignClient.findProjectsByPrimaryTagPublic("api")).thenReturn(List.of(project));
+        when(authenticationFeignClient.findProjectsByPrimaryTagPublic("ghost")).thenReturn(Collections.emptyList());
+
+        assertEquals(Optional.of(project), projectService.findProjectByPrimaryTag("api", ""));
+        assertEquals(Optional.of(project), projectService.findProjectByPrimaryTag("api", ""));
+        assertTrue(projectService.findProjectByPrimaryTag("ghost", "").isEmpty());
+        assertTrue(projectService.findProjectByPrimaryTag("ghost", "").isEmpty());
+
+        verify(authenticationFeignClient, times(1)).findProjectsByPrimaryTagPublic("api");
+        verify(authenticationFeignClient, times(1)).findProjectsByPrimaryTagPublic("ghost");
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "projectByTag").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evictProjectTag_forcesReload() {
+        when(authenticationFeignClient.findProjectsByPrimaryTagPublic("api")).thenReturn(Collections.emptyList());
+
+        projectService.findProjectByPrimaryTag("api", "");
+        projectService.evictProjectTag("api");
+        projectService.findProjectByPrimaryTag("api", "");
+
+        verify(authenticationFeignClient, times(2)).findProjectsByPrimaryTagPublic("api");
+    }
+
+    @Test
+    void findProjectByPrimaryTag_doesNotCacheFailures() {
+        when(authenticationFeignClient.findProjectsByPrimaryTagPublic("api"))
+                .thenThrow(new RuntimeException("Authentication service is not available"));
+
+        assertTrue(projectService.findProjectByPrimaryTag("api", "").isEmpty());
+        assertTrue(projectService.findProjectByPrimaryTag("api", "").isEmpty());
+
+        verify(authenticationFeignClient, times(2)).findProjectsByPrimaryTagPublic("api");
+    }
+
+    @Test
+    void getDefaultAssignee_prefersManagerAndReusesCachedMembers() {
+        UserResponseDTO developer = user(1L, "DEVELOPER");
+        UserResponseDTO manager = user(2L, "MANAGER");
+        when(authenticationFeignClient.getProjectMembers(7L)).thenReturn(List.of(developer, manager));
+
+        assertEquals(Optional.of(manager), projectService.getDefaultAssignee(7L));
+        assertEquals(List.of(developer, manager), projectService.getProjectUsers(7L));
+        assertEquals(Optional.of(manager), projectService.getDefaultAssignee(7L));
+        verify(authenticationFeignClient, times(1)).getProjectMembers(7L);
+
+        projectService.evictProjectMembers(7L);
+        when(authenticationFeignClient.getProjectMembers(7L)).thenReturn(List.of(developer));
+        assertEquals(Optional.of(developer), projectService.getDefaultAssignee(7L));
+        verify(authenticationFeignClient, times(2)).getProjectMembers(7L);
+    }
+
+    private static UserResponseDTO user(Long id, String role) {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setId(id);
+        user.setRole(role);
+        user.setEmail(role.toLowerCase() + "@windlogs.com");
+        return user;
+    }
+}
@@ -0,0 +1,94 @@
+package com.windlogs.tickets.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windlogs.tickets.entity.Log;
+import com.windlogs.tickets.repository.LogRepository;
+import com.windlogs.tickets.service.ExceptionAnalyzerService.StackTraceAnalysisResponse;
+import com.windlogs.tickets.service.StackTraceAnalysisCache.CachedAnalysis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StackTraceAnalysisCacheTest {
+
+    private static final String TRACE = "java.lang.IllegalStateException: boom\n"
+            + "\tat com.acme.UserService.find(UserService.java:42) ~[app.jar:1.0]\n";
+
+    @Mock
+    private ExceptionAnalyzerService exceptionAnalyzerService;
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private LogPayloadStore logPayloadStore;
+
+    private StackTraceAnalysisCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StackTraceAnalysisCache(exceptionAnalyzerService, logRepository, logPayloadStore, new LogFingerprinter(),
+                new ObjectMapper(), new SimpleMeterRegistry(), 100, 600, true);
+    }
+
+    @Test
+    void analyzeStackTrace_callsAnalyzerOncePerStackTrace() {
+        String hash = cache.hash(TRACE);
+        when(logRepository.findFirstByStackTraceHashAndAnalysisRefIsNotNullOrderByIdDesc(hash)).thenReturn(Optional.empty());
+        StackTraceAnalysisResponse response = new StackTraceAnalysisResponse();
+        response.setStackTrace("formatted");
+        response.setAnalysis(Map.of("cause", "boom"));
+        when(exceptionAnalyzerService.analyzeStackTraceAsync(TRACE)).thenReturn(Mono.just(response));
+
+        CachedAnalysis first = cache.analyzeStackTrace(hash, TRACE).join();
+        CachedAnalysis second = cache.analyzeStackTrace(cache.hash(TRACE.replace("1.0", "1.1")), TRACE).join();
+
+        assertEquals(new CachedAnalysis("formatted", "{\"cause\":\"boom\"}"), first);
+        assertSame(first, second);
+        verify(exceptionAnalyzerService, times(1)).analyzeStackTraceAsync(TRACE);
+    }
+
+    @Test
+    void analyzeStackTrace_reusesPersistedAnalysis() {
+        String hash = cache.hash(TRACE);
+        Log analyzed = new Log();
+        analyzed.setStackTrace("formatted");
+        analyzed.setAnalysis("{\"cause\":\"boom\"}");
+        when(logRepository.findFirstByStackTraceHashAndAnalysisRefIsNotNullOrderByIdDesc(hash)).thenReturn(Optional.of(analyzed));
+
+        assertEquals(new CachedAnalysis("formatted", "{\"cause\":\"boom\"}"), cache.analyzeStackTrace(hash, TRACE).join());
+        verify(logPayloadStore).hydrate(analyzed);
+        verifyNoInteractions(exceptionAnalyzerService);
+    }
+
+    @Test
+    void analyzeStackTrace_doesNotCacheFailures() {
+        String hash = cache.hash(TRACE);
+        when(logRepository.findFirstByStackTraceHashAndAnalysisRefIsNotNullOrderByIdDesc(hash)).thenReturn(Optional.empty());
+        StackTraceAnalysisResponse failed = new StackTraceAnalysisResponse();
+        failed.setError("Analysis failed: bad input");
+        when(exceptionAnalyzerService.analyzeStackTraceAsync(TRACE)).thenReturn(Mono.just(failed));
+        when(exceptionAnalyzerService.analyzeExceptionAsync("boom"))
+                .thenReturn(Mono.error(new TimeoutException("Did not observe any item within 2000ms")));
+
+        assertNull(cache.analyzeStackTrace(hash, TRACE).join());
+        assertNull(cache.analyzeStackTrace(hash, TRACE).join());
+        assertNull(cache.classifyException("boom").join());
+        assertNull(cache.classifyException("boom").join());
+
+        verify(exceptionAnalyzerService, times(2)).analyzeStackTraceAsync(TRACE);
+        verify(exceptionAnalyzerService, times(2)).analyzeExceptionAsync("boom");
+    }
+}
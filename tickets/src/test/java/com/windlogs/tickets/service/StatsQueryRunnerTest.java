@@ -0,0 +1,108 @@
+package com.windlogs.tickets.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StatsQueryRunnerTest {
+
+    private ExecutorService executor;
+    private JdbcTemplate jdbcTemplate;
+    private StatsQueryRunner statsQueryRunner;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        statsQueryRunner = new StatsQueryRunner(executor, mock(PlatformTransactionManager.class), jdbcTemplate, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void collect_keepsOtherSectionsWhenOneQueryFails() {
+        Map<String, Object> stats = new HashMap<>();
+        CompletableFuture<Long> tickets = statsQueryRunner.submit(() -> 42L);
+        CompletableFuture<Long> logs = statsQueryRunner.submit(() -> {
+            throw new IllegalStateException("connection refused");
+        });
+
+        statsQueryRunner.collect(stats, "tickets", tickets, count -> stats.put("totalTickets", count));
+        statsQueryRunner.collect(stats, "logs", logs, count -> stats.put("criticalErrors", count));
+
+        assertEquals(42L, stats.get("totalTickets"));
+        assertFalse(stats.containsKey("criticalErrors"));
+        assertEquals(Map.of("logs", "failed"), stats.get(StatsQueryRunner.ERRORS_KEY));
+    }
+
+    @Test
+    void collect_marksSlowQueryAsTimedOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Object> stats = new HashMap<>();
+        CompletableFuture<Long> slow = statsQueryRunner.submit(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1L;
+        });
+
+        statsQueryRunner.collect(stats, "logs", slow, count -> stats.put("criticalErrors", count));
+        release.countDown();
+
+        assertEquals(Map.of("logs", "timeout"), stats.get(StatsQueryRunner.ERRORS_KEY));
+    }
+
+    @Test
+    void submit_setsTheStatementTimeoutBeforeTheQuery() {
+        CompletableFuture<Long> query = statsQueryRunner.submit(() -> {
+            verify(jdbcTemplate).execute("SET LOCAL statement_timeout = 200");
+            return 42L;
+        });
+
+        assertEquals(42L, query.join());
+    }
+
+    @Test
+    void submit_runsQueriesConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Map<String, Object> stats = new HashMap<>();
+        // Each query only returns once the other has started, so a serial run would time out
+        CompletableFuture<Boolean> first = statsQueryRunner.submit(() -> awaitOther(bothStarted));
+        CompletableFuture<Boolean> second = statsQueryRunner.submit(() -> awaitOther(bothStarted));
+
+        statsQueryRunner.collect(stats, "first", first, started -> stats.put("first", started));
+        statsQueryRunner.collect(stats, "second", second, started -> stats.put("second", started));
+
+        assertEquals(true, stats.get("first"));
+        assertEquals(true, stats.get("second"));
+        assertNull(stats.get(StatsQueryRunner.ERRORS_KEY));
+    }
+
+    private static boolean awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            return bothStarted.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.windlogs.tickets.service;
+
+import com.windlogs.tickets.repository.LogDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatsRollupServiceTest {
+
+    @Mock
+    private LogDailyRollupRepository logDailyRollupRepository;
+
+    @Mock
+    private DashboardStatsCache dashboardStatsCache;
+
+    private StatsRollupService statsRollupService;
+
+    @BeforeEach
+    void setUp() {
+        statsRollupService = new StatsRollupService(logDailyRollupRepository, dashboardStatsCache, 2);
+    }
+
+    @Test
+    void refreshRecentDays_replacesRollupsOfTodayAndYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(logDailyRollupRepository.tryLockRebuild()).thenReturn(true);
+
+        statsRollupService.refreshRecentDays();
+
+        InOrder inOrder = inOrder(logDailyRollupRepository);
+        inOrder.verify(logDailyRollupRepository).deleteFromDay(yesterday);
+        inOrder.verify(logDailyRollupRepository).insertFromLogs(yesterday.atStartOfDay());
+        verify(dashboardStatsCache).invalidateAll();
+    }
+
+    @Test
+    void backfillIfEmpty_onlyRunsOnAnEmptyTable() {
+        LocalDate firstDay = LocalDate.of(2024, 1, 15);
+        when(logDailyRollupRepository.count()).thenReturn(0L, 42L);
+        when(logDailyRollupRepository.findFirstLogDay()).thenReturn(firstDay);
+
+        statsRollupService.backfillIfEmpty();
+        statsRollupService.backfillIfEmpty();
+
+        verify(logDailyRollupRepository, times(2)).lockRebuild();
+        verify(logDailyRollupRepository, times(1)).deleteFromDay(firstDay);
+        verify(logDailyRollupRepository, times(1)).insertFromLogs(firstDay.atStartOfDay());
+    }
+
+    @Test
+    void refreshRecentDays_skipsTheRunWhileAnotherInstanceRebuilds() {
+        when(logDailyRollupRepository.tryLockRebuild()).thenReturn(false);
+
+        statsRollupService.refreshRecentDays();
+
+        verify(logDailyRollupRepository, never()).deleteFromDay(any());
+        verify(logDailyRollupRepository, never()).insertFromLogs(any());
+        verify(dashboardStatsCache, never()).invalidateAll();
+    }
+}